@@ -0,0 +1,66 @@
+package com.bank.onboarding.accountservice.benchmarks;
+
+import com.bank.onboarding.accountservice.services.AccountFactory;
+import com.bank.onboarding.accountservice.services.impl.AccountServiceImpl;
+import com.bank.onboarding.commonslib.persistence.models.Account;
+import com.bank.onboarding.commonslib.web.dtos.account.AccountDTO;
+import com.bank.onboarding.commonslib.web.dtos.account.CreateAccountRequestDTO;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+import static com.bank.onboarding.commonslib.utils.TestOnboardingUtils.buildCreateAccountRequestDTO;
+
+/**
+ * {@code createAccount} end to end minus the I/O: validation, IBAN generation, building the account, its readiness
+ * and its serialized CREATE_ACCOUNT outbox event, and mapping the response.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AccountCreationBenchmark {
+
+    private InMemoryStandIns.Accounts accounts;
+    private AccountServiceImpl accountService;
+    private AccountFactory accountFactory;
+    private CreateAccountRequestDTO createAccountRequestDTO;
+
+    @Setup
+    public void setUp() {
+        accounts = new InMemoryStandIns.Accounts();
+        accountService = InMemoryStandIns.accountService(accounts, new InMemoryStandIns.Outbox());
+        accountFactory = InMemoryStandIns.accountFactory();
+        createAccountRequestDTO = buildCreateAccountRequestDTO();
+    }
+
+    /**
+     * Keeps the in-memory account map from growing across iterations.
+     */
+    @Setup(Level.Iteration)
+    public void clearAccounts() {
+        accounts.clear();
+    }
+
+    @Benchmark
+    public Account newAccount() {
+        return accountFactory.newAccount(createAccountRequestDTO);
+    }
+
+    @Benchmark
+    public AccountDTO createAccount() {
+        return accountService.createAccount(createAccountRequestDTO);
+    }
+}
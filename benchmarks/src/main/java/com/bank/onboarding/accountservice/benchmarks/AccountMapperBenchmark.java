@@ -0,0 +1,52 @@
+package com.bank.onboarding.accountservice.benchmarks;
+
+import com.bank.onboarding.accountservice.services.AccountFactory;
+import com.bank.onboarding.commonslib.persistence.models.Account;
+import com.bank.onboarding.commonslib.persistence.models.Card;
+import com.bank.onboarding.commonslib.utils.mappers.AccountMapper;
+import com.bank.onboarding.commonslib.web.dtos.account.AccountDTO;
+import com.bank.onboarding.commonslib.web.dtos.account.CardDTO;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static com.bank.onboarding.commonslib.utils.TestOnboardingUtils.buildAccount;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AccountMapperBenchmark {
+
+    private Account account;
+    private Card card;
+
+    @Setup
+    public void setUp() {
+        AccountFactory accountFactory = InMemoryStandIns.accountFactory();
+        account = buildAccount();
+        card = accountFactory.newCards(account, "CD", List.of("100200300")).get(0);
+    }
+
+    @Benchmark
+    public AccountDTO toAccountDTO() {
+        return AccountMapper.INSTANCE.toAccountDTO(account);
+    }
+
+    @Benchmark
+    public CardDTO toCardDTO() {
+        return AccountMapper.INSTANCE.toCardDTO(card);
+    }
+}
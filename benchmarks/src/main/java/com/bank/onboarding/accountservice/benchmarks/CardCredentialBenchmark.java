@@ -0,0 +1,65 @@
+package com.bank.onboarding.accountservice.benchmarks;
+
+import com.bank.onboarding.accountservice.services.CardCredentialGenerator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+import static com.bank.onboarding.commonslib.persistence.constants.OnboardingConstants.faker;
+
+/**
+ * Number, CVC and annual fee of one card, as {@code AccountFactory.newCards} used to build them through Datafaker and
+ * as {@link CardCredentialGenerator} builds them, on one thread and on four sharing the generator.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CardCredentialBenchmark {
+
+    private CardCredentialGenerator cardCredentialGenerator;
+
+    @Setup
+    public void setUp() {
+        cardCredentialGenerator = InMemoryStandIns.cardCredentialGenerator();
+    }
+
+    @Benchmark
+    public void faker(Blackhole blackhole) {
+        blackhole.consume(Double.valueOf(faker.commerce().price(5.00, 20.00).replace(",", ".")));
+        blackhole.consume((int) faker.number().randomNumber(3, false));
+        blackhole.consume(faker.numerify("####-####-####-####"));
+    }
+
+    @Benchmark
+    public void generator(Blackhole blackhole) {
+        blackhole.consume(cardCredentialGenerator.annualFee());
+        blackhole.consume(cardCredentialGenerator.cvc());
+        blackhole.consume(cardCredentialGenerator.cardNumbers(1));
+    }
+
+    @Benchmark
+    @Threads(4)
+    public void fakerContended(Blackhole blackhole) {
+        faker(blackhole);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public void generatorContended(Blackhole blackhole) {
+        generator(blackhole);
+    }
+}
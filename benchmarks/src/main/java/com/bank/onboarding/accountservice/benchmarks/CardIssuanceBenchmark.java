@@ -0,0 +1,71 @@
+package com.bank.onboarding.accountservice.benchmarks;
+
+import com.bank.onboarding.accountservice.services.AccountFactory;
+import com.bank.onboarding.accountservice.services.impl.AccountServiceImpl;
+import com.bank.onboarding.commonslib.persistence.models.Account;
+import com.bank.onboarding.commonslib.persistence.models.Card;
+import com.bank.onboarding.commonslib.web.dtos.account.AccountCardDTO;
+import com.bank.onboarding.commonslib.web.dtos.account.CardDTO;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import static com.bank.onboarding.commonslib.utils.TestOnboardingUtils.buildAccountCardDTO;
+import static com.bank.onboarding.commonslib.utils.TestOnboardingUtils.buildCreateAccountRequestDTO;
+
+/**
+ * Card generation for {@code putAccountCard}, alone and with the rest of the operation, for one holder and for a
+ * joint account.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CardIssuanceBenchmark {
+
+    @Param({"1", "4"})
+    private int holders;
+
+    private AccountFactory accountFactory;
+    private AccountServiceImpl accountService;
+    private Account account;
+    private String accountNumber;
+    private AccountCardDTO accountCardDTO;
+    private List<String> customerNumbers;
+
+    @Setup
+    public void setUp() {
+        accountFactory = InMemoryStandIns.accountFactory();
+        accountService = InMemoryStandIns.accountService(new InMemoryStandIns.Accounts(), new InMemoryStandIns.Outbox());
+        account = accountFactory.newAccount(buildCreateAccountRequestDTO());
+        accountNumber = accountService.createAccount(buildCreateAccountRequestDTO()).getNumber();
+
+        customerNumbers = IntStream.range(0, holders).mapToObj(holder -> String.valueOf(100200300 + holder)).toList();
+        accountCardDTO = buildAccountCardDTO();
+        accountCardDTO.setCustomerNumber(customerNumbers);
+    }
+
+    @Benchmark
+    public List<Card> newCards() {
+        return accountFactory.newCards(account, accountCardDTO.getCardType(), customerNumbers);
+    }
+
+    @Benchmark
+    public CardDTO putAccountCard() {
+        return accountService.putAccountCard(accountNumber, accountCardDTO);
+    }
+}
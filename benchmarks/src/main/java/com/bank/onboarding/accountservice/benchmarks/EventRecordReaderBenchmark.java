@@ -0,0 +1,76 @@
+package com.bank.onboarding.accountservice.benchmarks;
+
+import com.bank.onboarding.accountservice.services.EventRecordReader;
+import com.bank.onboarding.commonslib.utils.kafka.models.DocUploadEvent;
+import com.bank.onboarding.commonslib.utils.kafka.models.ErrorEvent;
+import com.bank.onboarding.commonslib.web.dtos.customer.CustomerRefDTO;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static com.bank.onboarding.accountservice.services.EventRecordReader.DOCS_UPLOAD;
+import static com.bank.onboarding.accountservice.services.EventRecordReader.UPDATE_CUSTOMER_REF;
+
+/**
+ * Reading an account-service-topic record of each key, as the consumer does before dispatching it. Any other key is
+ * read as an ErrorEvent, so CREATE_ACCOUNT stands for all of them. {@code readThroughString} is the path the consumer
+ * took before, decoding the key and the value to Strings and reading the event from the String.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EventRecordReaderBenchmark {
+
+    private static final Map<String, String> EVENTS = Map.of(
+            UPDATE_CUSTOMER_REF, "{\"customerNumber\":\"100200300\",\"isValid\":true,\"accounts\":[{\"accountNumber\":\"0001000000000123449\"}]}",
+            DOCS_UPLOAD, "{\"accountNumber\":\"0001000000000123449\",\"areDocsValid\":true}",
+            "CREATE_ACCOUNT", "{\"operationType\":\"CREATE_ACCOUNT\",\"accountRefDTO\":{\"accountNumber\":\"0001000000000123449\"}}");
+
+    @Param({UPDATE_CUSTOMER_REF, DOCS_UPLOAD, "CREATE_ACCOUNT"})
+    private String eventKey;
+
+    private ObjectMapper objectMapper;
+    private EventRecordReader eventRecordReader;
+    private byte[] key;
+    private byte[] value;
+
+    @Setup
+    public void setUp() {
+        objectMapper = InMemoryStandIns.objectMapper();
+        eventRecordReader = new EventRecordReader(objectMapper);
+        key = eventKey.getBytes(StandardCharsets.UTF_8);
+        value = EVENTS.get(eventKey).getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public Object read() {
+        return eventRecordReader.read(key, value);
+    }
+
+    @Benchmark
+    public Object readThroughString() throws JsonProcessingException {
+        String eventValue = new String(value, StandardCharsets.UTF_8);
+        return switch (new String(key, StandardCharsets.UTF_8)) {
+            case UPDATE_CUSTOMER_REF -> objectMapper.readValue(eventValue, CustomerRefDTO.class);
+            case DOCS_UPLOAD -> objectMapper.readValue(eventValue, DocUploadEvent.class);
+            default -> objectMapper.readValue(eventValue, ErrorEvent.class);
+        };
+    }
+}
@@ -0,0 +1,227 @@
+package com.bank.onboarding.accountservice.benchmarks;
+
+import com.bank.onboarding.accountservice.persistence.models.AccountReadiness;
+import com.bank.onboarding.accountservice.persistence.models.OutboxEvent;
+import com.bank.onboarding.accountservice.persistence.services.AccountReadinessRepoService;
+import com.bank.onboarding.accountservice.persistence.services.AccountUpdateRepoService;
+import com.bank.onboarding.accountservice.persistence.services.BulkRepoService;
+import com.bank.onboarding.accountservice.persistence.services.CachedAccountRepoService;
+import com.bank.onboarding.accountservice.persistence.services.OutboxRepoService;
+import com.bank.onboarding.accountservice.services.AccountFactory;
+import com.bank.onboarding.accountservice.services.AccountMetrics;
+import com.bank.onboarding.accountservice.services.AccountRules;
+import com.bank.onboarding.accountservice.services.CardCredentialGenerator;
+import com.bank.onboarding.accountservice.services.CustomerEventOutbox;
+import com.bank.onboarding.accountservice.services.CustomerEventPublisher;
+import com.bank.onboarding.accountservice.services.IbanAllocator;
+import com.bank.onboarding.accountservice.services.impl.AccountServiceImpl;
+import com.bank.onboarding.commonslib.persistence.models.Account;
+import com.bank.onboarding.commonslib.persistence.models.Card;
+import com.bank.onboarding.commonslib.persistence.services.CardRepoService;
+import com.bank.onboarding.commonslib.utils.OnboardingUtils;
+import com.bank.onboarding.commonslib.utils.kafka.EventSeDeserializer;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import static com.bank.onboarding.accountservice.services.utils.IbanUtils.buildPortugueseIban;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+/**
+ * In-memory replacements for the Mongo-backed services and the outbox, so the benchmarks measure the CPU and
+ * allocation cost of the account code and not the database or Kafka. Each stand-in extends the real service and
+ * overrides the methods the benchmarked paths call; the MongoTemplate they would use is never touched. The
+ * commons-lib {@link CardRepoService}, {@link OnboardingUtils} and {@link EventSeDeserializer} are stub-only Mockito
+ * mocks, whose small, constant per-call cost is included in the card issuance results; the serializer one writes
+ * the events with Jackson.
+ */
+final class InMemoryStandIns {
+
+    static final String BANK_CODE = "0036";
+    static final String BRANCH_CODE = "0001";
+
+    private InMemoryStandIns() {
+    }
+
+    static ObjectMapper objectMapper() {
+        return new ObjectMapper().registerModule(new JavaTimeModule());
+    }
+
+    /**
+     * Builds IBANs the same way {@code IbanAllocatorImpl} does, from a local sequence instead of leased blocks.
+     */
+    static IbanAllocator ibanAllocator() {
+        AtomicLong sequence = new AtomicLong();
+        return () -> buildPortugueseIban(BANK_CODE, BRANCH_CODE, sequence.incrementAndGet());
+    }
+
+    static CardRepoService cardRepoService() {
+        CardRepoService cardRepoService = mock(CardRepoService.class, withSettings().stubOnly());
+        when(cardRepoService.getCardTypeValue(anyString())).thenReturn("Cartão de Débito");
+        return cardRepoService;
+    }
+
+    static CardCredentialGenerator cardCredentialGenerator() {
+        return new CardCredentialGenerator("400000", new BigDecimal("5.00"), new BigDecimal("20.00"));
+    }
+
+    static EventSeDeserializer eventSeDeserializer() {
+        ObjectMapper objectMapper = objectMapper();
+        EventSeDeserializer eventSeDeserializer = mock(EventSeDeserializer.class, withSettings().stubOnly());
+        when(eventSeDeserializer.serialize(any())).thenAnswer(invocation -> objectMapper.writeValueAsString(invocation.getArgument(0)));
+        return eventSeDeserializer;
+    }
+
+    static OnboardingUtils onboardingUtils() {
+        return mock(OnboardingUtils.class, withSettings().stubOnly());
+    }
+
+    static AccountFactory accountFactory() {
+        return new AccountFactory(ibanAllocator(), cardRepoService(), cardCredentialGenerator());
+    }
+
+    static AccountRules accountRules() {
+        return new AccountRules(onboardingUtils());
+    }
+
+    static AccountServiceImpl accountService(Accounts accounts, Outbox outbox) {
+        OnboardingUtils onboardingUtils = onboardingUtils();
+        CardRepoService cardRepoService = cardRepoService();
+        CustomerEventPublisher customerEventPublisher = new CustomerEventPublisher(null, eventSeDeserializer(), List.of());
+        return new AccountServiceImpl(null, onboardingUtils, cardRepoService,
+                new AccountFactory(ibanAllocator(), cardRepoService, cardCredentialGenerator()), new AccountRules(onboardingUtils),
+                new Readiness(), accounts, new InMemoryAccountUpdates(accounts), null, new Cards(),
+                customerEventPublisher, new CustomerEventOutbox(outbox, customerEventPublisher),
+                new NoTransactionTemplate(), new AccountMetrics(new SimpleMeterRegistry()), null);
+    }
+
+    static final class Accounts extends CachedAccountRepoService {
+
+        private final Map<String, Account> accountsByNumber = new ConcurrentHashMap<>();
+
+        Accounts() {
+            super(null, null, null, new SimpleMeterRegistry(), 1, Duration.ofMinutes(1), "benchmark");
+        }
+
+        @Override
+        public Account getAccountByNumber(String accountNumber) {
+            return accountsByNumber.get(accountNumber);
+        }
+
+        @Override
+        public Account saveAccountDB(Account account) {
+            if (account.getId() == null) account.setId(UUID.randomUUID().toString());
+            return cacheUpdatedAccount(account);
+        }
+
+        @Override
+        public Account cacheUpdatedAccount(Account updatedAccount) {
+            accountsByNumber.put(updatedAccount.getNumber(), updatedAccount);
+            return updatedAccount;
+        }
+
+        void clear() {
+            accountsByNumber.clear();
+        }
+    }
+
+    static final class Outbox extends OutboxRepoService {
+
+        private final LongAdder appendedEvents = new LongAdder();
+
+        Outbox() {
+            super(null);
+        }
+
+        @Override
+        public void appendAll(Collection<OutboxEvent> outboxEvents) {
+            appendedEvents.add(outboxEvents.size());
+        }
+
+        long appendedEvents() {
+            return appendedEvents.sum();
+        }
+    }
+
+    private static final class Readiness extends AccountReadinessRepoService {
+
+        private final Map<String, AccountReadiness> readinessByNumber = new ConcurrentHashMap<>();
+
+        Readiness() {
+            super(null);
+        }
+
+        @Override
+        public AccountReadiness findReadiness(String accountNumber) {
+            return readinessByNumber.get(accountNumber);
+        }
+
+        @Override
+        public AccountReadiness initReadiness(Account account, Set<String> cardHolders, Set<String> invalidCustomers) {
+            AccountReadiness accountReadiness = AccountReadiness.of(account, cardHolders, invalidCustomers);
+            readinessByNumber.put(account.getNumber(), accountReadiness);
+            return accountReadiness;
+        }
+
+        @Override
+        public void addCardHolders(String accountNumber, Collection<String> customerNumbers) {
+            readinessByNumber.get(accountNumber).getCardHolders().addAll(customerNumbers);
+        }
+    }
+
+    private static final class InMemoryAccountUpdates extends AccountUpdateRepoService {
+
+        private final Accounts accounts;
+
+        InMemoryAccountUpdates(Accounts accounts) {
+            super(null);
+            this.accounts = accounts;
+        }
+
+        @Override
+        public Account touch(String accountNumber) {
+            Account account = accounts.getAccountByNumber(accountNumber);
+            account.setLastUpdateTime(LocalDateTime.now());
+            return account;
+        }
+    }
+
+    private static final class Cards extends BulkRepoService {
+
+        Cards() {
+            super(null);
+        }
+
+        @Override
+        public void replaceCards(String accountId, Collection<String> customerNumbers, List<Card> cards) {
+            // Nothing is kept: only building the cards is measured.
+        }
+    }
+
+    private static final class NoTransactionTemplate extends TransactionTemplate {
+
+        @Override
+        public <T> T execute(TransactionCallback<T> action) {
+            return action.doInTransaction(new SimpleTransactionStatus());
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.bank.onboarding.accountservice.benchmarks;
+
+import com.bank.onboarding.accountservice.persistence.models.AccountReadiness;
+import com.bank.onboarding.accountservice.services.AccountRules;
+import com.bank.onboarding.commonslib.persistence.models.Account;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import static com.bank.onboarding.commonslib.utils.TestOnboardingUtils.buildAccount;
+
+/**
+ * The validation {@code moveToNextPhase} runs before its versioned update, for an account that is ready for every
+ * phase, so the successful path is measured.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PhaseTransitionBenchmark {
+
+    @Param({"2", "3", "4", "5"})
+    private int nextPhase;
+
+    private AccountRules accountRules;
+    private Account account;
+    private AccountReadiness accountReadiness;
+
+    @Setup
+    public void setUp() {
+        accountRules = InMemoryStandIns.accountRules();
+        account = buildAccount();
+        account.setOnlineBankingIndicator(Boolean.TRUE);
+        account.setHasValidDocs(Boolean.TRUE);
+        accountReadiness = AccountReadiness.of(account, Set.of("100200300"), Set.of());
+    }
+
+    @Benchmark
+    public boolean checkPhaseTransition() {
+        accountRules.checkNextPhase(nextPhase);
+        accountRules.checkPhaseTransition(account, nextPhase, () -> accountReadiness);
+        return accountRules.isFinalPhase(nextPhase);
+    }
+}
@@ -1,9 +1,11 @@
 package com.bank.onboarding.accountservice;
 
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
 import org.springframework.context.ApplicationContext;
 import org.springframework.context.annotation.Bean;
 import org.springframework.data.mongodb.repository.config.EnableMongoRepositories;
@@ -15,13 +17,27 @@ import java.util.Arrays;
 @Slf4j
 public class Application {
 
+	private static final int STARTUP_STEPS_CAPACITY = 4096;
+
+	/**
+	 * With {@code STARTUP_TIMELINE_ENABLED=true} every startup step is recorded and served by the actuator
+	 * {@code startup} endpoint. Read from the environment because it must be set before the context exists.
+	 */
 	public static void main(String[] args) {
-		SpringApplication.run(Application.class, args);
+		SpringApplication application = new SpringApplication(Application.class);
+		if (Boolean.parseBoolean(System.getenv("STARTUP_TIMELINE_ENABLED")))
+			application.setApplicationStartup(new BufferingApplicationStartup(STARTUP_STEPS_CAPACITY));
+		application.run(args);
 	}
 
+	/**
+	 * Checked when it runs rather than through a condition, which an AOT-processed build would fix at build time.
+	 */
 	@Bean
-	public CommandLineRunner commandLineRunner(ApplicationContext ctx) {
+	public CommandLineRunner commandLineRunner(ApplicationContext ctx,
+											   @Value("${bank.onboarding.startup.inspect-beans:false}") boolean inspectBeans) {
 		return args -> {
+			if (!inspectBeans) return;
 
 			log.info("Inspecting beans...");
 
@@ -0,0 +1,33 @@
+package com.bank.onboarding.accountservice.configs;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.mongo.MongoClientSettingsBuilderCustomizer;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Active when {@code spring.threads.virtual.enabled=true}. Spring Boot then runs Tomcat requests, the Kafka listener
+ * containers built through its configurer and the scheduler on virtual threads. Since requests are no longer capped
+ * by Tomcat's thread pool, the Mongo connection pool becomes the limit, so it is sized here and callers wait for a
+ * connection for a bounded time instead of piling up.
+ */
+@Slf4j
+@Configuration
+@ConditionalOnThreading(Threading.VIRTUAL)
+public class VirtualThreadsConfig {
+
+    @Bean
+    public MongoClientSettingsBuilderCustomizer virtualThreadsMongoClientSettingsCustomizer(
+            @Value("${bank.onboarding.virtual-threads.mongo-max-pool-size:200}") int maxPoolSize,
+            @Value("${bank.onboarding.virtual-threads.mongo-max-wait-ms:2000}") long maxWaitMs) {
+        log.info("Virtual threads enabled, Mongo connection pool sized to {} connections", maxPoolSize);
+        return settings -> settings.applyToConnectionPoolSettings(pool -> pool
+                .maxSize(maxPoolSize)
+                .maxWaitTime(maxWaitMs, TimeUnit.MILLISECONDS));
+    }
+}
@@ -0,0 +1,12 @@
+package com.bank.onboarding.accountservice;
+
+import org.springframework.boot.test.context.SpringBootTest;
+
+/**
+ * Runs the {@link AccountApiIntegrationTests} against the WebFlux stack, which only starts without JWT validation
+ * when allowed to.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.main.web-application-type=reactive", "bank.onboarding.reactive.allow-unauthenticated=true"})
+class ReactiveAccountApiIntegrationTests extends AccountApiIntegrationTests {
+}
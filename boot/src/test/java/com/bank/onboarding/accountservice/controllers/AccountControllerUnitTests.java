@@ -1,6 +1,11 @@
 package com.bank.onboarding.accountservice.controllers;
 
 import com.bank.onboarding.accountservice.services.AccountService;
+import com.bank.onboarding.accountservice.services.CardNotFoundException;
+import com.bank.onboarding.accountservice.services.IdempotencyStore;
+import com.bank.onboarding.accountservice.services.dtos.AccountListingEntryDTO;
+import com.bank.onboarding.accountservice.services.dtos.BulkCreateAccountResultDTO;
+import com.bank.onboarding.accountservice.services.dtos.VersionedAccountDTO;
 import com.bank.onboarding.commonslib.persistence.enums.CardType;
 import com.bank.onboarding.commonslib.persistence.models.Account;
 import com.bank.onboarding.commonslib.persistence.repositories.AccountRepository;
@@ -38,8 +43,16 @@ import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.boot.test.mock.mockito.MockBeans;
 import org.springframework.context.annotation.Import;
 import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 import static com.bank.onboarding.commonslib.utils.TestOnboardingUtils.buildAccount;
 import static com.bank.onboarding.commonslib.utils.TestOnboardingUtils.buildAccountCardDTO;
@@ -49,13 +62,26 @@ import static com.bank.onboarding.commonslib.utils.TestOnboardingUtils.buildCard
 import static com.bank.onboarding.commonslib.utils.TestOnboardingUtils.buildCreateAccountRequestDTO;
 import static com.bank.onboarding.commonslib.utils.TestOnboardingUtils.buildMoveNextPhaseDTO;
 import static com.bank.onboarding.commonslib.utils.TestOnboardingUtils.deleteAccountCardDTO;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
 import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @ExtendWith(SpringExtension.class)
@@ -87,6 +113,9 @@ class AccountControllerUnitTests {
     @MockBean
     private AccountService accountService;
 
+    @MockBean
+    private IdempotencyStore idempotencyStore;
+
     @Value("${bank.onboarding.client.id}")
     private String clientId;
 
@@ -128,6 +157,169 @@ class AccountControllerUnitTests {
                 .andExpect(jsonPath("$.type").value(accountDTO.getType()));
     }
 
+    @Test
+    void createAccountReplaysIdempotentResponseTest() throws Exception{
+        CreateAccountRequestDTO createAccountRequestDTO = buildCreateAccountRequestDTO();
+        String idempotencyKey = "create-account-key";
+
+        when(idempotencyStore.execute(anyString(), eq(idempotencyKey), eq(createAccountRequestDTO), any()))
+                .thenAnswer(invocation -> ResponseEntity.status(201)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .header(IdempotencyStore.IDEMPOTENT_REPLAYED_HEADER, "true")
+                        .body(objectMapper.writeValueAsString(accountDTO)));
+        mockMvc.perform(post("/accounts")
+                        .header("Authorization", "Bearer " + token)
+                        .header("X-Onboarding-Client-Id", clientId)
+                        .header(IdempotencyStore.IDEMPOTENCY_KEY_HEADER, idempotencyKey)
+                        .content(objectMapper.writeValueAsString(createAccountRequestDTO))
+                        .contentType(MediaType.APPLICATION_JSON_VALUE))
+                .andDo(print())
+                .andExpect(status().isCreated())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON_VALUE))
+                .andExpect(jsonPath("$.number").value(accountNumber));
+
+        verify(accountService, never()).createAccount(any());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void createAccountsTest() throws Exception{
+        CreateAccountRequestDTO createAccountRequestDTO = buildCreateAccountRequestDTO();
+        String requestLine = objectMapper.writeValueAsString(createAccountRequestDTO);
+
+        doAnswer(invocation -> {
+            Iterator<CreateAccountRequestDTO> requests = invocation.getArgument(0);
+            Consumer<BulkCreateAccountResultDTO> resultConsumer = invocation.getArgument(1);
+            int index = 0;
+            while (requests.hasNext()) {
+                requests.next();
+                resultConsumer.accept(BulkCreateAccountResultDTO.builder().index(index++)
+                        .status(BulkCreateAccountResultDTO.Status.CREATED).account(accountDTO).build());
+            }
+            return null;
+        }).when(accountService).createAccounts(any(), any());
+
+        MvcResult mvcResult = mockMvc.perform(post("/accounts/bulk")
+                        .header("Authorization", "Bearer " + token)
+                        .header("X-Onboarding-Client-Id", clientId)
+                        .content(requestLine + "\n" + requestLine + "\n")
+                        .contentType(MediaType.APPLICATION_NDJSON_VALUE))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        String[] results = mockMvc.perform(asyncDispatch(mvcResult))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON_VALUE))
+                .andReturn().getResponse().getContentAsString().split("\n");
+
+        assertEquals(2, results.length);
+        assertEquals(1, objectMapper.readTree(results[1]).get("index").asInt());
+        assertEquals(accountNumber, objectMapper.readTree(results[0]).get("account").get("number").asText());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void createAccountsHandsMalformedLinesOverAsNullTest() throws Exception{
+        String requestLine = objectMapper.writeValueAsString(buildCreateAccountRequestDTO());
+        List<CreateAccountRequestDTO> received = new ArrayList<>();
+
+        doAnswer(invocation -> {
+            Iterator<CreateAccountRequestDTO> requests = invocation.getArgument(0);
+            Consumer<BulkCreateAccountResultDTO> resultConsumer = invocation.getArgument(1);
+            while (requests.hasNext()) {
+                CreateAccountRequestDTO request = requests.next();
+                resultConsumer.accept(request == null
+                        ? BulkCreateAccountResultDTO.rejected(received.size(), "O pedido de criação de conta não é válido")
+                        : BulkCreateAccountResultDTO.created(received.size(), accountDTO));
+                received.add(request);
+            }
+            return null;
+        }).when(accountService).createAccounts(any(), any());
+
+        MvcResult mvcResult = mockMvc.perform(post("/accounts/bulk")
+                        .header("Authorization", "Bearer " + token)
+                        .header("X-Onboarding-Client-Id", clientId)
+                        .content(requestLine + "\n{\"accountType\": [\n" + requestLine + "\n")
+                        .contentType(MediaType.APPLICATION_NDJSON_VALUE))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        String[] results = mockMvc.perform(asyncDispatch(mvcResult))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString().split("\n");
+
+        assertEquals(3, received.size());
+        assertNull(received.get(1));
+        assertEquals(3, results.length);
+        assertEquals("REJECTED", objectMapper.readTree(results[1]).get("status").asText());
+        assertEquals("CREATED", objectMapper.readTree(results[2]).get("status").asText());
+    }
+
+    @Test
+    void getAccountTest() throws Exception{
+        String eTag = "\"3-1712000000.0\"";
+
+        when(accountService.getAccount(accountNumber)).thenReturn(new VersionedAccountDTO(accountDTO, eTag));
+        mockMvc.perform(get("/accounts/"+ accountNumber)
+                        .header("Authorization", "Bearer " + token)
+                        .header("X-Onboarding-Client-Id", clientId))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", eTag))
+                .andExpect(jsonPath("$.number").value(accountNumber))
+                .andExpect(jsonPath("$.type").value(accountDTO.getType()));
+
+        mockMvc.perform(get("/accounts/"+ accountNumber)
+                        .header("Authorization", "Bearer " + token)
+                        .header("X-Onboarding-Client-Id", clientId)
+                        .header("If-None-Match", eTag))
+                .andDo(print())
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+    }
+
+    @Test
+    void lookupAccountsTest() throws Exception{
+        List<String> accountNumbers = List.of(accountNumber, "0000000000000");
+
+        when(accountService.getAccounts(accountNumbers)).thenReturn(List.of(accountDTO));
+        mockMvc.perform(post("/accounts/lookup")
+                        .header("Authorization", "Bearer " + token)
+                        .header("X-Onboarding-Client-Id", clientId)
+                        .content(objectMapper.writeValueAsString(accountNumbers))
+                        .contentType(MediaType.APPLICATION_JSON_VALUE))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].number").value(accountNumber));
+    }
+
+    @Test
+    void listAccountsTest() throws Exception{
+        when(accountService.listAccounts(any(), isNull(), eq(2))).thenReturn(Stream.of(
+                new AccountListingEntryDTO("cursor-1", accountDTO), new AccountListingEntryDTO("cursor-2", accountDTO)));
+
+        MvcResult mvcResult = mockMvc.perform(get("/accounts")
+                        .header("Authorization", "Bearer " + token)
+                        .header("X-Onboarding-Client-Id", clientId)
+                        .param("accountManager", accountDTO.getAccountManager())
+                        .param("phase", "1")
+                        .param("limit", "2"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        String[] entries = mockMvc.perform(asyncDispatch(mvcResult))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON_VALUE))
+                .andReturn().getResponse().getContentAsString().split("\n");
+
+        assertEquals(2, entries.length);
+        assertEquals("cursor-2", objectMapper.readTree(entries[1]).get("cursor").asText());
+        assertEquals(accountNumber, objectMapper.readTree(entries[0]).get("account").get("number").asText());
+    }
+
     @Test
     void patchAccountTypeTest() throws Exception{
         AccountTypeRequestDTO accountTypeRequestDTO = buildAccountTypeRequestDTO();
@@ -193,6 +385,21 @@ class AccountControllerUnitTests {
                 .andExpect(jsonPath("$.type").value(accountDTO.getType()));
     }
 
+    @Test
+    void deleteAccountCardOfAnotherAccountIsNotFoundTest() throws Exception{
+        String cardNumber = "12345";
+        AccountDeleteCardDTO accountDeleteCardDTO = deleteAccountCardDTO();
+
+        when(accountService.deleteAccountCard(accountNumber, cardNumber, accountDeleteCardDTO)).thenThrow(new CardNotFoundException());
+        mockMvc.perform(delete("/accounts/"+ accountNumber +"/card/" + cardNumber)
+                        .header("Authorization", "Bearer " + token)
+                        .header("X-Onboarding-Client-Id", clientId)
+                        .content(objectMapper.writeValueAsString(accountDeleteCardDTO))
+                        .contentType(MediaType.APPLICATION_JSON_VALUE))
+                .andDo(print())
+                .andExpect(status().isNotFound());
+    }
+
     @Test
     void putAccountNetbancoTest() throws Exception{
         AccountNetbancoDTO accountNetbancoDTO = buildAccountNetbancoDTO();
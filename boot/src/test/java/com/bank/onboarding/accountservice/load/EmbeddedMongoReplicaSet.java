@@ -0,0 +1,59 @@
+package com.bank.onboarding.accountservice.load;
+
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+import de.flapdoodle.embed.mongo.commands.MongodArguments;
+import de.flapdoodle.embed.mongo.commands.ServerAddress;
+import de.flapdoodle.embed.mongo.config.Storage;
+import de.flapdoodle.embed.mongo.distribution.Version;
+import de.flapdoodle.embed.mongo.transitions.Mongod;
+import de.flapdoodle.embed.mongo.transitions.RunningMongodProcess;
+import de.flapdoodle.reverse.TransitionWalker;
+import de.flapdoodle.reverse.transitions.Start;
+import org.bson.Document;
+
+import java.util.List;
+
+/**
+ * A single-member replica set on an embedded mongod. The account writes and their outbox events share a Mongo
+ * transaction, which a standalone mongod does not support.
+ */
+final class EmbeddedMongoReplicaSet implements AutoCloseable {
+
+    private static final String REPLICA_SET_NAME = "rs0";
+
+    private final TransitionWalker.ReachedState<RunningMongodProcess> mongod;
+    private final String connectionString;
+
+    private EmbeddedMongoReplicaSet(TransitionWalker.ReachedState<RunningMongodProcess> mongod, String connectionString) {
+        this.mongod = mongod;
+        this.connectionString = connectionString;
+    }
+
+    static EmbeddedMongoReplicaSet start(String databaseName) throws InterruptedException {
+        TransitionWalker.ReachedState<RunningMongodProcess> mongod = Mongod.instance()
+                .withMongodArguments(Start.to(MongodArguments.class)
+                        .initializedWith(MongodArguments.defaults().withReplication(Storage.of(REPLICA_SET_NAME, 0))))
+                .start(Version.Main.V7_0);
+
+        ServerAddress serverAddress = mongod.current().getServerAddress();
+        String hostAndPort = serverAddress.getHost() + ":" + serverAddress.getPort();
+        try (MongoClient mongoClient = MongoClients.create("mongodb://" + hostAndPort + "/?directConnection=true")) {
+            mongoClient.getDatabase("admin").runCommand(new Document("replSetInitiate", new Document("_id", REPLICA_SET_NAME)
+                    .append("members", List.of(new Document("_id", 0).append("host", hostAndPort)))));
+            while (!mongoClient.getDatabase("admin").runCommand(new Document("hello", 1)).getBoolean("isWritablePrimary", false))
+                Thread.sleep(100);
+        }
+
+        return new EmbeddedMongoReplicaSet(mongod, "mongodb://" + hostAndPort + "/" + databaseName + "?directConnection=true");
+    }
+
+    String connectionString() {
+        return connectionString;
+    }
+
+    @Override
+    public void close() {
+        mongod.close();
+    }
+}
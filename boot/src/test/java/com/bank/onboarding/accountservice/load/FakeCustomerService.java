@@ -0,0 +1,102 @@
+package com.bank.onboarding.accountservice.load;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.KafkaConsumer;
+import org.apache.kafka.clients.producer.KafkaProducer;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.errors.WakeupException;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.apache.kafka.common.serialization.StringSerializer;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+import static com.bank.onboarding.accountservice.services.EventRecordReader.DOCS_UPLOAD;
+import static com.bank.onboarding.accountservice.services.EventRecordReader.UPDATE_CUSTOMER_REF;
+
+/**
+ * Stands in for customer-service: answers every CREATE_ACCOUNT event on customer-service-topic with a valid
+ * UPDATE_CUSTOMER_REF for the new account, and publishes the DOCS_UPLOAD events the document flow would send.
+ */
+@Slf4j
+final class FakeCustomerService implements AutoCloseable {
+
+    private static final String CREATE_ACCOUNT = "CREATE_ACCOUNT";
+
+    private final ObjectMapper objectMapper;
+    private final String accountTopicName;
+    private final KafkaConsumer<String, String> consumer;
+    private final KafkaProducer<String, String> producer;
+    private final Thread responder;
+    private final AtomicBoolean running = new AtomicBoolean(true);
+    private final LongAdder customerRefsSent = new LongAdder();
+
+    FakeCustomerService(String bootstrapServers, String customerTopicName, String accountTopicName, ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+        this.accountTopicName = accountTopicName;
+        this.consumer = new KafkaConsumer<>(Map.of(
+                ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers,
+                ConsumerConfig.GROUP_ID_CONFIG, "fake-customer-service",
+                ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "earliest"),
+                new StringDeserializer(), new StringDeserializer());
+        this.producer = new KafkaProducer<>(Map.of(
+                ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers,
+                ProducerConfig.LINGER_MS_CONFIG, 5),
+                new StringSerializer(), new StringSerializer());
+        consumer.subscribe(List.of(customerTopicName));
+        responder = Thread.ofPlatform().name("fake-customer-service").start(this::respond);
+    }
+
+    void sendDocsUpload(String accountNumber) {
+        producer.send(new ProducerRecord<>(accountTopicName, DOCS_UPLOAD,
+                "{\"accountNumber\":\"" + accountNumber + "\",\"areDocsValid\":true}"));
+    }
+
+    long customerRefsSent() {
+        return customerRefsSent.sum();
+    }
+
+    private void respond() {
+        try {
+            while (running.get()) {
+                for (ConsumerRecord<String, String> event : consumer.poll(Duration.ofMillis(100))) {
+                    if (CREATE_ACCOUNT.equals(event.key())) sendCustomerRef(event.value());
+                }
+            }
+        } catch (WakeupException e) {
+            if (running.get()) throw e;
+        } finally {
+            consumer.close();
+        }
+    }
+
+    private void sendCustomerRef(String createAccountEvent) {
+        try {
+            JsonNode event = objectMapper.readTree(createAccountEvent);
+            String accountNumber = event.at("/accountRefDTO/accountNumber").asText();
+            String customerNumber = "9" + accountNumber.substring(Math.max(0, accountNumber.length() - 8));
+            producer.send(new ProducerRecord<>(accountTopicName, UPDATE_CUSTOMER_REF,
+                    "{\"customerNumber\":\"" + customerNumber + "\",\"isValid\":true,\"accounts\":[{\"accountNumber\":\"" + accountNumber + "\"}]}"));
+            customerRefsSent.increment();
+        } catch (IOException e) {
+            log.warn("Unreadable CREATE_ACCOUNT event {}", createAccountEvent, e);
+        }
+    }
+
+    @Override
+    public void close() throws InterruptedException {
+        running.set(false);
+        consumer.wakeup();
+        responder.join();
+        producer.close();
+    }
+}
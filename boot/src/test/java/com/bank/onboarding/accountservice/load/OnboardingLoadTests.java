@@ -0,0 +1,248 @@
+package com.bank.onboarding.accountservice.load;
+
+import com.bank.onboarding.commonslib.web.SecurityConfig;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.admin.Admin;
+import org.apache.kafka.clients.admin.AdminClientConfig;
+import org.apache.kafka.clients.admin.OffsetSpec;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.common.TopicPartition;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.kafka.test.context.EmbeddedKafka;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.TestPropertySource;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+import static com.bank.onboarding.commonslib.utils.TestOnboardingUtils.buildAccountCardDTO;
+import static com.bank.onboarding.commonslib.utils.TestOnboardingUtils.buildAccountNetbancoDTO;
+import static com.bank.onboarding.commonslib.utils.TestOnboardingUtils.buildAccountTypeRequestDTO;
+import static com.bank.onboarding.commonslib.utils.TestOnboardingUtils.buildCreateAccountRequestDTO;
+import static com.bank.onboarding.commonslib.utils.TestOnboardingUtils.buildMoveNextPhaseDTO;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Drives the whole onboarding sequence (create, type, card, netbanco, DOCS_UPLOAD, moveNextPhase) against the boot
+ * application on an embedded Mongo replica set and an embedded Kafka broker, with {@link FakeCustomerService}
+ * answering the CREATE_ACCOUNT events. Reports throughput, per-step and whole-flow latency percentiles and the lag
+ * of the account consumer group, sampled during the run and drained at the end. Runs on platform threads;
+ * {@link VirtualThreadsOnboardingLoadTests} runs the same load on virtual threads for comparison.
+ * <p>
+ * Excluded from the default build; run with {@code mvn -pl boot -am test -P load-test}, and size it with
+ * {@code -Dload.flows=2000 -Dload.concurrency=64}.
+ */
+@Slf4j
+@Tag("load")
+@EmbeddedKafka(partitions = 3, topics = {"${spring.kafka.consumer.topic-name}", "${spring.kafka.producer.customer.topic-name}",
+        "${spring.kafka.account-cache.topic-name}"})
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "spring.kafka.bootstrap-servers=${spring.embedded.kafka.brokers}")
+@TestPropertySource(properties = "spring.threads.virtual.enabled=false")
+@DirtiesContext
+class OnboardingLoadTests {
+
+    private static final String DATABASE_NAME = "onboarding-load";
+    private static final int FLOWS = Integer.getInteger("load.flows", 500);
+    private static final int CONCURRENCY = Integer.getInteger("load.concurrency", 16);
+    private static final long LAG_SAMPLE_MILLIS = 200;
+    private static final long DRAIN_TIMEOUT_SECONDS = 60;
+
+    private static EmbeddedMongoReplicaSet mongo;
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Autowired
+    private SecurityConfig securityConfig;
+
+    @Value("${spring.embedded.kafka.brokers}")
+    private String bootstrapServers;
+
+    @Value("${bank.onboarding.client.id}")
+    private String clientId;
+
+    @Value("${spring.kafka.consumer.topic-name}")
+    private String accountTopicName;
+
+    @Value("${spring.kafka.producer.customer.topic-name}")
+    private String customerTopicName;
+
+    @Value("${spring.kafka.consumer.group-id}")
+    private String accountConsumerGroup;
+
+    @Value("${spring.threads.virtual.enabled}")
+    private boolean virtualThreads;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+    private final Map<String, ConcurrentLinkedQueue<Long>> latencies = new LinkedHashMap<>();
+
+    @DynamicPropertySource
+    static void embeddedMongo(DynamicPropertyRegistry registry) throws InterruptedException {
+        mongo = EmbeddedMongoReplicaSet.start(DATABASE_NAME);
+        registry.add("spring.data.mongodb.uri", mongo::connectionString);
+        registry.add("spring.data.mongodb.database", () -> DATABASE_NAME);
+    }
+
+    @AfterAll
+    static void stopMongo() {
+        if (mongo != null) mongo.close();
+    }
+
+    @Test
+    void onboardingFlowUnderLoadTest() throws Exception {
+        HttpHeaders httpHeaders = new HttpHeaders();
+        httpHeaders.setContentType(MediaType.APPLICATION_JSON);
+        httpHeaders.setBearerAuth(securityConfig.generateJWToken());
+        httpHeaders.set("X-Onboarding-Client-Id", clientId);
+        List.of("create", "type", "card", "netbanco", "docsUpload", "moveNextPhase", "flow")
+                .forEach(step -> latencies.put(step, new ConcurrentLinkedQueue<>()));
+
+        LongAdder failedFlows = new LongAdder();
+        AtomicLong maxLag = new AtomicLong();
+        try (FakeCustomerService customerService = new FakeCustomerService(bootstrapServers, customerTopicName, accountTopicName, objectMapper);
+             Admin admin = Admin.create(Map.of(AdminClientConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers));
+             ScheduledExecutorService lagSampler = Executors.newSingleThreadScheduledExecutor();
+             ExecutorService users = Executors.newFixedThreadPool(CONCURRENCY)) {
+
+            lagSampler.scheduleAtFixedRate(() -> maxLag.accumulateAndGet(consumerLag(admin), Math::max),
+                    LAG_SAMPLE_MILLIS, LAG_SAMPLE_MILLIS, TimeUnit.MILLISECONDS);
+
+            long start = System.nanoTime();
+            List<CompletableFuture<Void>> flows = new ArrayList<>(FLOWS);
+            for (int i = 0; i < FLOWS; i++)
+                flows.add(CompletableFuture.runAsync(() -> {
+                    try {
+                        timed("flow", () -> {
+                            runFlow(httpHeaders, customerService);
+                            return null;
+                        });
+                    } catch (RuntimeException e) {
+                        failedFlows.increment();
+                        log.warn("Onboarding flow failed", e);
+                    }
+                }, users));
+            CompletableFuture.allOf(flows.toArray(CompletableFuture[]::new)).join();
+            long elapsedNanos = System.nanoTime() - start;
+
+            long drainStart = System.nanoTime();
+            long lag;
+            while ((lag = consumerLag(admin)) > 0 && System.nanoTime() - drainStart < TimeUnit.SECONDS.toNanos(DRAIN_TIMEOUT_SECONDS))
+                Thread.sleep(LAG_SAMPLE_MILLIS);
+
+            log.info("Onboarding load on {} threads: {} flows at concurrency {} in {} ms, {} flows/s, {} failed",
+                    virtualThreads ? "virtual" : "platform", FLOWS, CONCURRENCY, TimeUnit.NANOSECONDS.toMillis(elapsedNanos),
+                    FLOWS * 1_000_000_000L / Math.max(elapsedNanos, 1), failedFlows.sum());
+            latencies.forEach((step, stepLatencies) -> log.info("  {}", percentiles(step, stepLatencies)));
+            log.info("Consumer group {} lag: max {} during the run, {} after {} ms draining; {} customer refs sent",
+                    accountConsumerGroup, maxLag.get(), lag, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - drainStart),
+                    customerService.customerRefsSent());
+        }
+
+        assertEquals(0, failedFlows.sum());
+    }
+
+    private void runFlow(HttpHeaders httpHeaders, FakeCustomerService customerService) {
+        String accountNumber = accountNumber(timed("create", () -> exchange(HttpMethod.POST, "", buildCreateAccountRequestDTO(), httpHeaders)));
+        String accountPath = "/" + accountNumber;
+        timed("type", () -> exchange(HttpMethod.PUT, accountPath, buildAccountTypeRequestDTO(), httpHeaders));
+        timed("card", () -> exchange(HttpMethod.PUT, accountPath + "/card", buildAccountCardDTO(), httpHeaders));
+        timed("netbanco", () -> exchange(HttpMethod.PUT, accountPath + "/netbanco", buildAccountNetbancoDTO(), httpHeaders));
+        timed("docsUpload", () -> {
+            customerService.sendDocsUpload(accountNumber);
+            return null;
+        });
+        timed("moveNextPhase", () -> exchange(HttpMethod.PUT, accountPath + "/moveNextPhase", buildMoveNextPhaseDTO(), httpHeaders));
+    }
+
+    private String exchange(HttpMethod method, String path, Object request, HttpHeaders httpHeaders) {
+        try {
+            ResponseEntity<String> response = restTemplate.exchange("http://localhost:" + port + "/accounts" + path, method,
+                    new HttpEntity<>(objectMapper.writeValueAsString(request), httpHeaders), String.class);
+            if (!response.getStatusCode().is2xxSuccessful())
+                throw new IllegalStateException(method + " /accounts" + path + " answered " + response.getStatusCode() + ": " + response.getBody());
+            return response.getBody();
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private String accountNumber(String accountDTO) {
+        try {
+            return objectMapper.readTree(accountDTO).get("number").asText();
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private <T> T timed(String step, Supplier<T> call) {
+        long start = System.nanoTime();
+        T result = call.get();
+        latencies.get(step).add(System.nanoTime() - start);
+        return result;
+    }
+
+    private long consumerLag(Admin admin) {
+        try {
+            Map<TopicPartition, OffsetAndMetadata> committed = admin.listConsumerGroupOffsets(accountConsumerGroup)
+                    .partitionsToOffsetAndMetadata().get();
+            Map<TopicPartition, OffsetSpec> partitions = admin.describeTopics(List.of(accountTopicName)).allTopicNames().get()
+                    .get(accountTopicName).partitions().stream()
+                    .collect(Collectors.toMap(partition -> new TopicPartition(accountTopicName, partition.partition()),
+                            partition -> OffsetSpec.latest()));
+            return admin.listOffsets(partitions).all().get().entrySet().stream()
+                    .mapToLong(end -> end.getValue().offset()
+                            - (committed.containsKey(end.getKey()) ? committed.get(end.getKey()).offset() : 0))
+                    .sum();
+        } catch (ExecutionException e) {
+            throw new IllegalStateException(e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return 0;
+        }
+    }
+
+    private static String percentiles(String step, ConcurrentLinkedQueue<Long> stepLatencies) {
+        long[] sorted = stepLatencies.stream().mapToLong(Long::longValue).sorted().toArray();
+        if (sorted.length == 0) return step + ": no samples";
+        return String.format("%-14s p50 %6.1f ms  p95 %6.1f ms  p99 %6.1f ms  max %6.1f ms", step,
+                millis(sorted, 0.50), millis(sorted, 0.95), millis(sorted, 0.99), sorted[sorted.length - 1] / 1e6);
+    }
+
+    private static double millis(long[] sorted, double percentile) {
+        return sorted[Math.max(0, (int) Math.ceil(sorted.length * percentile) - 1)] / 1e6;
+    }
+}
@@ -0,0 +1,12 @@
+package com.bank.onboarding.accountservice.load;
+
+import org.springframework.test.context.TestPropertySource;
+
+/**
+ * {@link OnboardingLoadTests} with {@code spring.threads.virtual.enabled=true}, so the requests, the Kafka listeners
+ * and the dispatcher lanes run on virtual threads. Both run under the same {@code load-test} profile and log the same
+ * throughput and p99 lines, one for each thread model.
+ */
+@TestPropertySource(properties = "spring.threads.virtual.enabled=true")
+class VirtualThreadsOnboardingLoadTests extends OnboardingLoadTests {
+}
@@ -0,0 +1,25 @@
+package com.bank.onboarding.accountservice.persistence.models;
+
+import com.bank.onboarding.commonslib.persistence.exceptions.OnboardingException;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class AccountListingCursorUnitTests {
+
+    @Test
+    void tokenRoundTripTest() {
+        AccountListingCursor cursor = new AccountListingCursor(LocalDateTime.of(2024, 4, 1, 10, 15, 30, 123_000_000), "660a8f0c2b1e4a3d5c6b7a89");
+
+        assertEquals(cursor, AccountListingCursor.parse(cursor.token()));
+    }
+
+    @Test
+    void parseInvalidTokenTest() {
+        assertThrows(OnboardingException.class, () -> AccountListingCursor.parse("not a cursor"));
+        assertThrows(OnboardingException.class, () -> AccountListingCursor.parse("bm8tc2VwYXJhdG9y"));
+    }
+}
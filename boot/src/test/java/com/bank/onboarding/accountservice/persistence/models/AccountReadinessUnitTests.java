@@ -0,0 +1,51 @@
+package com.bank.onboarding.accountservice.persistence.models;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AccountReadinessUnitTests {
+
+    @Test
+    void readyForPhase3Test() {
+        AccountReadiness accountReadiness = buildReadyAccountReadiness();
+        assertTrue(accountReadiness.isReadyForPhase3());
+
+        accountReadiness.setTypeSet(false);
+        assertFalse(accountReadiness.isReadyForPhase3());
+    }
+
+    @Test
+    void notReadyForPhase3WithoutCardsOrWithInvalidCustomersTest() {
+        AccountReadiness withoutCards = buildReadyAccountReadiness();
+        withoutCards.getCardHolders().clear();
+        assertFalse(withoutCards.isReadyForPhase3());
+
+        AccountReadiness withInvalidCustomer = buildReadyAccountReadiness();
+        withInvalidCustomer.getInvalidCustomers().add("200300400");
+        assertFalse(withInvalidCustomer.isReadyForPhase3());
+    }
+
+    @Test
+    void readyForPhase4Test() {
+        AccountReadiness accountReadiness = buildReadyAccountReadiness();
+        assertTrue(accountReadiness.isReadyForPhase4());
+
+        accountReadiness.setDocsValid(false);
+        assertFalse(accountReadiness.isReadyForPhase4());
+    }
+
+    private AccountReadiness buildReadyAccountReadiness() {
+        return AccountReadiness.builder()
+                .accountNumber("0001000000000123449")
+                .typeSet(true)
+                .netbancoChosen(true)
+                .cardHolders(new HashSet<>(Set.of("100200300")))
+                .invalidCustomers(new HashSet<>())
+                .build();
+    }
+}
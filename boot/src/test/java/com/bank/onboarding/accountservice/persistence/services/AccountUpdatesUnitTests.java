@@ -0,0 +1,55 @@
+package com.bank.onboarding.accountservice.persistence.services;
+
+import org.bson.Document;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AccountUpdatesUnitTests {
+
+    private static final String ACCOUNT_NUMBER = "8040801240825";
+
+    @Test
+    void everyUpdateBumpsVersionTest() {
+        for (Update update : List.of(AccountUpdates.setType("EMPRESA"), AccountUpdates.setOnlineBankingIndicator(true),
+                AccountUpdates.setHasValidDocs(false), AccountUpdates.setPhase(2, false), AccountUpdates.touch())) {
+            Document updateObject = update.getUpdateObject();
+            assertEquals(1, updateObject.get("$inc", Document.class).get(AccountUpdates.VERSION));
+            assertTrue(updateObject.get("$set", Document.class).containsKey("lastUpdateTime"));
+        }
+    }
+
+    @Test
+    void setPhaseOnlyActivatesWhenAskedTest() {
+        assertFalse(AccountUpdates.setPhase(2, false).getUpdateObject().get("$set", Document.class).containsKey("active"));
+        assertEquals(true, AccountUpdates.setPhase(5, true).getUpdateObject().get("$set", Document.class).get("active"));
+    }
+
+    @Test
+    void atVersionMatchesTheReadVersionTest() {
+        Document query = AccountUpdates.atVersion(ACCOUNT_NUMBER, 3).getQueryObject();
+
+        assertEquals(ACCOUNT_NUMBER, query.get("number"));
+        assertEquals(3L, query.get(AccountUpdates.VERSION));
+    }
+
+    @Test
+    void atVersionZeroMatchesUnversionedAccountsTest() {
+        Query query = AccountUpdates.atVersion(ACCOUNT_NUMBER, 0);
+
+        assertEquals(ACCOUNT_NUMBER, query.getQueryObject().get("number"));
+        assertEquals(2, query.getQueryObject().getList("$or", Document.class).size());
+    }
+
+    @Test
+    void versionDefaultsToZeroTest() {
+        assertEquals(0, AccountUpdates.version(new Document("number", ACCOUNT_NUMBER)));
+        assertEquals(4, AccountUpdates.version(new Document(AccountUpdates.VERSION, 4)));
+    }
+}
@@ -0,0 +1,133 @@
+package com.bank.onboarding.accountservice.persistence.services;
+
+import com.bank.onboarding.commonslib.persistence.models.Account;
+import com.bank.onboarding.commonslib.persistence.services.AccountRepoService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.data.mongodb.core.convert.NoOpDbRefResolver;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+import org.springframework.kafka.core.KafkaTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+
+import static com.bank.onboarding.commonslib.utils.TestOnboardingUtils.buildAccount;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class CachedAccountRepoServiceUnitTests {
+
+    private static final String INVALIDATION_TOPIC = "account-cache-invalidation-topic";
+
+    private AccountRepoService accountRepoService;
+    private KafkaTemplate<String, String> kafkaTemplate;
+    private SimpleMeterRegistry meterRegistry;
+    private CachedAccountRepoService cachedAccountRepoService;
+    private Account account;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    public void setUp() {
+        accountRepoService = mock(AccountRepoService.class);
+        kafkaTemplate = mock(KafkaTemplate.class);
+        meterRegistry = new SimpleMeterRegistry();
+        MappingMongoConverter mongoConverter = new MappingMongoConverter(NoOpDbRefResolver.INSTANCE, new MongoMappingContext());
+        mongoConverter.afterPropertiesSet();
+        cachedAccountRepoService = new CachedAccountRepoService(accountRepoService, kafkaTemplate, mongoConverter, meterRegistry, 100, Duration.ofMinutes(5), INVALIDATION_TOPIC);
+
+        account = buildAccount();
+        account.setOnlineBankingIndicator(Boolean.FALSE);
+        when(accountRepoService.getAccountByNumber(account.getNumber())).thenReturn(account);
+        when(accountRepoService.saveAccountDB(any(Account.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(kafkaTemplate.send(anyString(), anyString(), anyString())).thenReturn(new CompletableFuture<>());
+    }
+
+    @Test
+    void getAccountByNumberIsReadThroughTest() {
+        assertSame(account, cachedAccountRepoService.getAccountByNumber(account.getNumber()));
+        assertEquals(account.getIban(), cachedAccountRepoService.getAccountByNumber(account.getNumber()).getIban());
+
+        verify(accountRepoService, times(1)).getAccountByNumber(account.getNumber());
+        assertEquals(1.0, meterRegistry.get("cache.gets").tag("cache", "accounts").tag("result", "hit").functionCounter().count());
+    }
+
+    @Test
+    void saveAccountDBRefreshesAndBroadcastsTest() {
+        cachedAccountRepoService.getAccountByNumber(account.getNumber());
+        cachedAccountRepoService.saveAccountDB(account);
+
+        assertEquals(account.getIban(), cachedAccountRepoService.getAccountByNumber(account.getNumber()).getIban());
+        verify(accountRepoService, times(1)).getAccountByNumber(account.getNumber());
+        verify(kafkaTemplate).send(eq(INVALIDATION_TOPIC), anyString(), eq(account.getNumber()));
+    }
+
+    @Test
+    void cachedAccountsAreNotSharedTest() {
+        cachedAccountRepoService.getAccountByNumber(account.getNumber());
+        Account first = cachedAccountRepoService.getAccountByNumber(account.getNumber());
+        first.setOnlineBankingIndicator(Boolean.TRUE);
+        Account second = cachedAccountRepoService.getAccountByNumber(account.getNumber());
+
+        assertNotSame(first, second);
+        assertEquals(Boolean.FALSE, second.getOnlineBankingIndicator());
+    }
+
+    @Test
+    void changesAfterCachingAnUpdatedAccountAreNotCachedTest() {
+        Account updatedAccount = buildAccount();
+        updatedAccount.setOnlineBankingIndicator(Boolean.FALSE);
+        cachedAccountRepoService.cacheUpdatedAccount(updatedAccount);
+        updatedAccount.setOnlineBankingIndicator(Boolean.TRUE);
+
+        assertEquals(Boolean.FALSE, cachedAccountRepoService.getAccountByNumber(account.getNumber()).getOnlineBankingIndicator());
+        verify(accountRepoService, never()).getAccountByNumber(account.getNumber());
+    }
+
+    @Test
+    void accountLoadedBeforeAnUpdateDoesNotReplaceItTest() throws Exception {
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(accountRepoService.getAccountByNumber(account.getNumber())).thenAnswer(invocation -> {
+            loading.countDown();
+            release.await();
+            return account;
+        });
+        Account updatedAccount = buildAccount();
+        updatedAccount.setOnlineBankingIndicator(Boolean.TRUE);
+
+        CompletableFuture<Account> read = CompletableFuture.supplyAsync(() -> cachedAccountRepoService.getAccountByNumber(account.getNumber()));
+        loading.await();
+        Thread writer = new Thread(() -> cachedAccountRepoService.cacheUpdatedAccount(updatedAccount));
+        writer.start();
+        while (writer.isAlive() && writer.getState() == Thread.State.RUNNABLE) Thread.onSpinWait();
+        release.countDown();
+        read.get();
+        writer.join();
+
+        assertEquals(Boolean.TRUE, cachedAccountRepoService.getAccountByNumber(account.getNumber()).getOnlineBankingIndicator());
+    }
+
+    @Test
+    void invalidationFromOtherReplicaEvictsTest() {
+        cachedAccountRepoService.getAccountByNumber(account.getNumber());
+        cachedAccountRepoService.consumeInvalidation(new ConsumerRecord<>(INVALIDATION_TOPIC, 0, 0L,
+                "other-replica".getBytes(StandardCharsets.UTF_8), account.getNumber().getBytes(StandardCharsets.UTF_8)));
+        cachedAccountRepoService.getAccountByNumber(account.getNumber());
+
+        verify(accountRepoService, times(2)).getAccountByNumber(account.getNumber());
+    }
+}
@@ -0,0 +1,310 @@
+package com.bank.onboarding.accountservice.persistence.services;
+
+import com.bank.onboarding.accountservice.persistence.models.AccountListingCursor;
+import com.bank.onboarding.accountservice.persistence.models.AccountListingFilter;
+import com.bank.onboarding.accountservice.persistence.models.OutboxEvent;
+import com.bank.onboarding.commonslib.persistence.enums.OperationType;
+import com.bank.onboarding.commonslib.persistence.models.Account;
+import com.bank.onboarding.commonslib.persistence.models.Card;
+import com.bank.onboarding.commonslib.persistence.models.CustomerRef;
+import com.bank.onboarding.commonslib.utils.kafka.models.DocUploadEvent;
+import com.bank.onboarding.commonslib.web.dtos.customer.CustomerRefDTO;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mongodb.ConnectionString;
+import com.mongodb.MongoClientSettings;
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+import com.mongodb.event.CommandListener;
+import com.mongodb.event.CommandStartedEvent;
+import de.flapdoodle.embed.mongo.commands.ServerAddress;
+import de.flapdoodle.embed.mongo.distribution.Version;
+import de.flapdoodle.embed.mongo.transitions.Mongod;
+import de.flapdoodle.embed.mongo.transitions.RunningMongodProcess;
+import de.flapdoodle.reverse.TransitionWalker;
+import org.bson.BsonArray;
+import org.bson.BsonDocument;
+import org.bson.BsonString;
+import org.bson.BsonValue;
+import org.bson.Document;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static com.bank.onboarding.commonslib.utils.TestOnboardingUtils.buildAccount;
+import static com.bank.onboarding.commonslib.utils.TestOnboardingUtils.buildCard;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Runs the queries of the repository services against an embedded mongod carrying the indexes of
+ * {@link MongoIndexManager}, records every command they send and fails when the winning plan of any of them scans a
+ * whole collection. Queries of the commons-lib repositories are issued as the derived queries they are. Listing
+ * filters are also run over seeded accounts and fail when they examine far more accounts than they return, as they
+ * do when they walk the creation time index and filter on the way.
+ */
+@Tag("query-plan")
+class QueryPlanTests {
+
+    private static final String DATABASE_NAME = "query-plans";
+    private static final Set<String> QUERY_COMMANDS = Set.of("find", "findAndModify", "update", "delete", "count", "distinct");
+    private static final String CUSTOMER_NUMBER = "100200300";
+    private static final int SEEDED_ACCOUNTS = 200;
+    private static final int MAX_EXAMINED_PER_RETURNED = 2;
+    private static final Set<String> SESSION_FIELDS = Set.of("lsid", "txnNumber", "autocommit", "startTransaction",
+            "readConcern", "writeConcern");
+
+    private static final List<BsonDocument> commands = new CopyOnWriteArrayList<>();
+    private static TransitionWalker.ReachedState<RunningMongodProcess> mongod;
+    private static MongoClient mongoClient;
+    private static MongoTemplate mongoTemplate;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private Account account;
+
+    @BeforeAll
+    static void startMongo() {
+        mongod = Mongod.instance().start(Version.Main.V7_0);
+        ServerAddress serverAddress = mongod.current().getServerAddress();
+        mongoClient = MongoClients.create(MongoClientSettings.builder()
+                .applyConnectionString(new ConnectionString("mongodb://" + serverAddress.getHost() + ":" + serverAddress.getPort()))
+                .addCommandListener(new CommandListener() {
+                    @Override
+                    public void commandStarted(CommandStartedEvent event) {
+                        if (DATABASE_NAME.equals(event.getDatabaseName()) && QUERY_COMMANDS.contains(event.getCommandName()))
+                            commands.add(event.getCommand().clone());
+                    }
+                })
+                .build());
+        mongoTemplate = new MongoTemplate(mongoClient, DATABASE_NAME);
+        new MongoIndexManager(mongoTemplate, true).ensureIndexes();
+    }
+
+    @AfterAll
+    static void stopMongo() {
+        mongoClient.close();
+        mongod.close();
+    }
+
+    @BeforeEach
+    public void setUp() {
+        mongoTemplate.getCollectionNames().forEach(collectionName -> mongoTemplate.getCollection(collectionName).deleteMany(new Document()));
+        account = mongoTemplate.insert(buildAccount());
+        mongoTemplate.insert(buildCard(account.getId()));
+        commands.clear();
+    }
+
+    @Test
+    void requiredIndexesAreInPlaceTest() {
+        assertTrue(new MongoIndexManager(mongoTemplate, true).missingIndexes().isEmpty());
+    }
+
+    @Test
+    void accountQueriesUseIndexesTest() throws Exception {
+        AccountUpdateRepoService accountUpdateRepoService = new AccountUpdateRepoService(mongoTemplate);
+        accountUpdateRepoService.findVersionedAccount(account.getNumber());
+        accountUpdateRepoService.setType(account.getNumber(), "EMPRESA");
+        accountUpdateRepoService.setPhase(account.getNumber(), 1, 2, false);
+        accountUpdateRepoService.touch(account.getNumber());
+        new BulkRepoService(mongoTemplate).updateAccountsDocsValidity(List.of(objectMapper.readValue(
+                "{\"accountNumber\":\"" + account.getNumber() + "\",\"areDocsValid\":true}", DocUploadEvent.class)));
+
+        mongoTemplate.findOne(Query.query(Criteria.where("number").is(account.getNumber())), Account.class);
+        mongoTemplate.findOne(Query.query(Criteria.where("iban").is(account.getIban())), Account.class);
+
+        assertNoCollectionScans();
+    }
+
+    @Test
+    void accountViewQueriesUseIndexesTest() {
+        AccountViewRepoService accountViewRepoService = new AccountViewRepoService(mongoTemplate);
+        accountViewRepoService.findAccountView(account.getNumber());
+        accountViewRepoService.findAccountViews(List.of(account.getNumber(), "0000000000000"));
+
+        LocalDateTime now = LocalDateTime.now();
+        AccountListingCursor after = new AccountListingCursor(now.minusDays(1), account.getId());
+        for (AccountListingFilter filter : List.of(
+                new AccountListingFilter(null, null, null, null, null),
+                new AccountListingFilter(account.getAccountManager(), null, null, null, null),
+                new AccountListingFilter(null, 1, false, null, null),
+                new AccountListingFilter(account.getAccountManager(), 1, true, now.minusDays(7), now))) {
+            try (Stream<Account> accounts = accountViewRepoService.streamAccountViews(filter, null, 100)) {
+                accounts.forEach(listed -> {});
+            }
+            try (Stream<Account> accounts = accountViewRepoService.streamAccountViews(filter, after, 100)) {
+                accounts.forEach(listed -> {});
+            }
+        }
+
+        assertNoCollectionScans();
+    }
+
+    @Test
+    void listingFiltersExamineOnlyTheAccountsTheyReturnTest() {
+        LocalDateTime creationTime = LocalDateTime.now().minusDays(1);
+        mongoTemplate.getCollection(mongoTemplate.getCollectionName(Account.class)).insertMany(IntStream.range(0, SEEDED_ACCOUNTS)
+                .mapToObj(i -> new Document("number", "seeded-" + i).append("iban", "seeded-iban-" + i)
+                        .append("phase", i % 5 + 1).append("active", i % 5 == 4).append("creationTime", creationTime.plusSeconds(i)))
+                .toList());
+        commands.clear();
+
+        AccountViewRepoService accountViewRepoService = new AccountViewRepoService(mongoTemplate);
+        for (AccountListingFilter filter : List.of(
+                new AccountListingFilter(null, 5, null, null, null),
+                new AccountListingFilter(null, null, true, null, null))) {
+            try (Stream<Account> accounts = accountViewRepoService.streamAccountViews(filter, null, SEEDED_ACCOUNTS)) {
+                accounts.forEach(listed -> {});
+            }
+        }
+
+        assertFalse(commands.isEmpty(), "No queries were sent");
+
+        List<String> wastefulQueries = new ArrayList<>();
+        for (BsonDocument command : commands) {
+            BsonDocument executionStats = explain(command, "executionStats").getDocument("executionStats");
+            int returned = executionStats.getInt32("nReturned").getValue();
+            int examined = executionStats.getInt32("totalDocsExamined").getValue();
+            if (examined > MAX_EXAMINED_PER_RETURNED * Math.max(returned, 1))
+                wastefulQueries.add(examined + " examined for " + returned + " returned: " + command.toJson());
+        }
+        assertTrue(wastefulQueries.isEmpty(), "Queries examining far more accounts than they return:\n" + String.join("\n", wastefulQueries));
+    }
+
+    @Test
+    void cardQueriesUseIndexesTest() {
+        BulkRepoService bulkRepoService = new BulkRepoService(mongoTemplate);
+        Card replacement = buildCard(account.getId());
+        bulkRepoService.replaceCards(account.getId(), List.of(CUSTOMER_NUMBER), List.of(replacement));
+        bulkRepoService.findAndRemoveCard(account.getId(), replacement.getNumber());
+
+        mongoTemplate.find(Query.query(Criteria.where("accountId").is(account.getId())), Card.class);
+
+        assertNoCollectionScans();
+    }
+
+    @Test
+    void customerRefQueriesUseIndexesTest() throws Exception {
+        CustomerRefDTO customerRefDTO = objectMapper.readValue("{\"customerNumber\":\"" + CUSTOMER_NUMBER + "\",\"isValid\":false,"
+                + "\"accounts\":[{\"accountNumber\":\"" + account.getNumber() + "\"}]}", CustomerRefDTO.class);
+        new BulkRepoService(mongoTemplate).upsertCustomerRefs(List.of(customerRefDTO));
+
+        mongoTemplate.findOne(Query.query(Criteria.where("customerNumber").is(customerRefDTO.getCustomerNumber())), CustomerRef.class);
+        mongoTemplate.find(Query.query(Criteria.where("accounts.accountNumber").is(account.getNumber())), CustomerRef.class);
+        mongoTemplate.remove(Query.query(Criteria.where("customerNumber").is(customerRefDTO.getCustomerNumber())), CustomerRef.class);
+
+        assertNoCollectionScans();
+    }
+
+    @Test
+    void compensationQueriesUseIndexesTest() throws Exception {
+        new BulkRepoService(mongoTemplate).upsertCustomerRefs(List.of(objectMapper.readValue("{\"customerNumber\":\""
+                + CUSTOMER_NUMBER + "\",\"isValid\":true,\"accounts\":[{\"accountNumber\":\"" + account.getNumber() + "\"}]}",
+                CustomerRefDTO.class)));
+        commands.clear();
+
+        CompensationRepoService compensationRepoService = new CompensationRepoService(mongoTemplate);
+        List<String> accountIds = compensationRepoService.findAccountIds(List.of(account.getNumber())).stream().map(Account::getId).toList();
+        compensationRepoService.deleteCards(accountIds);
+        compensationRepoService.deleteAccounts(List.of(account.getNumber()));
+        compensationRepoService.deleteReadinesses(List.of(account.getNumber()));
+        compensationRepoService.deleteCustomerRefs(List.of(account.getNumber()), List.of("200300400"));
+
+        assertNoCollectionScans();
+    }
+
+    @Test
+    void readinessQueriesUseIndexesTest() throws Exception {
+        AccountReadinessRepoService accountReadinessRepoService = new AccountReadinessRepoService(mongoTemplate);
+        accountReadinessRepoService.initReadiness(account, Set.of(), Set.of());
+        accountReadinessRepoService.findReadiness(account.getNumber());
+        accountReadinessRepoService.setTypeSet(account.getNumber(), true);
+        accountReadinessRepoService.addCardHolders(account.getNumber(), List.of(CUSTOMER_NUMBER));
+        accountReadinessRepoService.removeCardHolder(account.getNumber(), CUSTOMER_NUMBER);
+        accountReadinessRepoService.updateCustomerValidity(objectMapper.readValue("{\"customerNumber\":\"" + CUSTOMER_NUMBER + "\","
+                + "\"isValid\":false,\"accounts\":[{\"accountNumber\":\"" + account.getNumber() + "\"}]}", CustomerRefDTO.class));
+        accountReadinessRepoService.updateDocsValidity(List.of(objectMapper.readValue(
+                "{\"accountNumber\":\"" + account.getNumber() + "\",\"areDocsValid\":true}", DocUploadEvent.class)));
+        accountReadinessRepoService.deleteReadiness(account.getNumber());
+
+        assertNoCollectionScans();
+    }
+
+    @Test
+    void outboxAndLeaseQueriesUseIndexesTest() {
+        OutboxRepoService outboxRepoService = new OutboxRepoService(mongoTemplate);
+        outboxRepoService.appendAll(List.of(OutboxEvent.builder().operationType(OperationType.CARD_ACCOUNT)
+                .payload("{\"customerNumber\":\"" + CUSTOMER_NUMBER + "\"}").createdAt(LocalDateTime.now()).build()));
+        outboxRepoService.deleteEvents(outboxRepoService.findOldestEvents(10));
+        outboxRepoService.acquireRelayLease("outbox-relay", "query-plans", Duration.ofSeconds(30));
+
+        new AccountNumberLeaseRepoService(mongoTemplate).leaseBlock("account-number", 100, "query-plans");
+
+        IdempotencyRepoService idempotencyRepoService = new IdempotencyRepoService(mongoTemplate);
+        idempotencyRepoService.claim("query-plans", "hash", Duration.ofMinutes(1));
+        idempotencyRepoService.complete("query-plans", 201, "{}", Duration.ofMinutes(1));
+        idempotencyRepoService.release("query-plans");
+
+        assertNoCollectionScans();
+    }
+
+    private static void assertNoCollectionScans() {
+        assertFalse(commands.isEmpty(), "No queries were sent");
+
+        List<String> collectionScans = new ArrayList<>();
+        for (BsonDocument command : commands)
+            for (BsonDocument statement : statements(command)) {
+                BsonDocument explain = explain(statement, "queryPlanner");
+                if (scansCollection(explain.getDocument("queryPlanner").get("winningPlan")))
+                    collectionScans.add(statement.toJson());
+            }
+
+        assertTrue(collectionScans.isEmpty(), "Collection scans:\n" + String.join("\n", collectionScans));
+    }
+
+    /**
+     * Bulk updates and deletes carry several statements, which explain only takes one at a time.
+     */
+    private static List<BsonDocument> statements(BsonDocument command) {
+        String statementsField = switch (command.getFirstKey()) {
+            case "update" -> "updates";
+            case "delete" -> "deletes";
+            default -> null;
+        };
+        if (statementsField == null) return List.of(command);
+
+        return command.getArray(statementsField).stream()
+                .map(statement -> command.clone().append(statementsField, new BsonArray(List.of(statement))))
+                .toList();
+    }
+
+    private static BsonDocument explain(BsonDocument statement, String verbosity) {
+        BsonDocument explained = new BsonDocument();
+        statement.forEach((field, value) -> {
+            if (!field.startsWith("$") && !SESSION_FIELDS.contains(field)) explained.append(field, value);
+        });
+        return mongoClient.getDatabase(DATABASE_NAME).runCommand(
+                new BsonDocument("explain", explained).append("verbosity", new BsonString(verbosity)), BsonDocument.class);
+    }
+
+    private static boolean scansCollection(BsonValue plan) {
+        if (plan.isArray()) return plan.asArray().stream().anyMatch(QueryPlanTests::scansCollection);
+        if (!plan.isDocument()) return false;
+
+        BsonDocument stage = plan.asDocument();
+        return "COLLSCAN".equals(stage.getString("stage", new BsonString("")).getValue())
+                || stage.values().stream().anyMatch(QueryPlanTests::scansCollection);
+    }
+}
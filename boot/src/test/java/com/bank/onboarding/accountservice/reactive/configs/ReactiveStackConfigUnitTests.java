@@ -0,0 +1,25 @@
+package com.bank.onboarding.accountservice.reactive.configs;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.runner.ReactiveWebApplicationContextRunner;
+import org.springframework.core.NestedExceptionUtils;
+
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ReactiveStackConfigUnitTests {
+
+    private final ReactiveWebApplicationContextRunner contextRunner = new ReactiveWebApplicationContextRunner()
+            .withUserConfiguration(ReactiveStackConfig.class);
+
+    @Test
+    void reactiveStackRefusesToStartWithoutJwtValidationTest() {
+        contextRunner.run(context -> {
+            assertNotNull(context.getStartupFailure());
+            Throwable cause = NestedExceptionUtils.getMostSpecificCause(context.getStartupFailure());
+            assertInstanceOf(IllegalStateException.class, cause);
+            assertTrue(cause.getMessage().contains("WEB_APPLICATION_TYPE=servlet"));
+        });
+    }
+}
@@ -0,0 +1,229 @@
+package com.bank.onboarding.accountservice.reactive.controllers;
+
+import com.bank.onboarding.accountservice.reactive.services.ReactiveAccountService;
+import com.bank.onboarding.accountservice.services.CardNotFoundException;
+import com.bank.onboarding.accountservice.services.dtos.BulkCreateAccountResultDTO;
+import com.bank.onboarding.commonslib.persistence.enums.CardType;
+import com.bank.onboarding.commonslib.persistence.models.Account;
+import com.bank.onboarding.commonslib.persistence.repositories.AccountRepository;
+import com.bank.onboarding.commonslib.persistence.repositories.AddressRepository;
+import com.bank.onboarding.commonslib.persistence.repositories.CardRepository;
+import com.bank.onboarding.commonslib.persistence.repositories.ContactRepository;
+import com.bank.onboarding.commonslib.persistence.repositories.CustomerRefRepository;
+import com.bank.onboarding.commonslib.persistence.repositories.CustomerRepository;
+import com.bank.onboarding.commonslib.persistence.repositories.DocumentRepository;
+import com.bank.onboarding.commonslib.persistence.repositories.InterventionRepository;
+import com.bank.onboarding.commonslib.persistence.repositories.RelationRepository;
+import com.bank.onboarding.commonslib.persistence.services.AccountRepoService;
+import com.bank.onboarding.commonslib.persistence.services.CardRepoService;
+import com.bank.onboarding.commonslib.persistence.services.CustomerRefRepoService;
+import com.bank.onboarding.commonslib.utils.OnboardingUtils;
+import com.bank.onboarding.commonslib.utils.mappers.AccountMapper;
+import com.bank.onboarding.commonslib.web.dtos.account.AccountCardDTO;
+import com.bank.onboarding.commonslib.web.dtos.account.AccountDTO;
+import com.bank.onboarding.commonslib.web.dtos.account.AccountDeleteCardDTO;
+import com.bank.onboarding.commonslib.web.dtos.account.AccountNetbancoDTO;
+import com.bank.onboarding.commonslib.web.dtos.account.AccountTypeRequestDTO;
+import com.bank.onboarding.commonslib.web.dtos.account.CreateAccountRequestDTO;
+import com.bank.onboarding.commonslib.web.dtos.account.MoveNextPhaseDTO;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.security.reactive.ReactiveSecurityAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.web.reactive.WebFluxTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.boot.test.mock.mockito.MockBeans;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+import static com.bank.onboarding.commonslib.utils.TestOnboardingUtils.buildAccount;
+import static com.bank.onboarding.commonslib.utils.TestOnboardingUtils.buildAccountCardDTO;
+import static com.bank.onboarding.commonslib.utils.TestOnboardingUtils.buildAccountNetbancoDTO;
+import static com.bank.onboarding.commonslib.utils.TestOnboardingUtils.buildAccountTypeRequestDTO;
+import static com.bank.onboarding.commonslib.utils.TestOnboardingUtils.buildCardDTO;
+import static com.bank.onboarding.commonslib.utils.TestOnboardingUtils.buildCreateAccountRequestDTO;
+import static com.bank.onboarding.commonslib.utils.TestOnboardingUtils.buildMoveNextPhaseDTO;
+import static com.bank.onboarding.commonslib.utils.TestOnboardingUtils.deleteAccountCardDTO;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(SpringExtension.class)
+@WebFluxTest(controllers = ReactiveAccountController.class, excludeAutoConfiguration = ReactiveSecurityAutoConfiguration.class)
+@MockBeans({
+        @MockBean(OnboardingUtils.class),
+        @MockBean(AccountRepoService.class),
+        @MockBean(CardRepoService.class),
+        @MockBean(CustomerRefRepoService.class),
+        @MockBean(CustomerRefRepository.class),
+        @MockBean(CustomerRepository.class),
+        @MockBean(AccountRepository.class),
+        @MockBean(CardRepository.class),
+        @MockBean(DocumentRepository.class),
+        @MockBean(InterventionRepository.class),
+        @MockBean(RelationRepository.class),
+        @MockBean(ContactRepository.class),
+        @MockBean(AddressRepository.class)
+})
+class ReactiveAccountControllerUnitTests {
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @MockBean
+    private ReactiveAccountService reactiveAccountService;
+
+    @Value("${bank.onboarding.client.id}")
+    private String clientId;
+
+    private AccountDTO accountDTO;
+    private String accountNumber;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @BeforeEach
+    public void setUp() {
+        objectMapper.registerModule(new JavaTimeModule());
+
+        Account account = buildAccount();
+        accountDTO = AccountMapper.INSTANCE.toAccountDTO(account);
+        accountNumber = account.getNumber();
+    }
+
+    @Test
+    void createAccountTest() throws Exception{
+        CreateAccountRequestDTO createAccountRequestDTO = buildCreateAccountRequestDTO();
+
+        when(reactiveAccountService.createAccount(createAccountRequestDTO)).thenReturn(Mono.just(accountDTO));
+        expectAccountDTO(exchange(HttpMethod.POST, "/accounts", createAccountRequestDTO)
+                .expectStatus().isCreated());
+    }
+
+    @Test
+    void createAccountsTest() throws Exception{
+        String requestLine = objectMapper.writeValueAsString(buildCreateAccountRequestDTO());
+
+        when(reactiveAccountService.createAccounts(any())).thenAnswer(invocation -> {
+            Flux<CreateAccountRequestDTO> requests = invocation.getArgument(0);
+            return requests.index().map(request -> BulkCreateAccountResultDTO.created(request.getT1().intValue(), accountDTO));
+        });
+
+        List<BulkCreateAccountResultDTO> results = webTestClient.post().uri("/accounts/bulk")
+                .header("Authorization", "Bearer token")
+                .header("X-Onboarding-Client-Id", clientId)
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .accept(MediaType.APPLICATION_NDJSON)
+                .bodyValue(requestLine + "\n" + requestLine + "\n")
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON)
+                .returnResult(BulkCreateAccountResultDTO.class)
+                .getResponseBody().collectList().block();
+
+        assertEquals(2, results.size());
+        assertEquals(1, results.get(1).getIndex());
+        assertEquals(accountNumber, results.get(0).getAccount().getNumber());
+    }
+
+    @Test
+    void patchAccountTypeTest() throws Exception{
+        AccountTypeRequestDTO accountTypeRequestDTO = buildAccountTypeRequestDTO();
+
+        when(reactiveAccountService.patchAccountType(accountNumber, accountTypeRequestDTO)).thenReturn(Mono.just(accountDTO));
+        expectAccountDTO(exchange(HttpMethod.PUT, "/accounts/" + accountNumber, accountTypeRequestDTO)
+                .expectStatus().isOk());
+    }
+
+    @Test
+    void patchAccountTypeNotAllowedTest() throws Exception{
+        AccountTypeRequestDTO accountTypeRequestDTO = buildAccountTypeRequestDTO();
+
+        when(reactiveAccountService.patchAccountType(accountNumber, accountTypeRequestDTO)).thenReturn(Mono.empty());
+        exchange(HttpMethod.PUT, "/accounts/" + accountNumber, accountTypeRequestDTO)
+                .expectStatus().isBadRequest();
+    }
+
+    @Test
+    void putAccountCardTest() throws Exception{
+        AccountCardDTO accountCardDTO = buildAccountCardDTO();
+
+        when(reactiveAccountService.putAccountCard(accountNumber, accountCardDTO)).thenReturn(Mono.just(buildCardDTO()));
+        exchange(HttpMethod.PUT, "/accounts/" + accountNumber + "/card", accountCardDTO)
+                .expectStatus().isOk()
+                .expectHeader().contentType(MediaType.APPLICATION_JSON)
+                .expectBody()
+                .jsonPath("$.annualFee").isEqualTo(10)
+                .jsonPath("$.cvc").isEqualTo(111)
+                .jsonPath("$.number").isEqualTo("1234-5678-9101-1121")
+                .jsonPath("$.type").isEqualTo(CardType.CD.name());
+    }
+
+    @Test
+    void deleteAccountCardTest() throws Exception{
+        String cardNumber = "12345";
+        AccountDeleteCardDTO accountDeleteCardDTO = deleteAccountCardDTO();
+
+        when(reactiveAccountService.deleteAccountCard(accountNumber, cardNumber, accountDeleteCardDTO)).thenReturn(Mono.just(accountDTO));
+        expectAccountDTO(exchange(HttpMethod.DELETE, "/accounts/" + accountNumber + "/card/" + cardNumber, accountDeleteCardDTO)
+                .expectStatus().isOk());
+    }
+
+    @Test
+    void deleteAccountCardOfAnotherAccountIsNotFoundTest() throws Exception{
+        String cardNumber = "12345";
+        AccountDeleteCardDTO accountDeleteCardDTO = deleteAccountCardDTO();
+
+        when(reactiveAccountService.deleteAccountCard(accountNumber, cardNumber, accountDeleteCardDTO)).thenReturn(Mono.error(new CardNotFoundException()));
+        exchange(HttpMethod.DELETE, "/accounts/" + accountNumber + "/card/" + cardNumber, accountDeleteCardDTO)
+                .expectStatus().isNotFound();
+    }
+
+    @Test
+    void putAccountNetbancoTest() throws Exception{
+        AccountNetbancoDTO accountNetbancoDTO = buildAccountNetbancoDTO();
+
+        when(reactiveAccountService.putAccountNetbanco(accountNumber, accountNetbancoDTO)).thenReturn(Mono.just(accountDTO));
+        expectAccountDTO(exchange(HttpMethod.PUT, "/accounts/" + accountNumber + "/netbanco", accountNetbancoDTO)
+                .expectStatus().isOk());
+    }
+
+    @Test
+    void putMoveNextPhaseTest() throws Exception{
+        MoveNextPhaseDTO moveNextPhaseDTO = buildMoveNextPhaseDTO();
+
+        when(reactiveAccountService.moveToNextPhase(accountNumber, moveNextPhaseDTO)).thenReturn(Mono.just(accountDTO));
+        expectAccountDTO(exchange(HttpMethod.PUT, "/accounts/" + accountNumber + "/moveNextPhase", moveNextPhaseDTO)
+                .expectStatus().isOk());
+    }
+
+    private WebTestClient.ResponseSpec exchange(HttpMethod httpMethod, String uri, Object body) throws Exception {
+        return webTestClient.method(httpMethod).uri(uri)
+                .header("Authorization", "Bearer token")
+                .header("X-Onboarding-Client-Id", clientId)
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(objectMapper.writeValueAsString(body))
+                .exchange();
+    }
+
+    private void expectAccountDTO(WebTestClient.ResponseSpec responseSpec) {
+        responseSpec.expectHeader().contentType(MediaType.APPLICATION_JSON)
+                .expectBody()
+                .jsonPath("$.accountManager").isEqualTo(accountDTO.getAccountManager())
+                .jsonPath("$.currencyCode").isEqualTo(accountDTO.getCurrencyCode())
+                .jsonPath("$.iban").isEqualTo(accountDTO.getIban())
+                .jsonPath("$.number").isEqualTo(accountNumber)
+                .jsonPath("$.onlineBankingIndicator").isEqualTo(accountDTO.getOnlineBankingIndicator())
+                .jsonPath("$.phase").isEqualTo(accountDTO.getPhase())
+                .jsonPath("$.type").isEqualTo(accountDTO.getType());
+    }
+}
@@ -0,0 +1,52 @@
+package com.bank.onboarding.accountservice.services;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class AccountMetricsUnitTests {
+
+    private SimpleMeterRegistry meterRegistry;
+    private AccountMetrics accountMetrics;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        accountMetrics = new AccountMetrics(meterRegistry);
+    }
+
+    @Test
+    void phaseTransitionsAreCountedPerPhaseTest() {
+        accountMetrics.phaseTransition(1, 2);
+        accountMetrics.phaseTransition(1, 2);
+        accountMetrics.phaseTransition(2, 3);
+
+        assertEquals(2, meterRegistry.get("account.phase.transitions").tag("from", "1").tag("to", "2").counter().count());
+        assertEquals(1, meterRegistry.get("account.phase.transitions").tag("from", "2").tag("to", "3").counter().count());
+    }
+
+    @Test
+    void phaseRejectionsAreCountedPerReasonTest() {
+        accountMetrics.phaseRejected(3, AccountMetrics.NOT_READY);
+        accountMetrics.phaseRejected(3, AccountMetrics.CONCURRENT_UPDATE);
+
+        assertEquals(1, meterRegistry.get("account.phase.rejections").tag("reason", AccountMetrics.NOT_READY).counter().count());
+        assertEquals(1, meterRegistry.get("account.phase.rejections").tag("reason", AccountMetrics.CONCURRENT_UPDATE).counter().count());
+    }
+
+    @Test
+    void failedEventsAreTimedAndCountedTest() {
+        accountMetrics.eventConsumed("DocsUploadEvent", Duration.ofMillis(5));
+        accountMetrics.eventFailed("DocsUploadEvent", Duration.ofMillis(7), new IllegalStateException());
+        accountMetrics.eventUnreadable(new IllegalArgumentException());
+
+        assertEquals(1, meterRegistry.get("account.events.consume").tag("outcome", "success").timer().count());
+        assertEquals(1, meterRegistry.get("account.events.consume").tag("outcome", "failure").timer().count());
+        assertEquals(1, meterRegistry.get("account.events.consume.errors").tag("exception", "IllegalStateException").counter().count());
+        assertEquals(1, meterRegistry.get("account.events.consume.errors").tag("event", AccountMetrics.UNREADABLE_EVENT).counter().count());
+    }
+}
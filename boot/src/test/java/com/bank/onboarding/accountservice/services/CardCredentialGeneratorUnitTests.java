@@ -0,0 +1,46 @@
+package com.bank.onboarding.accountservice.services;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.HashSet;
+import java.util.List;
+
+import static com.bank.onboarding.accountservice.services.utils.CardNumberUtils.isValidCardNumber;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CardCredentialGeneratorUnitTests {
+
+    private final CardCredentialGenerator cardCredentialGenerator =
+            new CardCredentialGenerator("491234", new BigDecimal("5.00"), new BigDecimal("20.00"));
+
+    @Test
+    void cardNumbersAreUniqueAndValidTest() {
+        List<String> cardNumbers = cardCredentialGenerator.cardNumbers(1_000);
+
+        assertEquals(1_000, new HashSet<>(cardNumbers).size());
+        cardNumbers.forEach(cardNumber -> {
+            assertTrue(cardNumber.startsWith("4912-34"), cardNumber);
+            assertTrue(isValidCardNumber(cardNumber), cardNumber);
+        });
+    }
+
+    @Test
+    void cvcAndAnnualFeeAreInRangeTest() {
+        for (int i = 0; i < 1_000; i++) {
+            int cvc = cardCredentialGenerator.cvc();
+            double annualFee = cardCredentialGenerator.annualFee();
+            assertTrue(cvc >= 100 && cvc <= 999, String.valueOf(cvc));
+            assertTrue(annualFee >= 5.00 && annualFee <= 20.00, String.valueOf(annualFee));
+            assertEquals(annualFee, Math.round(annualFee * 100) / 100.0);
+        }
+    }
+
+    @Test
+    void invalidConfigurationTest() {
+        assertThrows(IllegalArgumentException.class, () -> new CardCredentialGenerator("49123", BigDecimal.ONE, BigDecimal.TEN));
+        assertThrows(IllegalArgumentException.class, () -> new CardCredentialGenerator("491234", BigDecimal.TEN, BigDecimal.ONE));
+    }
+}
@@ -0,0 +1,143 @@
+package com.bank.onboarding.accountservice.services;
+
+import com.bank.onboarding.accountservice.persistence.services.CachedAccountRepoService;
+import com.bank.onboarding.accountservice.persistence.services.CompensationRepoService;
+import com.bank.onboarding.commonslib.persistence.models.Account;
+import com.bank.onboarding.commonslib.utils.kafka.models.ErrorEvent;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class CompensationEngineUnitTests {
+
+    private static final int MAX_BATCH_SIZE = 3;
+    private static final String ACCOUNT_NUMBER = "0001000000000123449";
+    private static final String CUSTOMER_NUMBER = "100200300";
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private CompensationRepoService compensationRepoService;
+    private CachedAccountRepoService cachedAccountRepoService;
+    private SimpleMeterRegistry meterRegistry;
+    private CompensationEngine compensationEngine;
+
+    @BeforeEach
+    public void setUp() {
+        compensationRepoService = mock(CompensationRepoService.class);
+        cachedAccountRepoService = mock(CachedAccountRepoService.class);
+        meterRegistry = new SimpleMeterRegistry();
+        compensationEngine = new CompensationEngine(compensationRepoService, cachedAccountRepoService,
+                new AccountMetrics(meterRegistry), Duration.ofHours(1), MAX_BATCH_SIZE);
+        compensationEngine.start();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        compensationEngine.stop();
+    }
+
+    @Test
+    void compensationsAreDeduplicatedAndCascadedTest() throws Exception {
+        Account account = Account.builder().id("660a8f0c2b1e4a3d5c6b7a89").number(ACCOUNT_NUMBER).build();
+        when(compensationRepoService.findAccountIds(Set.of(ACCOUNT_NUMBER))).thenReturn(List.of(account));
+
+        Instant producedAt = Instant.now().minusSeconds(2);
+        compensationEngine.compensateAll(List.of(
+                new CompensationEngine.Compensation(createAccountError(ACCOUNT_NUMBER), producedAt),
+                new CompensationEngine.Compensation(createAccountError(ACCOUNT_NUMBER), producedAt),
+                new CompensationEngine.Compensation(addCustomerError("ADD_REL", true), producedAt),
+                new CompensationEngine.Compensation(addCustomerError("ADD_INTERVENIENT", false), producedAt)));
+
+        InOrder inOrder = inOrder(compensationRepoService, cachedAccountRepoService);
+        inOrder.verify(compensationRepoService).deleteCards(List.of(account.getId()));
+        inOrder.verify(compensationRepoService).deleteAccounts(Set.of(ACCOUNT_NUMBER));
+        inOrder.verify(compensationRepoService).deleteReadinesses(Set.of(ACCOUNT_NUMBER));
+        inOrder.verify(compensationRepoService).deleteCustomerRefs(Set.of(ACCOUNT_NUMBER), Set.of(CUSTOMER_NUMBER));
+        inOrder.verify(cachedAccountRepoService).evictAll(Set.of(ACCOUNT_NUMBER));
+
+        assertEquals(2, meterRegistry.get("account.compensation.lag").tag("operation", "CREATE_ACCOUNT").timer().count());
+        assertEquals(1, meterRegistry.get("account.compensation.lag").tag("operation", "ADD_REL").timer().count());
+        assertTrue(meterRegistry.get("account.compensation.lag").tag("operation", "CREATE_ACCOUNT").timer().max(TimeUnit.SECONDS) >= 2);
+    }
+
+    @Test
+    void alreadyDeletedAccountsOnlyCleanUpTheRestTest() throws Exception {
+        compensationEngine.compensateAll(List.of(new CompensationEngine.Compensation(createAccountError(ACCOUNT_NUMBER), Instant.now())));
+
+        verify(compensationRepoService, never()).deleteCards(anyCollection());
+        verify(compensationRepoService, never()).deleteAccounts(anyCollection());
+        verify(compensationRepoService).deleteReadinesses(Set.of(ACCOUNT_NUMBER));
+        verify(compensationRepoService).deleteCustomerRefs(Set.of(ACCOUNT_NUMBER), Set.of());
+    }
+
+    @Test
+    void concurrentEventsAreAppliedAsOneBatchTest() throws Exception {
+        try (ExecutorService executor = Executors.newFixedThreadPool(MAX_BATCH_SIZE)) {
+            CompletableFuture.allOf(compensateConcurrently(executor).toArray(CompletableFuture[]::new)).get(10, TimeUnit.SECONDS);
+        }
+
+        verify(compensationRepoService, times(1)).findAccountIds(anyCollection());
+        verify(compensationRepoService, times(1)).deleteReadinesses(anyCollection());
+    }
+
+    @Test
+    void failedBatchFailsEveryCallerTest() throws Exception {
+        when(compensationRepoService.findAccountIds(anyCollection())).thenThrow(new IllegalStateException("Mongo unavailable"));
+
+        try (ExecutorService executor = Executors.newFixedThreadPool(MAX_BATCH_SIZE)) {
+            for (CompletableFuture<Void> caller : compensateConcurrently(executor)) {
+                ExecutionException failure = assertThrows(ExecutionException.class, () -> caller.get(10, TimeUnit.SECONDS));
+                assertInstanceOf(IllegalStateException.class, failure.getCause());
+            }
+        }
+        verify(compensationRepoService, never()).deleteCustomerRefs(anyCollection(), any());
+    }
+
+    /**
+     * One caller per event of a full batch, each waiting for its own event.
+     */
+    private List<CompletableFuture<Void>> compensateConcurrently(ExecutorService executor) throws Exception {
+        List<CompletableFuture<Void>> callers = new ArrayList<>();
+        for (int i = 0; i < MAX_BATCH_SIZE; i++) {
+            ErrorEvent errorEvent = createAccountError(ACCOUNT_NUMBER.substring(0, 18) + i);
+            callers.add(CompletableFuture.runAsync(() -> compensationEngine.compensate(errorEvent, Instant.now()), executor));
+        }
+        return callers;
+    }
+
+    private ErrorEvent createAccountError(String accountNumber) throws Exception {
+        return objectMapper.readValue("{\"operationType\":\"CREATE_ACCOUNT\",\"accountRefDTO\":{\"accountNumber\":\""
+                + accountNumber + "\"}}", ErrorEvent.class);
+    }
+
+    private ErrorEvent addCustomerError(String operationType, boolean isNewCustomer) throws Exception {
+        return objectMapper.readValue("{\"operationType\":\"" + operationType + "\",\"isNewCustomer\":" + isNewCustomer
+                + ",\"customerRefDTO\":{\"customerNumber\":\"" + CUSTOMER_NUMBER + "\"}}", ErrorEvent.class);
+    }
+}
@@ -0,0 +1,123 @@
+package com.bank.onboarding.accountservice.services;
+
+import com.bank.onboarding.accountservice.Application;
+import com.bank.onboarding.accountservice.persistence.models.OutboxEvent;
+import com.bank.onboarding.commonslib.persistence.enums.OperationType;
+import com.bank.onboarding.commonslib.utils.kafka.EventSeDeserializer;
+import com.bank.onboarding.commonslib.utils.kafka.models.CardAndNetbancoEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@SpringBootTest(classes = Application.class)
+@ExtendWith({SpringExtension.class})
+class CustomerEventPublisherUnitTests {
+
+    @Autowired
+    private EventSeDeserializer eventSeDeserializer;
+
+    private KafkaTemplate<String, String> kafkaTemplate;
+    private PublishListener publishListener;
+    private SimpleMeterRegistry meterRegistry;
+    private CustomerEventPublisher customerEventPublisher;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    public void setUp() {
+        kafkaTemplate = mock(KafkaTemplate.class);
+        publishListener = mock(PublishListener.class);
+        meterRegistry = new SimpleMeterRegistry();
+        customerEventPublisher = new CustomerEventPublisher(kafkaTemplate, eventSeDeserializer,
+                List.of(publishListener, new PublishMetrics(meterRegistry)));
+    }
+
+    @Test
+    void allEventsAreInFlightBeforeAnyIsAcknowledgedTest() {
+        CompletableFuture<SendResult<String, String>> firstAck = new CompletableFuture<>();
+        CompletableFuture<SendResult<String, String>> secondAck = new CompletableFuture<>();
+        when(kafkaTemplate.send(any(), eq(OperationType.CARD_ACCOUNT.name()), anyString())).thenReturn(firstAck, secondAck);
+
+        CompletableFuture<Void> published = customerEventPublisher.publishAllAsync(OperationType.CARD_ACCOUNT, List.of(
+                CardAndNetbancoEvent.builder().value(true).customerNumber("1").build(),
+                CardAndNetbancoEvent.builder().value(true).customerNumber("2").build()));
+
+        verify(kafkaTemplate, times(2)).send(any(), eq(OperationType.CARD_ACCOUNT.name()), anyString());
+        assertFalse(published.isDone());
+
+        firstAck.complete(null);
+        secondAck.complete(null);
+        published.join();
+
+        verify(publishListener, times(2)).onSuccess(eq(OperationType.CARD_ACCOUNT), any(Duration.class));
+        assertEquals(2, meterRegistry.get("account.customer-events.publish")
+                .tag("operation", OperationType.CARD_ACCOUNT.name()).tag("outcome", "success").timer().count());
+    }
+
+    @Test
+    void publishedCardEventsRoundTripThroughEventSeDeserializerTest() {
+        when(kafkaTemplate.send(any(), eq(OperationType.CARD_ACCOUNT.name()), anyString())).thenReturn(CompletableFuture.completedFuture(null));
+        List<CardAndNetbancoEvent> cardEvents = List.of(
+                CardAndNetbancoEvent.builder().value(true).customerNumber("1").build(),
+                CardAndNetbancoEvent.builder().value(false).customerNumber("2").build());
+
+        customerEventPublisher.publishAllAsync(OperationType.CARD_ACCOUNT, cardEvents).join();
+
+        ArgumentCaptor<String> payloads = ArgumentCaptor.forClass(String.class);
+        verify(kafkaTemplate, times(2)).send(any(), eq(OperationType.CARD_ACCOUNT.name()), payloads.capture());
+        assertEquals(cardEvents, payloads.getAllValues().stream()
+                .map(payload -> eventSeDeserializer.deserialize(payload, CardAndNetbancoEvent.class))
+                .toList());
+    }
+
+    @Test
+    void outboxEventsRoundTripThroughEventSeDeserializerTest() {
+        when(kafkaTemplate.send(any(), eq(OperationType.CARD_ACCOUNT.name()), anyString())).thenReturn(CompletableFuture.completedFuture(null));
+        CardAndNetbancoEvent cardEvent = CardAndNetbancoEvent.builder().value(true).customerNumber("1").build();
+
+        customerEventPublisher.publishOutboxAsync(List.of(OutboxEvent.builder()
+                .operationType(OperationType.CARD_ACCOUNT)
+                .payload(customerEventPublisher.serialize(cardEvent))
+                .build())).join();
+
+        ArgumentCaptor<String> payload = ArgumentCaptor.forClass(String.class);
+        verify(kafkaTemplate).send(any(), eq(OperationType.CARD_ACCOUNT.name()), payload.capture());
+        assertEquals(cardEvent, eventSeDeserializer.deserialize(payload.getValue(), CardAndNetbancoEvent.class));
+    }
+
+    @Test
+    void failedSendIsReportedTest() {
+        IllegalStateException cause = new IllegalStateException("broker down");
+        when(kafkaTemplate.send(any(), eq(OperationType.NETBANCO_ACCOUNT.name()), anyString())).thenThrow(cause);
+
+        CompletableFuture<Void> published = customerEventPublisher.publishAllAsync(OperationType.NETBANCO_ACCOUNT,
+                List.of(CardAndNetbancoEvent.builder().value(true).customerNumber("1").build()));
+
+        assertThrows(CompletionException.class, published::join);
+        verify(publishListener).onFailure(eq(OperationType.NETBANCO_ACCOUNT), any(Duration.class), eq(cause));
+        assertEquals(1, meterRegistry.get("account.customer-events.publish")
+                .tag("operation", OperationType.NETBANCO_ACCOUNT.name()).tag("outcome", "failure").timer().count());
+    }
+}
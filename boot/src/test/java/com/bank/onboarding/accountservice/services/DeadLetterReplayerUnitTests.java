@@ -0,0 +1,124 @@
+package com.bank.onboarding.accountservice.services;
+
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.MockConsumer;
+import org.apache.kafka.clients.consumer.OffsetResetStrategy;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.Node;
+import org.apache.kafka.common.PartitionInfo;
+import org.apache.kafka.common.TopicPartition;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.kafka.core.ConsumerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.KafkaHeaders;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class DeadLetterReplayerUnitTests {
+
+    private static final String TOPIC_NAME = "account-service-topic";
+    private static final String DEAD_LETTER_TOPIC_NAME = "account-service-topic-retry-dlt";
+    private static final String GROUP_ID = "account-dlt-replay";
+    private static final TopicPartition PARTITION = new TopicPartition(DEAD_LETTER_TOPIC_NAME, 0);
+
+    private MockConsumer<byte[], byte[]> consumer;
+    private KafkaTemplate<byte[], byte[]> kafkaTemplate;
+    private DeadLetterReplayer deadLetterReplayer;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    public void setUp() {
+        consumer = new MockConsumer<>(OffsetResetStrategy.EARLIEST) {
+            /**
+             * Kept open, so the offsets committed by a replay can still be checked.
+             */
+            @Override
+            public synchronized void close() {}
+        };
+        consumer.updatePartitions(DEAD_LETTER_TOPIC_NAME, List.of(new PartitionInfo(DEAD_LETTER_TOPIC_NAME, 0, Node.noNode(), null, null)));
+        consumer.updateBeginningOffsets(Map.of(PARTITION, 0L));
+        ConsumerFactory<byte[], byte[]> consumerFactory = mock(ConsumerFactory.class);
+        when(consumerFactory.createConsumer(eq(GROUP_ID), isNull(), eq("-replay"), any(Properties.class))).thenReturn(consumer);
+
+        kafkaTemplate = mock(KafkaTemplate.class);
+        when(kafkaTemplate.send(any(ProducerRecord.class))).thenReturn(CompletableFuture.completedFuture(null));
+        DeadLetterRouter deadLetterRouter = mock(DeadLetterRouter.class);
+        when(deadLetterRouter.getTopicName()).thenReturn(TOPIC_NAME);
+        when(deadLetterRouter.getDeadLetterTopicName()).thenReturn(DEAD_LETTER_TOPIC_NAME);
+        when(deadLetterRouter.getKafkaTemplate()).thenReturn(kafkaTemplate);
+
+        deadLetterReplayer = new DeadLetterReplayer(consumerFactory, deadLetterRouter, GROUP_ID, 100,
+                Duration.ofMillis(100), Duration.ofSeconds(10));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void replayRedrivesEventsUpToTheLimitTest() {
+        deadLetter(3);
+
+        DeadLetterReplayer.ReplayResult result = deadLetterReplayer.replay(2);
+
+        assertEquals(new DeadLetterReplayer.ReplayResult(2, 1), result);
+        ArgumentCaptor<ProducerRecord<byte[], byte[]>> replayed = ArgumentCaptor.forClass(ProducerRecord.class);
+        verify(kafkaTemplate, times(2)).send(replayed.capture());
+        ProducerRecord<byte[], byte[]> first = replayed.getAllValues().get(0);
+        assertEquals(TOPIC_NAME, first.topic());
+        assertEquals("DOCS_UPLOAD", new String(first.key(), StandardCharsets.UTF_8));
+        assertEquals(1_000L, first.timestamp());
+        assertNull(first.headers().lastHeader(KafkaHeaders.DLT_EXCEPTION_FQCN));
+        assertEquals("trace", new String(first.headers().lastHeader("traceparent").value(), StandardCharsets.UTF_8));
+        assertEquals(2L, consumer.committed(Set.of(PARTITION)).get(PARTITION).offset());
+    }
+
+    @Test
+    void failedReplayCommitsNothingTest() {
+        deadLetter(1);
+        when(kafkaTemplate.send(any(ProducerRecord.class))).thenReturn(CompletableFuture.failedFuture(new IllegalStateException("Kafka unavailable")));
+
+        assertThrows(IllegalStateException.class, () -> deadLetterReplayer.replay(null));
+        assertNull(consumer.committed(Set.of(PARTITION)).get(PARTITION));
+    }
+
+    @Test
+    void emptyDeadLetterTopicReplaysNothingTest() {
+        consumer.updateEndOffsets(Map.of(PARTITION, 0L));
+
+        assertEquals(new DeadLetterReplayer.ReplayResult(0, 0), deadLetterReplayer.replay(null));
+        verify(kafkaTemplate, never()).send(any(ProducerRecord.class));
+    }
+
+    private void deadLetter(int count) {
+        consumer.updateEndOffsets(Map.of(PARTITION, (long) count));
+        consumer.schedulePollTask(() -> IntStream.range(0, count).forEach(offset -> {
+            ConsumerRecord<byte[], byte[]> record = new ConsumerRecord<>(DEAD_LETTER_TOPIC_NAME, 0, offset,
+                    "DOCS_UPLOAD".getBytes(StandardCharsets.UTF_8), "{}".getBytes(StandardCharsets.UTF_8));
+            record.headers().add("traceparent", "trace".getBytes(StandardCharsets.UTF_8));
+            record.headers().add(KafkaHeaders.DLT_ORIGINAL_TIMESTAMP, ByteBuffer.allocate(Long.BYTES).putLong(1_000L).array());
+            record.headers().add(KafkaHeaders.DLT_EXCEPTION_FQCN, IllegalStateException.class.getName().getBytes(StandardCharsets.UTF_8));
+            record.headers().add("retry_topic-attempts", new byte[]{0, 0, 0, 4});
+            consumer.addRecord(record);
+        }));
+    }
+}
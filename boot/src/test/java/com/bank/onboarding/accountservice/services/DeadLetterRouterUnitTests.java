@@ -0,0 +1,68 @@
+package com.bank.onboarding.accountservice.services;
+
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.apache.kafka.common.record.TimestampType;
+import org.junit.jupiter.api.Test;
+import org.springframework.kafka.core.DefaultKafkaProducerFactory;
+import org.springframework.kafka.listener.ListenerExecutionFailedException;
+import org.springframework.kafka.support.KafkaHeaders;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class DeadLetterRouterUnitTests {
+
+    private static final String TOPIC_NAME = "account-service-topic";
+    private static final String RETRY_TOPIC_NAME = "account-service-topic-retry";
+
+    private final DeadLetterRouter deadLetterRouter = new DeadLetterRouter(
+            new DefaultKafkaProducerFactory<>(Map.<String, Object>of(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, "localhost:29092")),
+            TOPIC_NAME, RETRY_TOPIC_NAME);
+
+    @Test
+    void failedEventsGoToTheRetryTopicTest() {
+        TopicPartition destination = deadLetterRouter.destination(record(TOPIC_NAME),
+                new ListenerExecutionFailedException("Listener failed", new IllegalStateException("Mongo unavailable")));
+
+        assertEquals(RETRY_TOPIC_NAME, destination.topic());
+        assertEquals(-1, destination.partition());
+    }
+
+    @Test
+    void unreadableEventsGoToTheDeadLetterTopicTest() {
+        TopicPartition destination = deadLetterRouter.destination(record(TOPIC_NAME),
+                new ListenerExecutionFailedException("Listener failed", new SerializationException("Unable to read event")));
+
+        assertEquals(RETRY_TOPIC_NAME + "-dlt", destination.topic());
+    }
+
+    @Test
+    void otherTopicsAreNotForwardedTest() {
+        assertNull(deadLetterRouter.destination(record("account-cache-invalidation-topic"), new IllegalStateException()));
+    }
+
+    @Test
+    void forwardedEventsKeepTheirOriginalTimestampTest() {
+        ConsumerRecord<byte[], byte[]> forwarded = record(RETRY_TOPIC_NAME);
+        forwarded.headers().add(KafkaHeaders.DLT_ORIGINAL_TIMESTAMP, ByteBuffer.allocate(Long.BYTES).putLong(1_000L).array());
+        forwarded.headers().add(KafkaHeaders.DLT_ORIGINAL_TIMESTAMP, ByteBuffer.allocate(Long.BYTES).putLong(2_000L).array());
+
+        assertEquals(Instant.ofEpochMilli(1_000L), DeadLetterRouter.producedAt(forwarded));
+        assertEquals(Instant.ofEpochMilli(5_000L), DeadLetterRouter.producedAt(record(TOPIC_NAME)));
+    }
+
+    private static ConsumerRecord<byte[], byte[]> record(String topic) {
+        return new ConsumerRecord<>(topic, 0, 0L, 5_000L, TimestampType.CREATE_TIME, 0, 0,
+                "DOCS_UPLOAD".getBytes(StandardCharsets.UTF_8), "{}".getBytes(StandardCharsets.UTF_8), new RecordHeaders(), Optional.empty());
+    }
+}
@@ -0,0 +1,60 @@
+package com.bank.onboarding.accountservice.services;
+
+import com.bank.onboarding.accountservice.Application;
+import com.bank.onboarding.commonslib.utils.kafka.EventSeDeserializer;
+import com.bank.onboarding.commonslib.utils.kafka.models.DocUploadEvent;
+import com.bank.onboarding.commonslib.utils.kafka.models.ErrorEvent;
+import com.bank.onboarding.commonslib.web.dtos.customer.CustomerRefDTO;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import java.nio.charset.StandardCharsets;
+
+import static com.bank.onboarding.accountservice.services.EventRecordReader.DOCS_UPLOAD;
+import static com.bank.onboarding.accountservice.services.EventRecordReader.UPDATE_CUSTOMER_REF;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+
+@SpringBootTest(classes = Application.class)
+@ExtendWith({SpringExtension.class})
+class EventRecordReaderUnitTests {
+
+    private static final String CUSTOMER_REF_EVENT = "{\"customerNumber\":\"100200300\",\"isValid\":true,\"accounts\":[{\"accountNumber\":\"0001000000000123449\"}]}";
+    private static final String DOCS_UPLOAD_EVENT = "{\"accountNumber\":\"0001000000000123449\",\"areDocsValid\":true}";
+    private static final String ERROR_EVENT = "{\"operationType\":\"CREATE_ACCOUNT\",\"accountRefDTO\":{\"accountNumber\":\"0001000000000123449\"}}";
+
+    @Autowired
+    private EventRecordReader eventRecordReader;
+
+    @Autowired
+    private EventSeDeserializer eventSeDeserializer;
+
+    @Test
+    void readEventByKeyTest() {
+        CustomerRefDTO customerRefDTO = (CustomerRefDTO) eventRecordReader.read(bytes(UPDATE_CUSTOMER_REF), bytes(CUSTOMER_REF_EVENT));
+        assertEquals("100200300", customerRefDTO.getCustomerNumber());
+        assertEquals(Boolean.TRUE, customerRefDTO.getIsValid());
+
+        DocUploadEvent docUploadEvent = (DocUploadEvent) eventRecordReader.read(bytes(DOCS_UPLOAD), bytes(DOCS_UPLOAD_EVENT));
+        assertEquals("0001000000000123449", docUploadEvent.getAccountNumber());
+
+        ErrorEvent errorEvent = (ErrorEvent) eventRecordReader.read(bytes("CREATE_ACCOUNT"), bytes(ERROR_EVENT));
+        assertEquals("0001000000000123449", errorEvent.getAccountRefDTO().getAccountNumber());
+    }
+
+    @Test
+    void readEventMatchesStringPathTest() {
+        assertEquals(eventSeDeserializer.deserialize(CUSTOMER_REF_EVENT, CustomerRefDTO.class),
+                eventRecordReader.read(bytes(UPDATE_CUSTOMER_REF), bytes(CUSTOMER_REF_EVENT)));
+        assertEquals(eventSeDeserializer.deserialize(DOCS_UPLOAD_EVENT, DocUploadEvent.class),
+                eventRecordReader.read(bytes(DOCS_UPLOAD), bytes(DOCS_UPLOAD_EVENT)));
+        assertInstanceOf(ErrorEvent.class, eventRecordReader.read(bytes("ADD_REL"), bytes(ERROR_EVENT)));
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+}
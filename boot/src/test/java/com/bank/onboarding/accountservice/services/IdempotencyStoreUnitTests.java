@@ -0,0 +1,130 @@
+package com.bank.onboarding.accountservice.services;
+
+import com.bank.onboarding.accountservice.persistence.models.IdempotencyRecord;
+import com.bank.onboarding.accountservice.persistence.services.IdempotencyRepoService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class IdempotencyStoreUnitTests {
+
+    private static final String SCOPE = "client:POST /accounts";
+    private static final String KEY = "retry-key";
+    private static final String ID = SCOPE + ":" + KEY;
+    private static final Map<String, String> REQUEST = Map.of("type", "ORDEM");
+
+    private IdempotencyRepoService idempotencyRepoService;
+    private IdempotencyStore idempotencyStore;
+    private AtomicInteger executions;
+    private Supplier<ResponseEntity<?>> action;
+
+    @BeforeEach
+    public void setUp() {
+        idempotencyRepoService = mock(IdempotencyRepoService.class);
+        idempotencyStore = new IdempotencyStore(idempotencyRepoService, new ObjectMapper(), new SimpleMeterRegistry(),
+                100, Duration.ofHours(24), Duration.ofMinutes(1));
+        executions = new AtomicInteger();
+        action = () -> {
+            executions.incrementAndGet();
+            return new ResponseEntity<>(Map.of("number", "8040801240825"), HttpStatus.CREATED);
+        };
+
+        when(idempotencyRepoService.complete(eq(ID), anyInt(), anyString(), any(Duration.class))).thenAnswer(invocation ->
+                IdempotencyRecord.builder().id(ID).completed(true).status(invocation.getArgument(1)).body(invocation.getArgument(2)).build());
+    }
+
+    @Test
+    void retryIsReplayedFromLocalTierTest() {
+        when(idempotencyRepoService.claim(eq(ID), anyString(), any(Duration.class))).thenReturn(null);
+
+        ResponseEntity<?> first = idempotencyStore.execute(SCOPE, KEY, REQUEST, action);
+        assertEquals(HttpStatus.CREATED, first.getStatusCode());
+        verify(idempotencyRepoService).complete(ID, 201, "{\"number\":\"8040801240825\"}", Duration.ofHours(24));
+
+        ResponseEntity<?> retry = idempotencyStore.execute(SCOPE, KEY, REQUEST, action);
+
+        assertEquals(1, executions.get());
+        assertEquals(201, retry.getStatusCode().value());
+        assertEquals("{\"number\":\"8040801240825\"}", retry.getBody());
+        assertEquals("true", retry.getHeaders().getFirst(IdempotencyStore.IDEMPOTENT_REPLAYED_HEADER));
+        verify(idempotencyRepoService, times(1)).claim(eq(ID), anyString(), any(Duration.class));
+    }
+
+    @Test
+    void retryOnOtherReplicaIsReplayedFromMongoTest() throws Exception {
+        when(idempotencyRepoService.claim(eq(ID), anyString(), any(Duration.class))).thenReturn(IdempotencyRecord.builder()
+                .id(ID).requestHash(hash(REQUEST)).completed(true).status(201).body("{}").build());
+
+        assertEquals(201, idempotencyStore.execute(SCOPE, KEY, REQUEST, action).getStatusCode().value());
+        assertEquals(0, executions.get());
+    }
+
+    @Test
+    void retryWhileInProgressIsRefusedTest() throws Exception {
+        when(idempotencyRepoService.claim(eq(ID), anyString(), any(Duration.class))).thenReturn(IdempotencyRecord.builder()
+                .id(ID).requestHash(hash(REQUEST)).completed(false).build());
+
+        ResponseStatusException e = assertThrows(ResponseStatusException.class,
+                () -> idempotencyStore.execute(SCOPE, KEY, REQUEST, action));
+        assertEquals(HttpStatus.CONFLICT, e.getStatusCode());
+    }
+
+    @Test
+    void keyReusedForOtherRequestIsRefusedTest() throws Exception {
+        when(idempotencyRepoService.claim(eq(ID), anyString(), any(Duration.class))).thenReturn(IdempotencyRecord.builder()
+                .id(ID).requestHash(hash(REQUEST)).completed(true).status(201).body("{}").build());
+
+        ResponseStatusException e = assertThrows(ResponseStatusException.class,
+                () -> idempotencyStore.execute(SCOPE, KEY, Map.of("type", "EMPRESA"), action));
+        assertEquals(HttpStatus.UNPROCESSABLE_ENTITY, e.getStatusCode());
+    }
+
+    @Test
+    void failedRequestReleasesKeyTest() {
+        when(idempotencyRepoService.claim(eq(ID), anyString(), any(Duration.class))).thenReturn(null);
+
+        ResponseEntity<?> response = idempotencyStore.execute(SCOPE, KEY, REQUEST,
+                () -> ResponseEntity.badRequest().build());
+
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+        verify(idempotencyRepoService).release(ID);
+        verify(idempotencyRepoService, never()).complete(anyString(), anyInt(), anyString(), any(Duration.class));
+    }
+
+    @Test
+    void keysBelongToTheAuthenticatedCallerTest() throws Exception {
+        assertEquals("svc-onboarding", IdempotencyStore.owner(() -> "svc-onboarding", "Bearer token-a"));
+        assertEquals(HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest("Bearer token-a".getBytes(StandardCharsets.UTF_8))),
+                IdempotencyStore.owner(null, "Bearer token-a"));
+        assertNotEquals(IdempotencyStore.owner(null, "Bearer token-a"), IdempotencyStore.owner(null, "Bearer token-b"));
+    }
+
+    private static String hash(Object request) throws Exception {
+        return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(new ObjectMapper().writeValueAsBytes(request)));
+    }
+}
@@ -0,0 +1,214 @@
+package com.bank.onboarding.accountservice.services;
+
+import com.bank.onboarding.accountservice.persistence.services.AccountReadinessRepoService;
+import com.bank.onboarding.accountservice.persistence.services.BulkRepoService;
+import com.bank.onboarding.accountservice.persistence.services.CachedAccountRepoService;
+import com.bank.onboarding.commonslib.persistence.exceptions.OnboardingException;
+import com.bank.onboarding.commonslib.persistence.services.CustomerRefRepoService;
+import com.bank.onboarding.commonslib.utils.kafka.models.DocUploadEvent;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.springframework.kafka.listener.BatchListenerFailedException;
+import org.springframework.kafka.support.Acknowledgment;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+
+import static com.bank.onboarding.accountservice.services.EventRecordReader.DOCS_UPLOAD;
+import static com.bank.onboarding.accountservice.services.EventRecordReader.UPDATE_CUSTOMER_REF;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class KafkaConsumerUnitTests {
+
+    private static final String TOPIC_NAME = "account-service-topic";
+    private static final String ACCOUNT_NUMBER = "0001000000000123449";
+    private static final String CUSTOMER_NUMBER = "100200300";
+
+    private AccountService accountService;
+    private BulkRepoService bulkRepoService;
+    private CachedAccountRepoService cachedAccountRepoService;
+    private CompensationEngine compensationEngine;
+    private DeadLetterRouter deadLetterRouter;
+    private KafkaConsumer kafkaConsumer;
+    private long offset;
+
+    @BeforeEach
+    public void setUp() {
+        accountService = mock(AccountService.class);
+        bulkRepoService = mock(BulkRepoService.class);
+        cachedAccountRepoService = mock(CachedAccountRepoService.class);
+        compensationEngine = mock(CompensationEngine.class);
+        deadLetterRouter = mock(DeadLetterRouter.class);
+        kafkaConsumer = new KafkaConsumer(new EventRecordReader(new ObjectMapper()), accountService,
+                mock(CustomerRefRepoService.class), bulkRepoService, mock(AccountReadinessRepoService.class),
+                cachedAccountRepoService, mock(KeyedEventDispatcher.class),
+                new AccountMetrics(new SimpleMeterRegistry()), compensationEngine, deadLetterRouter);
+    }
+
+    @Test
+    void updatesAreCollapsedToTheLatestPerAccountTest() {
+        kafkaConsumer.consumeEvents(List.of(docsUpload(false), docsUpload(true)));
+
+        ArgumentCaptor<Collection<DocUploadEvent>> docsWrites = docsCaptor();
+        verify(bulkRepoService).updateAccountsDocsValidity(docsWrites.capture());
+        assertEquals(1, docsWrites.getValue().size());
+        assertTrue(docsWrites.getValue().iterator().next().isAreDocsValid());
+        verify(compensationEngine).compensateAll(List.of());
+    }
+
+    @Test
+    void updateAfterErrorEventIsWrittenAfterTheCompensationTest() {
+        kafkaConsumer.consumeEvents(List.of(docsUpload(false), createAccountError(), docsUpload(true)));
+
+        InOrder inOrder = inOrder(bulkRepoService, compensationEngine);
+        ArgumentCaptor<Collection<DocUploadEvent>> docsWrites = docsCaptor();
+        ArgumentCaptor<List<CompensationEngine.Compensation>> compensations = compensationsCaptor();
+        inOrder.verify(bulkRepoService).updateAccountsDocsValidity(docsWrites.capture());
+        inOrder.verify(compensationEngine).compensateAll(compensations.capture());
+        inOrder.verify(bulkRepoService).updateAccountsDocsValidity(docsWrites.capture());
+        inOrder.verify(compensationEngine).compensateAll(compensations.capture());
+
+        assertFalse(docsWrites.getAllValues().get(0).iterator().next().isAreDocsValid());
+        assertEquals(1, compensations.getAllValues().get(0).size());
+        assertTrue(docsWrites.getAllValues().get(1).iterator().next().isAreDocsValid());
+        assertTrue(compensations.getAllValues().get(1).isEmpty());
+    }
+
+    @Test
+    void consecutiveErrorEventsAreCompensatedTogetherTest() {
+        kafkaConsumer.consumeEvents(List.of(customerRef(), createAccountError(), createAccountError(), customerRef()));
+
+        InOrder inOrder = inOrder(bulkRepoService, compensationEngine);
+        ArgumentCaptor<List<CompensationEngine.Compensation>> compensations = compensationsCaptor();
+        inOrder.verify(bulkRepoService).upsertCustomerRefs(anyCollection());
+        inOrder.verify(compensationEngine).compensateAll(compensations.capture());
+        inOrder.verify(bulkRepoService).upsertCustomerRefs(anyCollection());
+        assertEquals(2, compensations.getValue().size());
+        verify(compensationEngine, times(2)).compensateAll(anyList());
+    }
+
+    @Test
+    void unreadableEventIsDeadLetteredOnceItsSegmentIsAppliedTest() {
+        ConsumerRecord<byte[], byte[]> unreadable = record(DOCS_UPLOAD, "{");
+
+        kafkaConsumer.consumeEvents(List.of(unreadable, docsUpload(true)));
+
+        InOrder inOrder = inOrder(bulkRepoService, deadLetterRouter);
+        inOrder.verify(bulkRepoService).updateAccountsDocsValidity(anyCollection());
+        inOrder.verify(deadLetterRouter).route(eq(unreadable), any());
+    }
+
+    @Test
+    void docsUploadForAMissingAccountIsSentToRetryTest() {
+        ConsumerRecord<byte[], byte[]> docsUpload = docsUpload(true);
+        when(bulkRepoService.updateAccountsDocsValidity(anyCollection())).thenReturn(Set.of(ACCOUNT_NUMBER));
+
+        kafkaConsumer.consumeEvents(List.of(customerRef(), docsUpload));
+
+        verify(deadLetterRouter).route(eq(docsUpload), any(OnboardingException.class));
+    }
+
+    @Test
+    void failedSegmentIsReportedFromItsFirstRecordTest() {
+        doThrow(new IllegalStateException("Mongo unavailable")).when(cachedAccountRepoService).evictAll(Set.of(ACCOUNT_NUMBER));
+
+        BatchListenerFailedException failure = assertThrows(BatchListenerFailedException.class, () -> kafkaConsumer.consumeEvents(
+                List.of(customerRef(), createAccountError(), docsUpload(true), record(DOCS_UPLOAD, "{"))));
+
+        assertEquals(2, failure.getIndex());
+        verify(compensationEngine).compensateAll(anyList());
+        verify(deadLetterRouter, never()).route(any(), any());
+    }
+
+    @Test
+    void recordModeErrorEventIsCompensatedWithoutWaitingForTheWindowTest() {
+        kafkaConsumer.consumeEvent(createAccountError());
+
+        ArgumentCaptor<List<CompensationEngine.Compensation>> compensations = compensationsCaptor();
+        verify(compensationEngine).compensateAll(compensations.capture());
+        assertEquals(1, compensations.getValue().size());
+        verify(compensationEngine, never()).compensate(any(), any());
+    }
+
+    @Test
+    void parallelEventIsLeftUnacknowledgedWhenItCannotBeForwardedTest() throws InterruptedException {
+        KeyedEventDispatcher keyedEventDispatcher = new KeyedEventDispatcher(1, 1, false);
+        Acknowledgment acknowledgment = mock(Acknowledgment.class);
+        KafkaConsumer parallelConsumer = new KafkaConsumer(new EventRecordReader(new ObjectMapper()), accountService,
+                mock(CustomerRefRepoService.class), bulkRepoService, mock(AccountReadinessRepoService.class),
+                mock(CachedAccountRepoService.class), keyedEventDispatcher, new AccountMetrics(new SimpleMeterRegistry()),
+                compensationEngine, deadLetterRouter);
+        IllegalStateException failure = new IllegalStateException("Mongo unavailable");
+        doThrow(failure).when(accountService).updateDocsValidOrNotValid(any());
+        doThrow(new IllegalStateException("Kafka unavailable")).when(deadLetterRouter).route(any(), any());
+
+        parallelConsumer.dispatchEvent(docsUpload(true), acknowledgment);
+        keyedEventDispatcher.shutdown();
+
+        verify(deadLetterRouter).route(any(), eq(failure));
+        verify(acknowledgment, never()).acknowledge();
+    }
+
+    @Test
+    void newCustomerRollbackRunsOnTheLaneOfItsCustomerRefTest() {
+        KeyedEventDispatcher keyedEventDispatcher = mock(KeyedEventDispatcher.class);
+        KafkaConsumer parallelConsumer = new KafkaConsumer(new EventRecordReader(new ObjectMapper()), accountService,
+                mock(CustomerRefRepoService.class), bulkRepoService, mock(AccountReadinessRepoService.class),
+                cachedAccountRepoService, keyedEventDispatcher, new AccountMetrics(new SimpleMeterRegistry()),
+                compensationEngine, deadLetterRouter);
+
+        parallelConsumer.dispatchEvent(customerRef(), mock(Acknowledgment.class));
+        parallelConsumer.dispatchEvent(record("ADD_REL", "{\"operationType\":\"ADD_REL\",\"isNewCustomer\":true,\"accountRefDTO\":{\"accountNumber\":\""
+                + ACCOUNT_NUMBER + "\"},\"customerRefDTO\":{\"customerNumber\":\"" + CUSTOMER_NUMBER + "\"}}"), mock(Acknowledgment.class));
+
+        verify(keyedEventDispatcher, times(2)).dispatch(eq(CUSTOMER_NUMBER), any(), any());
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static ArgumentCaptor<Collection<DocUploadEvent>> docsCaptor() {
+        return (ArgumentCaptor) ArgumentCaptor.forClass(Collection.class);
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static ArgumentCaptor<List<CompensationEngine.Compensation>> compensationsCaptor() {
+        return (ArgumentCaptor) ArgumentCaptor.forClass(List.class);
+    }
+
+    private ConsumerRecord<byte[], byte[]> docsUpload(boolean areDocsValid) {
+        return record(DOCS_UPLOAD, "{\"accountNumber\":\"" + ACCOUNT_NUMBER + "\",\"areDocsValid\":" + areDocsValid + "}");
+    }
+
+    private ConsumerRecord<byte[], byte[]> customerRef() {
+        return record(UPDATE_CUSTOMER_REF, "{\"customerNumber\":\"" + CUSTOMER_NUMBER + "\",\"isValid\":true,\"accounts\":[{\"accountNumber\":\""
+                + ACCOUNT_NUMBER + "\"}]}");
+    }
+
+    private ConsumerRecord<byte[], byte[]> createAccountError() {
+        return record("CREATE_ACCOUNT", "{\"operationType\":\"CREATE_ACCOUNT\",\"accountRefDTO\":{\"accountNumber\":\"" + ACCOUNT_NUMBER + "\"}}");
+    }
+
+    private ConsumerRecord<byte[], byte[]> record(String key, String value) {
+        return new ConsumerRecord<>(TOPIC_NAME, 0, offset++, key.getBytes(StandardCharsets.UTF_8), value.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,116 @@
+package com.bank.onboarding.accountservice.services;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class KeyedEventDispatcherUnitTests {
+
+    private final KeyedEventDispatcher keyedEventDispatcher = new KeyedEventDispatcher(4, 16, false);
+
+    @AfterEach
+    public void tearDown() throws InterruptedException {
+        keyedEventDispatcher.shutdown();
+    }
+
+    @Test
+    void eventsWithSameKeyKeepOrderTest() throws InterruptedException {
+        Map<String, List<Integer>> processed = new ConcurrentHashMap<>();
+        CountDownLatch completed = new CountDownLatch(400);
+
+        for (int i = 0; i < 100; i++) {
+            for (String accountNumber : List.of("A1", "A2", "A3", "A4")) {
+                int sequence = i;
+                keyedEventDispatcher.dispatch(accountNumber,
+                        () -> processed.computeIfAbsent(accountNumber, key -> new CopyOnWriteArrayList<>()).add(sequence),
+                        completed::countDown);
+            }
+        }
+
+        assertTrue(completed.await(10, TimeUnit.SECONDS));
+        processed.values().forEach(sequences -> {
+            assertEquals(100, sequences.size());
+            for (int i = 0; i < sequences.size(); i++) assertEquals(i, sequences.get(i));
+        });
+    }
+
+    @Test
+    void failedEventIsNotCompletedTest() throws InterruptedException {
+        AtomicInteger completions = new AtomicInteger();
+        CountDownLatch completed = new CountDownLatch(1);
+
+        keyedEventDispatcher.dispatch("A1", () -> { throw new IllegalStateException("boom"); }, completions::incrementAndGet);
+        keyedEventDispatcher.dispatch("A1", () -> {}, () -> {
+            completions.incrementAndGet();
+            completed.countDown();
+        });
+
+        assertTrue(completed.await(5, TimeUnit.SECONDS));
+        assertEquals(1, completions.get());
+    }
+
+    @Test
+    void queuedEventsAreDrainedOnStopTest() {
+        AtomicInteger completions = new AtomicInteger();
+        keyedEventDispatcher.dispatch("A1", () -> sleep(200), completions::incrementAndGet);
+        for (int i = 0; i < 5; i++) keyedEventDispatcher.dispatch("A1", () -> {}, completions::incrementAndGet);
+
+        keyedEventDispatcher.stop();
+
+        assertEquals(6, completions.get());
+    }
+
+    @Test
+    void eventsAreRejectedOnceStoppedTest() {
+        keyedEventDispatcher.stop();
+
+        assertThrows(RejectedExecutionException.class, () -> keyedEventDispatcher.dispatch("A1", () -> {}, () -> {}));
+    }
+
+    @Test
+    void dispatchWaitingForAFreeSlotIsRejectedOnStopTest() throws Exception {
+        KeyedEventDispatcher singleLane = new KeyedEventDispatcher(1, 1, false);
+        CountDownLatch release = new CountDownLatch(1);
+        singleLane.dispatch("A1", () -> await(release), () -> {});
+        singleLane.dispatch("A1", () -> {}, () -> {});
+
+        CompletableFuture<Void> waiting = CompletableFuture.runAsync(() -> singleLane.dispatch("A1", () -> {}, () -> {}));
+        CompletableFuture<Void> stopped = CompletableFuture.runAsync(singleLane::stop);
+        ExecutionException rejection = assertThrows(ExecutionException.class, () -> waiting.get(5, TimeUnit.SECONDS));
+        release.countDown();
+        stopped.get(5, TimeUnit.SECONDS);
+
+        assertInstanceOf(RejectedExecutionException.class, rejection.getCause());
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
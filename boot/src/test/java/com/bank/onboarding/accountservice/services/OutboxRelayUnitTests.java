@@ -0,0 +1,153 @@
+package com.bank.onboarding.accountservice.services;
+
+import com.bank.onboarding.accountservice.persistence.models.OutboxEvent;
+import com.bank.onboarding.accountservice.persistence.services.OutboxRepoService;
+import com.bank.onboarding.commonslib.persistence.enums.OperationType;
+import org.apache.kafka.common.errors.RecordTooLargeException;
+import org.apache.kafka.common.errors.TimeoutException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class OutboxRelayUnitTests {
+
+    private static final int BATCH_SIZE = 3;
+    private static final int MAX_ATTEMPTS = 2;
+
+    private OutboxRepoService outboxRepoService;
+    private CustomerEventPublisher customerEventPublisher;
+    private OutboxRelay outboxRelay;
+
+    @BeforeEach
+    public void setUp() {
+        outboxRepoService = mock(OutboxRepoService.class);
+        customerEventPublisher = mock(CustomerEventPublisher.class);
+        outboxRelay = new OutboxRelay(outboxRepoService, customerEventPublisher, BATCH_SIZE, Duration.ofHours(1), Duration.ofSeconds(10),
+                Duration.ofMillis(100), MAX_ATTEMPTS);
+        outboxRelay.start();
+
+        when(outboxRepoService.acquireRelayLease(anyString(), anyString(), any(Duration.class))).thenReturn(true);
+        when(customerEventPublisher.publishOutboxAsync(anyList())).thenReturn(CompletableFuture.completedFuture(Map.of()));
+    }
+
+    @AfterEach
+    public void tearDown() {
+        outboxRelay.stop();
+    }
+
+    @Test
+    void relayDrainsBacklogInBatchesTest() {
+        List<OutboxEvent> firstBatch = buildOutboxEvents(0, BATCH_SIZE);
+        List<OutboxEvent> secondBatch = buildOutboxEvents(BATCH_SIZE, 1);
+        when(outboxRepoService.findOldestEvents(BATCH_SIZE)).thenReturn(firstBatch, secondBatch);
+
+        outboxRelay.relay();
+
+        InOrder order = inOrder(customerEventPublisher, outboxRepoService);
+        order.verify(customerEventPublisher).publishOutboxAsync(firstBatch);
+        order.verify(outboxRepoService).deleteEvents(firstBatch);
+        order.verify(customerEventPublisher).publishOutboxAsync(secondBatch);
+        order.verify(outboxRepoService).deleteEvents(secondBatch);
+        verify(outboxRepoService, times(2)).findOldestEvents(BATCH_SIZE);
+    }
+
+    @Test
+    void unavailableBrokerKeepsEventsTest() {
+        List<OutboxEvent> batch = buildOutboxEvents(0, 2);
+        when(outboxRepoService.findOldestEvents(BATCH_SIZE)).thenReturn(batch);
+        when(customerEventPublisher.publishOutboxAsync(batch)).thenReturn(CompletableFuture.completedFuture(Map.of(
+                batch.get(0), new TimeoutException("broker down"), batch.get(1), new TimeoutException("broker down"))));
+
+        outboxRelay.relay();
+
+        verify(outboxRepoService).deleteEvents(List.of());
+        verify(outboxRepoService, never()).recordFailedAttempts(anyList());
+        verify(outboxRepoService, never()).parkEvents(anyList());
+    }
+
+    @Test
+    void unacknowledgedBatchIsGivenUpBeforeTheLeaseExpiresTest() {
+        List<OutboxEvent> batch = buildOutboxEvents(0, 2);
+        when(outboxRepoService.findOldestEvents(BATCH_SIZE)).thenReturn(batch);
+        when(customerEventPublisher.publishOutboxAsync(batch)).thenReturn(new CompletableFuture<>());
+
+        outboxRelay.relay();
+
+        verify(outboxRepoService, never()).deleteEvents(anyList());
+    }
+
+    @Test
+    void eventsBehindAFailureAreSentAgainTest() {
+        List<OutboxEvent> batch = buildOutboxEvents(0, 3);
+        when(outboxRepoService.findOldestEvents(BATCH_SIZE)).thenReturn(batch);
+        when(customerEventPublisher.publishOutboxAsync(batch)).thenReturn(CompletableFuture.completedFuture(Map.of(
+                batch.get(1), new RecordTooLargeException("too large"))));
+
+        assertEquals(1, outboxRelay.relayBatch());
+
+        verify(outboxRepoService).deleteEvents(List.of(batch.get(0)));
+        verify(outboxRepoService).recordFailedAttempts(List.of(batch.get(1)));
+        verify(outboxRepoService, never()).parkEvents(anyList());
+    }
+
+    @Test
+    void rejectedEventIsParkedAfterTheLastAttemptTest() {
+        List<OutboxEvent> batch = buildOutboxEvents(0, 3);
+        batch.get(1).setAttempts(MAX_ATTEMPTS - 1);
+        when(outboxRepoService.findOldestEvents(BATCH_SIZE)).thenReturn(batch);
+        when(customerEventPublisher.publishOutboxAsync(batch)).thenReturn(CompletableFuture.completedFuture(Map.of(
+                batch.get(1), new RecordTooLargeException("too large"), batch.get(2), new RecordTooLargeException("too large"))));
+
+        assertEquals(1, outboxRelay.relayBatch());
+
+        verify(outboxRepoService).deleteEvents(List.of(batch.get(0)));
+        verify(outboxRepoService, never()).recordFailedAttempts(anyList());
+        verify(outboxRepoService).parkEvents(List.of(batch.get(1)));
+        assertEquals(MAX_ATTEMPTS, batch.get(1).getAttempts());
+    }
+
+    @Test
+    void relayWithoutLeaseDoesNothingTest() {
+        when(outboxRepoService.acquireRelayLease(anyString(), anyString(), any(Duration.class))).thenReturn(false);
+
+        outboxRelay.relay();
+
+        verify(outboxRepoService, never()).findOldestEvents(anyInt());
+        verify(customerEventPublisher, never()).publishOutboxAsync(anyList());
+    }
+
+    @Test
+    void emptyOutboxRelaysNothingTest() {
+        when(outboxRepoService.findOldestEvents(BATCH_SIZE)).thenReturn(List.of());
+
+        assertEquals(0, outboxRelay.relayBatch());
+        verify(customerEventPublisher, never()).publishOutboxAsync(anyList());
+    }
+
+    private static List<OutboxEvent> buildOutboxEvents(int first, int count) {
+        return IntStream.range(first, first + count)
+                .mapToObj(i -> OutboxEvent.builder().id(String.valueOf(i)).operationType(OperationType.CARD_ACCOUNT)
+                        .payload("{\"customerNumber\":\"" + i + "\"}").createdAt(LocalDateTime.now()).build())
+                .toList();
+    }
+}
@@ -0,0 +1,117 @@
+package com.bank.onboarding.accountservice.services;
+
+import com.bank.onboarding.accountservice.persistence.services.AccountReadinessRepoService;
+import com.bank.onboarding.accountservice.persistence.services.AccountUpdateRepoService;
+import com.bank.onboarding.accountservice.persistence.services.AccountViewRepoService;
+import com.bank.onboarding.accountservice.persistence.services.BulkRepoService;
+import com.bank.onboarding.accountservice.persistence.services.CachedAccountRepoService;
+import com.bank.onboarding.accountservice.services.impl.AccountServiceImpl;
+import com.bank.onboarding.commonslib.persistence.models.Account;
+import com.bank.onboarding.commonslib.persistence.models.Card;
+import com.bank.onboarding.commonslib.persistence.services.CardRepoService;
+import com.bank.onboarding.commonslib.persistence.services.CustomerRefRepoService;
+import com.bank.onboarding.commonslib.utils.OnboardingUtils;
+import com.bank.onboarding.commonslib.web.dtos.account.AccountCardDTO;
+import com.bank.onboarding.commonslib.web.dtos.account.AccountDeleteCardDTO;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.validation.Validator;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+import static com.bank.onboarding.accountservice.services.RoundTripBudgets.assertWithinRoundTripBudget;
+import static com.bank.onboarding.commonslib.utils.TestOnboardingUtils.buildAccount;
+import static com.bank.onboarding.commonslib.utils.TestOnboardingUtils.buildAccountCardDTO;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class RoundTripBudgetUnitTests {
+
+    private static final List<String> CARD_HOLDERS = List.of("1001", "1002", "1003");
+
+    private CachedAccountRepoService cachedAccountRepoService;
+    private AccountUpdateRepoService accountUpdateRepoService;
+    private BulkRepoService bulkRepoService;
+    private AccountRules accountRules;
+    private AccountFactory accountFactory;
+    private List<Object> roundTripMocks;
+    private AccountServiceImpl accountService;
+    private Account account;
+
+    @BeforeEach
+    public void setUp() {
+        CustomerRefRepoService customerRefRepoService = mock(CustomerRefRepoService.class);
+        CardRepoService cardRepoService = mock(CardRepoService.class);
+        AccountReadinessRepoService accountReadinessRepoService = mock(AccountReadinessRepoService.class);
+        CustomerEventPublisher customerEventPublisher = mock(CustomerEventPublisher.class);
+        CustomerEventOutbox customerEventOutbox = mock(CustomerEventOutbox.class);
+        cachedAccountRepoService = mock(CachedAccountRepoService.class);
+        accountUpdateRepoService = mock(AccountUpdateRepoService.class);
+        bulkRepoService = mock(BulkRepoService.class);
+        accountRules = mock(AccountRules.class);
+        accountFactory = mock(AccountFactory.class);
+        roundTripMocks = List.of(customerRefRepoService, cardRepoService, accountReadinessRepoService, cachedAccountRepoService,
+                accountUpdateRepoService, bulkRepoService, customerEventPublisher, customerEventOutbox);
+
+        accountService = new AccountServiceImpl(customerRefRepoService, mock(OnboardingUtils.class), cardRepoService,
+                accountFactory, accountRules, accountReadinessRepoService, cachedAccountRepoService, accountUpdateRepoService,
+                mock(AccountViewRepoService.class), bulkRepoService, customerEventPublisher, customerEventOutbox,
+                new TransactionTemplate(mock(PlatformTransactionManager.class)),
+                new AccountMetrics(new SimpleMeterRegistry()), mock(Validator.class));
+
+        account = buildAccount();
+        when(cachedAccountRepoService.getAccountByNumber(account.getNumber())).thenReturn(account);
+        when(cachedAccountRepoService.cacheUpdatedAccount(any(Account.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(accountUpdateRepoService.touch(account.getNumber())).thenReturn(account);
+    }
+
+    @Test
+    void putAccountCardBudgetDoesNotGrowWithCardHoldersTest() {
+        AccountCardDTO accountCardDTO = buildAccountCardDTO();
+        when(accountRules.checkCardRequest(accountCardDTO)).thenReturn(CARD_HOLDERS);
+        when(accountFactory.newCards(any(Account.class), any(), anyList())).thenReturn(CARD_HOLDERS.stream()
+                .map(customerNumber -> Card.builder().customerNumber(customerNumber).number("1234-5678-9101-1121").build())
+                .toList());
+
+        assertWithinRoundTripBudget(AccountServiceImpl.class, "putAccountCard", roundTripMocks,
+                () -> accountService.putAccountCard(account.getNumber(), accountCardDTO));
+    }
+
+    @Test
+    void deleteAccountCardReturnsTheTouchedAccountTest() {
+        AccountDeleteCardDTO accountDeleteCardDTO = mock(AccountDeleteCardDTO.class);
+        when(accountDeleteCardDTO.getCustomerNumber()).thenReturn("1001");
+        when(bulkRepoService.findAndRemoveCard(anyString(), anyString())).thenReturn(Card.builder().customerNumber("1001").build());
+
+        assertEquals(account.getNumber(), assertWithinRoundTripBudget(AccountServiceImpl.class, "deleteAccountCard", roundTripMocks,
+                () -> accountService.deleteAccountCard(account.getNumber(), "1234-5678-9101-1121", accountDeleteCardDTO)).getNumber());
+    }
+
+    @Test
+    void overBudgetCallsAreCountedTest() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        RoundTripTracker roundTripTracker = new RoundTripTracker(meterRegistry);
+
+        assertTrue(roundTripTracker.open());
+        assertTrue(roundTripTracker.enterRepository());
+        assertFalse(roundTripTracker.enterRepository());
+        roundTripTracker.exitRepository();
+        assertTrue(roundTripTracker.enterRepository());
+        roundTripTracker.exitRepository();
+        roundTripTracker.recordSend();
+        roundTripTracker.close("putAccountCard", 2);
+
+        assertEquals(2, meterRegistry.get("account.round-trips").tag("target", "mongo").summary().totalAmount());
+        assertEquals(1, meterRegistry.get("account.round-trips").tag("target", "kafka").summary().totalAmount());
+        assertEquals(1, meterRegistry.get("account.round-trips.over-budget").tag("operation", "putAccountCard").counter().count());
+    }
+}
@@ -0,0 +1,45 @@
+package com.bank.onboarding.accountservice.services;
+
+import org.mockito.Mockito;
+import org.mockito.invocation.Invocation;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Fails a test when a {@link RoundTripBudget} method makes more calls on the given collaborator mocks than its
+ * declared budget. Every call on a repository service, outbox, publisher or cache mock counts as one round trip,
+ * so a cached read is counted as a miss. Stubbing must be done before calling it.
+ */
+public final class RoundTripBudgets {
+
+    private RoundTripBudgets() {
+    }
+
+    public static <T> T assertWithinRoundTripBudget(Class<?> serviceClass, String methodName, Collection<?> roundTripMocks,
+                                                    Supplier<T> call) {
+        int budget = budgetOf(serviceClass, methodName);
+        Mockito.clearInvocations(roundTripMocks.toArray());
+
+        T result = call.get();
+
+        List<Invocation> roundTrips = roundTripMocks.stream()
+                .flatMap(roundTripMock -> Mockito.mockingDetails(roundTripMock).getInvocations().stream())
+                .toList();
+        assertTrue(roundTrips.size() <= budget, () -> methodName + " made " + roundTrips.size()
+                + " round trips, over its budget of " + budget + ": " + roundTrips);
+        return result;
+    }
+
+    private static int budgetOf(Class<?> serviceClass, String methodName) {
+        return Arrays.stream(serviceClass.getMethods())
+                .filter(method -> method.getName().equals(methodName) && method.isAnnotationPresent(RoundTripBudget.class))
+                .findFirst()
+                .map(method -> method.getAnnotation(RoundTripBudget.class).value())
+                .orElseThrow(() -> new AssertionError(serviceClass.getSimpleName() + "." + methodName + " declares no round-trip budget"));
+    }
+}
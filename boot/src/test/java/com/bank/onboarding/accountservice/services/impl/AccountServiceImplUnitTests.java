@@ -0,0 +1,148 @@
+package com.bank.onboarding.accountservice.services.impl;
+
+import com.bank.onboarding.accountservice.persistence.services.AccountReadinessRepoService;
+import com.bank.onboarding.accountservice.persistence.services.AccountUpdateRepoService;
+import com.bank.onboarding.accountservice.persistence.services.AccountViewRepoService;
+import com.bank.onboarding.accountservice.persistence.services.BulkRepoService;
+import com.bank.onboarding.accountservice.persistence.services.CachedAccountRepoService;
+import com.bank.onboarding.accountservice.services.AccountFactory;
+import com.bank.onboarding.accountservice.services.AccountMetrics;
+import com.bank.onboarding.accountservice.services.AccountRules;
+import com.bank.onboarding.accountservice.services.CardNotFoundException;
+import com.bank.onboarding.accountservice.services.CustomerEventOutbox;
+import com.bank.onboarding.accountservice.services.dtos.BulkCreateAccountResultDTO;
+import com.bank.onboarding.commonslib.persistence.models.Account;
+import com.bank.onboarding.commonslib.persistence.models.Card;
+import com.bank.onboarding.commonslib.persistence.services.CardRepoService;
+import com.bank.onboarding.commonslib.persistence.services.CustomerRefRepoService;
+import com.bank.onboarding.commonslib.utils.OnboardingUtils;
+import com.bank.onboarding.commonslib.web.dtos.account.AccountCardDTO;
+import com.bank.onboarding.commonslib.web.dtos.account.AccountDeleteCardDTO;
+import com.bank.onboarding.commonslib.web.dtos.account.CreateAccountRequestDTO;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.validation.Validator;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static com.bank.onboarding.commonslib.persistence.enums.OperationType.CREATE_ACCOUNT;
+import static com.bank.onboarding.commonslib.utils.TestOnboardingUtils.buildAccount;
+import static com.bank.onboarding.commonslib.utils.TestOnboardingUtils.buildCreateAccountRequestDTO;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+class AccountServiceImplUnitTests {
+
+    private static final String CARD_NUMBER = "1234-5678-9101-1121";
+    private static final String CUSTOMER_NUMBER = "1001";
+
+    private AccountReadinessRepoService accountReadinessRepoService;
+    private AccountUpdateRepoService accountUpdateRepoService;
+    private BulkRepoService bulkRepoService;
+    private AccountFactory accountFactory;
+    private AccountRules accountRules;
+    private CustomerEventOutbox customerEventOutbox;
+    private AccountServiceImpl accountService;
+    private AccountDeleteCardDTO accountDeleteCardDTO;
+    private Account account;
+
+    @BeforeEach
+    public void setUp() {
+        CachedAccountRepoService cachedAccountRepoService = mock(CachedAccountRepoService.class);
+        accountReadinessRepoService = mock(AccountReadinessRepoService.class);
+        accountUpdateRepoService = mock(AccountUpdateRepoService.class);
+        bulkRepoService = mock(BulkRepoService.class);
+        customerEventOutbox = mock(CustomerEventOutbox.class);
+        accountFactory = mock(AccountFactory.class);
+        accountRules = mock(AccountRules.class);
+        PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+
+        accountService = new AccountServiceImpl(mock(CustomerRefRepoService.class), mock(OnboardingUtils.class),
+                mock(CardRepoService.class), accountFactory, accountRules, accountReadinessRepoService,
+                cachedAccountRepoService, accountUpdateRepoService, mock(AccountViewRepoService.class), bulkRepoService,
+                customerEventOutbox, new TransactionTemplate(transactionManager),
+                new AccountMetrics(new SimpleMeterRegistry()), mock(Validator.class));
+        ReflectionTestUtils.setField(accountService, "bulkBatchSize", 2);
+
+        account = buildAccount();
+        account.setId("account-a");
+        when(cachedAccountRepoService.getAccountByNumber(account.getNumber())).thenReturn(account);
+        when(cachedAccountRepoService.cacheUpdatedAccount(any(Account.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(accountUpdateRepoService.touch(account.getNumber())).thenReturn(account);
+
+        accountDeleteCardDTO = mock(AccountDeleteCardDTO.class);
+        when(accountDeleteCardDTO.getCustomerNumber()).thenReturn(CUSTOMER_NUMBER);
+    }
+
+    @Test
+    void createAccountsRejectsUnreadableAndUninsertedRequestsOnlyTest() {
+        CreateAccountRequestDTO createAccountRequestDTO = buildCreateAccountRequestDTO();
+        when(accountFactory.newAccount(createAccountRequestDTO)).thenAnswer(invocation -> buildAccount());
+        when(bulkRepoService.insertAccounts(anyList())).thenReturn(Map.of(0, "E11000 duplicate key error"), Map.of());
+        List<BulkCreateAccountResultDTO> results = new ArrayList<>();
+
+        accountService.createAccounts(Arrays.asList(createAccountRequestDTO, null, createAccountRequestDTO).iterator(), results::add);
+
+        assertEquals(List.of(0, 1, 2), results.stream().map(BulkCreateAccountResultDTO::getIndex).toList());
+        assertEquals(List.of(BulkCreateAccountResultDTO.Status.REJECTED, BulkCreateAccountResultDTO.Status.REJECTED,
+                BulkCreateAccountResultDTO.Status.CREATED), results.stream().map(BulkCreateAccountResultDTO::getStatus).toList());
+        verify(customerEventOutbox).addAll(eq(CREATE_ACCOUNT), argThat(events -> events.size() == 1));
+    }
+
+    @Test
+    void putAccountCardDrawsNewNumbersAfterACollisionTest() {
+        AccountCardDTO accountCardDTO = mock(AccountCardDTO.class);
+        List<Card> newCards = List.of(Card.builder().accountId("account-a").customerNumber(CUSTOMER_NUMBER).number(CARD_NUMBER).build());
+        when(accountRules.checkCardRequest(accountCardDTO)).thenReturn(List.of(CUSTOMER_NUMBER));
+        when(accountFactory.newCards(eq(account), any(), eq(List.of(CUSTOMER_NUMBER)))).thenReturn(newCards);
+        doThrow(new DuplicateKeyException("E11000 duplicate key error")).doNothing()
+                .when(bulkRepoService).replaceCards("account-a", List.of(CUSTOMER_NUMBER), newCards);
+
+        accountService.putAccountCard(account.getNumber(), accountCardDTO);
+
+        verify(accountFactory, times(2)).newCards(eq(account), any(), eq(List.of(CUSTOMER_NUMBER)));
+        verify(accountReadinessRepoService).addCardHolders(account.getNumber(), List.of(CUSTOMER_NUMBER));
+    }
+
+    @Test
+    void deleteAccountCardRemovesTheAccountsCardTest() {
+        when(bulkRepoService.findAndRemoveCard("account-a", CARD_NUMBER))
+                .thenReturn(Card.builder().accountId("account-a").customerNumber(CUSTOMER_NUMBER).number(CARD_NUMBER).build());
+
+        accountService.deleteAccountCard(account.getNumber(), CARD_NUMBER, accountDeleteCardDTO);
+
+        verify(accountReadinessRepoService).removeCardHolder(account.getNumber(), CUSTOMER_NUMBER);
+        verify(accountUpdateRepoService).touch(account.getNumber());
+    }
+
+    @Test
+    void deleteAccountCardOfAnotherAccountIsNotFoundTest() {
+        assertThrows(CardNotFoundException.class,
+                () -> accountService.deleteAccountCard(account.getNumber(), CARD_NUMBER, accountDeleteCardDTO));
+
+        verify(bulkRepoService).findAndRemoveCard("account-a", CARD_NUMBER);
+        verifyNoInteractions(accountReadinessRepoService, customerEventOutbox);
+        verify(accountUpdateRepoService, never()).touch(account.getNumber());
+    }
+}
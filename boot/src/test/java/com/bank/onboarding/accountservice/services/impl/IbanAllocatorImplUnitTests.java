@@ -0,0 +1,103 @@
+package com.bank.onboarding.accountservice.services.impl;
+
+import com.bank.onboarding.accountservice.persistence.services.AccountNumberLeaseRepoService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
+
+import static com.bank.onboarding.accountservice.services.utils.IbanUtils.buildPortugueseIban;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class IbanAllocatorImplUnitTests {
+
+    private static final String BANK_CODE = "0036";
+    private static final String BRANCH_CODE = "0001";
+    private static final long BLOCK_SIZE = 10;
+
+    private final AtomicLong lastLeasedValue = new AtomicLong();
+    private final List<String> leasingThreads = new CopyOnWriteArrayList<>();
+    private AccountNumberLeaseRepoService accountNumberLeaseRepoService;
+    private IbanAllocatorImpl ibanAllocator;
+
+    @BeforeEach
+    public void setUp() {
+        accountNumberLeaseRepoService = mock(AccountNumberLeaseRepoService.class);
+        when(accountNumberLeaseRepoService.leaseBlock(anyString(), anyLong(), anyString())).thenAnswer(invocation -> {
+            leasingThreads.add(Thread.currentThread().getName());
+            return lastLeasedValue.addAndGet(invocation.getArgument(1));
+        });
+        ibanAllocator = new IbanAllocatorImpl(accountNumberLeaseRepoService, BANK_CODE, BRANCH_CODE, BLOCK_SIZE);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        ibanAllocator.shutdown();
+    }
+
+    @Test
+    void nextBlockIsPrefetchedAndUsedOnceTheCurrentOneRunsOutTest() {
+        List<String> ibans = IntStream.range(0, (int) BLOCK_SIZE + 5).mapToObj(i -> ibanAllocator.nextIban()).toList();
+
+        assertEquals(expectedIbans(1, BLOCK_SIZE + 5), ibans);
+        verify(accountNumberLeaseRepoService, times(2)).leaseBlock(eq("account-number"), eq(BLOCK_SIZE), anyString());
+        assertEquals("iban-block-prefetch", leasingThreads.get(1));
+    }
+
+    @Test
+    void failedPrefetchIsLeasedAgainByTheCallerTest() {
+        doReturn(BLOCK_SIZE)
+                .doThrow(new IllegalStateException("Mongo unavailable"))
+                .doReturn(3 * BLOCK_SIZE)
+                .when(accountNumberLeaseRepoService).leaseBlock(anyString(), anyLong(), anyString());
+
+        List<String> ibans = IntStream.range(0, (int) BLOCK_SIZE + 1).mapToObj(i -> ibanAllocator.nextIban()).toList();
+
+        assertEquals(buildPortugueseIban(BANK_CODE, BRANCH_CODE, 2 * BLOCK_SIZE + 1), ibans.get((int) BLOCK_SIZE));
+        verify(accountNumberLeaseRepoService, times(3)).leaseBlock(anyString(), anyLong(), anyString());
+    }
+
+    @Test
+    void concurrentCallersNeverGetTheSameIbanTest() {
+        int callers = 8;
+        int ibansPerCaller = 500;
+        Set<String> ibans = ConcurrentHashMap.newKeySet();
+        ExecutorService executor = Executors.newFixedThreadPool(callers);
+        try {
+            CompletableFuture.allOf(IntStream.range(0, callers)
+                    .mapToObj(caller -> CompletableFuture.runAsync(() -> {
+                        for (int i = 0; i < ibansPerCaller; i++)
+                            assertTrue(ibans.add(ibanAllocator.nextIban()));
+                    }, executor))
+                    .toArray(CompletableFuture[]::new)).join();
+        } finally {
+            executor.shutdown();
+        }
+
+        assertEquals(callers * ibansPerCaller, ibans.size());
+    }
+
+    private static List<String> expectedIbans(long first, long last) {
+        return LongStream.rangeClosed(first, last)
+                .mapToObj(sequence -> buildPortugueseIban(BANK_CODE, BRANCH_CODE, sequence)).toList();
+    }
+}
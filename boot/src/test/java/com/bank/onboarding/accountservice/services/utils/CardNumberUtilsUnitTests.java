@@ -0,0 +1,39 @@
+package com.bank.onboarding.accountservice.services.utils;
+
+import org.junit.jupiter.api.Test;
+
+import static com.bank.onboarding.accountservice.services.utils.CardNumberUtils.buildCardNumber;
+import static com.bank.onboarding.accountservice.services.utils.CardNumberUtils.isValidCardNumber;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CardNumberUtilsUnitTests {
+
+    @Test
+    void buildCardNumberTest() {
+        assertEquals("4000-0000-0000-0002", buildCardNumber("400000", 0L));
+        assertEquals("4111-1111-1111-1111", buildCardNumber("411111", 111_111_111L));
+    }
+
+    @Test
+    void generatedCardNumbersAreValidTest() {
+        for (long accountIdentifier = 0; accountIdentifier <= 10_000; accountIdentifier++)
+            assertTrue(isValidCardNumber(buildCardNumber("400000", accountIdentifier)));
+    }
+
+    @Test
+    void isValidCardNumberTest() {
+        assertTrue(isValidCardNumber("4111111111111111"));
+        assertFalse(isValidCardNumber("4111-1111-1111-1112"));
+        assertFalse(isValidCardNumber("4111-1111-1111"));
+        assertFalse(isValidCardNumber(null));
+    }
+
+    @Test
+    void buildCardNumberOutOfRangeTest() {
+        assertThrows(IllegalArgumentException.class, () -> buildCardNumber("400000", 1_000_000_000L));
+        assertThrows(IllegalArgumentException.class, () -> buildCardNumber("4000", 1L));
+    }
+}
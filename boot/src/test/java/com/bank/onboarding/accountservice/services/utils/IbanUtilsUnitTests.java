@@ -0,0 +1,44 @@
+package com.bank.onboarding.accountservice.services.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import static com.bank.onboarding.accountservice.services.utils.IbanUtils.buildPortugueseIban;
+import static com.bank.onboarding.accountservice.services.utils.IbanUtils.isValidIban;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class IbanUtilsUnitTests {
+
+    @Test
+    void buildPortugueseIbanTest() {
+        assertEquals("PT50000201231234567890154", buildPortugueseIban("0002", "0123", 12345678901L));
+        assertEquals(25, buildPortugueseIban("0036", "0001", 1L).length());
+    }
+
+    @Test
+    void generatedIbansAreValidAndUniqueTest() {
+        Set<String> ibans = new HashSet<>();
+        for (long sequence = 1; sequence <= 10_000; sequence++) {
+            String iban = buildPortugueseIban("0036", "0001", sequence);
+            assertTrue(isValidIban(iban), iban);
+            assertTrue(ibans.add(iban.substring(iban.length() - 19)), iban);
+        }
+    }
+
+    @Test
+    void isValidIbanTest() {
+        assertTrue(isValidIban("PT50 0002 0123 1234 5678 9015 4"));
+        assertFalse(isValidIban("PT51000201231234567890154"));
+        assertFalse(isValidIban(null));
+    }
+
+    @Test
+    void buildPortugueseIbanOutOfRangeTest() {
+        assertThrows(IllegalArgumentException.class, () -> buildPortugueseIban("0036", "0001", 100_000_000_000L));
+    }
+}
@@ -0,0 +1,27 @@
+package com.bank.onboarding.accountservice.reactive.configs;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.mongodb.ReactiveMongoDatabaseFactory;
+import org.springframework.data.mongodb.ReactiveMongoTransactionManager;
+import org.springframework.transaction.reactive.TransactionalOperator;
+
+/**
+ * Reactive counterpart of {@code MongoTransactionConfig}, so the reactive stack writes account changes and their
+ * outbox events atomically too.
+ */
+@Configuration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveMongoTransactionConfig {
+
+    @Bean
+    public ReactiveMongoTransactionManager reactiveMongoTransactionManager(ReactiveMongoDatabaseFactory reactiveMongoDatabaseFactory) {
+        return new ReactiveMongoTransactionManager(reactiveMongoDatabaseFactory);
+    }
+
+    @Bean
+    public TransactionalOperator transactionalOperator(ReactiveMongoTransactionManager reactiveMongoTransactionManager) {
+        return TransactionalOperator.create(reactiveMongoTransactionManager);
+    }
+}
@@ -0,0 +1,34 @@
+package com.bank.onboarding.accountservice.reactive.configs;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.web.embedded.netty.NettyReactiveWebServerFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.mongodb.repository.config.EnableReactiveMongoRepositories;
+
+/**
+ * Enabled by {@code spring.main.web-application-type=reactive}. Tomcat stays on the classpath for the servlet
+ * stack, so Netty is declared explicitly instead of letting the reactive server auto-configuration pick Tomcat.
+ * The commons-lib JWT check only hooks into the servlet stack, so nothing would validate the bearer token of a
+ * reactive request: the reactive stack refuses to start unless {@code bank.onboarding.reactive.allow-unauthenticated}
+ * is set, which only the tests do.
+ */
+@Slf4j
+@Configuration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@EnableReactiveMongoRepositories(basePackages = "com.bank.onboarding.accountservice.reactive.persistence.repositories")
+public class ReactiveStackConfig {
+
+    public ReactiveStackConfig(@Value("${bank.onboarding.reactive.allow-unauthenticated:false}") boolean allowUnauthenticated) {
+        if (!allowUnauthenticated)
+            throw new IllegalStateException("The reactive stack does not validate JWTs, run the service with WEB_APPLICATION_TYPE=servlet");
+        log.warn("Reactive stack started without JWT validation");
+    }
+
+    @Bean
+    public NettyReactiveWebServerFactory nettyReactiveWebServerFactory() {
+        return new NettyReactiveWebServerFactory();
+    }
+}
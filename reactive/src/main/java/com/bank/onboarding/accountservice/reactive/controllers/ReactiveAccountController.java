@@ -0,0 +1,122 @@
+package com.bank.onboarding.accountservice.reactive.controllers;
+
+import com.bank.onboarding.accountservice.reactive.services.ReactiveAccountService;
+import com.bank.onboarding.accountservice.services.CardNotFoundException;
+import com.bank.onboarding.accountservice.services.dtos.BulkCreateAccountResultDTO;
+import com.bank.onboarding.commonslib.persistence.exceptions.OnboardingException;
+import com.bank.onboarding.commonslib.utils.OnboardingUtils;
+import com.bank.onboarding.commonslib.web.dtos.account.AccountCardDTO;
+import com.bank.onboarding.commonslib.web.dtos.account.AccountDeleteCardDTO;
+import com.bank.onboarding.commonslib.web.dtos.account.AccountNetbancoDTO;
+import com.bank.onboarding.commonslib.web.dtos.account.AccountTypeRequestDTO;
+import com.bank.onboarding.commonslib.web.dtos.account.CreateAccountRequestDTO;
+import com.bank.onboarding.commonslib.web.dtos.account.MoveNextPhaseDTO;
+import feign.Request;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * WebFlux counterpart of {@code AccountController}, with the same routes, statuses and error bodies. Only one of
+ * the two is registered, depending on {@code spring.main.web-application-type}.
+ */
+@RestController
+@RequestMapping("accounts")
+@RequiredArgsConstructor
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveAccountController {
+
+    private final ReactiveAccountService reactiveAccountService;
+    private final OnboardingUtils onboardingUtils;
+
+    private static final String ACCOUNT_NUMBER_PATH_PARAM = "/{accountNumber}";
+
+    @PostMapping(produces = MediaType.APPLICATION_JSON_VALUE, consumes = MediaType.APPLICATION_JSON_VALUE)
+    public Mono<ResponseEntity<?>> createAccount(@RequestBody @Valid CreateAccountRequestDTO createAccountRequestDTO,
+                                                 @RequestHeader(HttpHeaders.AUTHORIZATION) String authorization,
+                                                 @RequestHeader("X-Onboarding-Client-Id") String clientId) {
+        return reactiveAccountService.createAccount(createAccountRequestDTO)
+                .<ResponseEntity<?>>map(accountDTO -> new ResponseEntity<>(accountDTO, HttpStatus.CREATED))
+                .onErrorResume(OnboardingException.class, e -> errorResponse(Request.HttpMethod.POST, e));
+    }
+
+    @PostMapping(value = "/bulk", produces = MediaType.APPLICATION_NDJSON_VALUE, consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<BulkCreateAccountResultDTO> createAccounts(@RequestBody Flux<CreateAccountRequestDTO> createAccountRequestDTOs,
+                                                           @RequestHeader(HttpHeaders.AUTHORIZATION) String authorization,
+                                                           @RequestHeader("X-Onboarding-Client-Id") String clientId) {
+        return reactiveAccountService.createAccounts(createAccountRequestDTOs);
+    }
+
+    @PutMapping(value = ACCOUNT_NUMBER_PATH_PARAM, produces = MediaType.APPLICATION_JSON_VALUE, consumes = MediaType.APPLICATION_JSON_VALUE)
+    public Mono<ResponseEntity<?>> patchAccountType(@PathVariable("accountNumber") String accountNumber,
+                                                    @RequestBody @Valid AccountTypeRequestDTO accountTypeRequestDTO,
+                                                    @RequestHeader(HttpHeaders.AUTHORIZATION) String authorization,
+                                                    @RequestHeader("X-Onboarding-Client-Id") String clientId){
+        return reactiveAccountService.patchAccountType(accountNumber, accountTypeRequestDTO)
+                .switchIfEmpty(Mono.error(() -> new ResponseStatusException(HttpStatus.BAD_REQUEST, "Dados inseridos inválidos")))
+                .<ResponseEntity<?>>map(accountDTO -> new ResponseEntity<>(accountDTO, HttpStatus.OK))
+                .onErrorResume(OnboardingException.class, e -> errorResponse(Request.HttpMethod.PATCH, e));
+    }
+
+    @PutMapping(value = ACCOUNT_NUMBER_PATH_PARAM + "/card", produces = MediaType.APPLICATION_JSON_VALUE, consumes = MediaType.APPLICATION_JSON_VALUE)
+    public Mono<ResponseEntity<?>> putAccountCard(@PathVariable("accountNumber") String accountNumber,
+                                                  @RequestBody @Valid AccountCardDTO accountCardDTO,
+                                                  @RequestHeader(HttpHeaders.AUTHORIZATION) String authorization,
+                                                  @RequestHeader("X-Onboarding-Client-Id") String clientId){
+        return reactiveAccountService.putAccountCard(accountNumber, accountCardDTO)
+                .<ResponseEntity<?>>map(cardDTO -> new ResponseEntity<>(cardDTO, HttpStatus.OK))
+                .onErrorResume(e -> errorResponse(Request.HttpMethod.PUT, e));
+    }
+
+    @DeleteMapping(value = ACCOUNT_NUMBER_PATH_PARAM + "/card/{cardNumber}", produces = MediaType.APPLICATION_JSON_VALUE, consumes = MediaType.APPLICATION_JSON_VALUE)
+    public Mono<ResponseEntity<?>> deleteAccountCard(@PathVariable("accountNumber") String accountNumber,
+                                                     @PathVariable("cardNumber") String cardNumber,
+                                                     @RequestBody @Valid AccountDeleteCardDTO accountDeleteCardDTO,
+                                                     @RequestHeader(HttpHeaders.AUTHORIZATION) String authorization,
+                                                     @RequestHeader("X-Onboarding-Client-Id") String clientId){
+        return reactiveAccountService.deleteAccountCard(accountNumber, cardNumber, accountDeleteCardDTO)
+                .<ResponseEntity<?>>map(accountDTO -> new ResponseEntity<>(accountDTO, HttpStatus.OK))
+                .onErrorResume(e -> e instanceof CardNotFoundException
+                        ? Mono.error(new ResponseStatusException(HttpStatus.NOT_FOUND, e.getMessage(), e))
+                        : errorResponse(Request.HttpMethod.DELETE, e));
+    }
+
+    @PutMapping(value = ACCOUNT_NUMBER_PATH_PARAM + "/netbanco", produces = MediaType.APPLICATION_JSON_VALUE, consumes = MediaType.APPLICATION_JSON_VALUE)
+    public Mono<ResponseEntity<?>> putAccountNetbanco(@PathVariable("accountNumber") String accountNumber,
+                                                      @RequestBody @Valid AccountNetbancoDTO accountNetbancoDTO,
+                                                      @RequestHeader(HttpHeaders.AUTHORIZATION) String authorization,
+                                                      @RequestHeader("X-Onboarding-Client-Id") String clientId){
+        return reactiveAccountService.putAccountNetbanco(accountNumber, accountNetbancoDTO)
+                .<ResponseEntity<?>>map(accountDTO -> new ResponseEntity<>(accountDTO, HttpStatus.OK))
+                .onErrorResume(e -> errorResponse(Request.HttpMethod.PUT, e));
+    }
+
+    @PutMapping(value = ACCOUNT_NUMBER_PATH_PARAM + "/moveNextPhase", produces = MediaType.APPLICATION_JSON_VALUE, consumes = MediaType.APPLICATION_JSON_VALUE)
+    public Mono<ResponseEntity<?>> putMoveNextPhase(@PathVariable("accountNumber") String accountNumber,
+                                                    @RequestBody @Valid MoveNextPhaseDTO moveNextPhaseDTO,
+                                                    @RequestHeader(HttpHeaders.AUTHORIZATION) String authorization,
+                                                    @RequestHeader("X-Onboarding-Client-Id") String clientId){
+        return reactiveAccountService.moveToNextPhase(accountNumber, moveNextPhaseDTO)
+                .<ResponseEntity<?>>map(accountDTO -> new ResponseEntity<>(accountDTO, HttpStatus.OK))
+                .onErrorResume(e -> errorResponse(Request.HttpMethod.PUT, e));
+    }
+
+    private Mono<ResponseEntity<?>> errorResponse(Request.HttpMethod httpMethod, Throwable e) {
+        return Mono.just(onboardingUtils.buildResponseEntity(httpMethod.name(), e.getMessage()));
+    }
+}
@@ -0,0 +1,11 @@
+package com.bank.onboarding.accountservice.reactive.persistence.repositories;
+
+import com.bank.onboarding.commonslib.persistence.models.Account;
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Mono;
+
+@Repository
+public interface ReactiveAccountRepository extends ReactiveMongoRepository<Account, String> {
+    Mono<Account> findByNumber(String number);
+}
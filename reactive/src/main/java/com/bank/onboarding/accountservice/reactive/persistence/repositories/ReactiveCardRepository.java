@@ -0,0 +1,11 @@
+package com.bank.onboarding.accountservice.reactive.persistence.repositories;
+
+import com.bank.onboarding.commonslib.persistence.models.Card;
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+
+@Repository
+public interface ReactiveCardRepository extends ReactiveMongoRepository<Card, String> {
+    Flux<Card> findAllByAccountId(String accountId);
+}
@@ -0,0 +1,184 @@
+package com.bank.onboarding.accountservice.reactive.persistence.services;
+
+import com.bank.onboarding.accountservice.persistence.models.AccountReadiness;
+import com.bank.onboarding.accountservice.persistence.models.OutboxEvent;
+import com.bank.onboarding.accountservice.persistence.models.VersionedAccount;
+import com.bank.onboarding.accountservice.persistence.services.AccountUpdates;
+import com.bank.onboarding.accountservice.persistence.services.BulkRepoService;
+import com.bank.onboarding.accountservice.reactive.persistence.repositories.ReactiveAccountRepository;
+import com.bank.onboarding.accountservice.reactive.persistence.repositories.ReactiveCardRepository;
+import com.bank.onboarding.accountservice.reactive.persistence.repositories.ReactiveCustomerRefRepository;
+import com.bank.onboarding.commonslib.persistence.exceptions.OnboardingException;
+import com.bank.onboarding.commonslib.persistence.models.Account;
+import com.bank.onboarding.commonslib.persistence.models.Card;
+import com.bank.onboarding.commonslib.persistence.models.CustomerRef;
+import lombok.RequiredArgsConstructor;
+import org.bson.Document;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Non-blocking counterpart of the account, card, readiness and outbox writes made by the servlet stack, over the
+ * same collections and with the same queries.
+ */
+@Service
+@RequiredArgsConstructor
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveAccountRepoService {
+
+    private final ReactiveMongoTemplate reactiveMongoTemplate;
+    private final ReactiveAccountRepository reactiveAccountRepository;
+    private final ReactiveCardRepository reactiveCardRepository;
+    private final ReactiveCustomerRefRepository reactiveCustomerRefRepository;
+
+    public Mono<Account> getAccountByNumber(String accountNumber) {
+        return reactiveAccountRepository.findByNumber(accountNumber)
+                .switchIfEmpty(accountNotFound());
+    }
+
+    public Mono<VersionedAccount> findVersionedAccount(String accountNumber) {
+        return reactiveMongoTemplate.findOne(AccountUpdates.byNumber(accountNumber), Document.class,
+                        reactiveMongoTemplate.getCollectionName(Account.class))
+                .map(document -> new VersionedAccount(reactiveMongoTemplate.getConverter().read(Account.class, document),
+                        AccountUpdates.version(document)))
+                .switchIfEmpty(accountNotFound());
+    }
+
+    public Mono<Account> setType(String accountNumber, String accountType) {
+        return updateAccount(AccountUpdates.byNumber(accountNumber), AccountUpdates.setType(accountType))
+                .switchIfEmpty(accountNotFound());
+    }
+
+    public Mono<Account> setOnlineBankingIndicator(String accountNumber, boolean onlineBankingIndicator) {
+        return updateAccount(AccountUpdates.byNumber(accountNumber), AccountUpdates.setOnlineBankingIndicator(onlineBankingIndicator))
+                .switchIfEmpty(accountNotFound());
+    }
+
+    /**
+     * Completes empty when the account is no longer at {@code version}.
+     */
+    public Mono<Account> setPhase(String accountNumber, long version, int phase, boolean activate) {
+        return updateAccount(AccountUpdates.atVersion(accountNumber, version), AccountUpdates.setPhase(phase, activate));
+    }
+
+    public Mono<Account> touch(String accountNumber) {
+        return updateAccount(AccountUpdates.byNumber(accountNumber), AccountUpdates.touch())
+                .switchIfEmpty(accountNotFound());
+    }
+
+    public Mono<Account> saveAccountDB(Account account) {
+        return reactiveAccountRepository.save(account);
+    }
+
+    public Flux<Account> insertAccounts(List<Account> accounts) {
+        return accounts.isEmpty() ? Flux.empty() : reactiveMongoTemplate.insertAll(accounts);
+    }
+
+    /**
+     * Same ordered remove-then-insert bulk write as {@code BulkRepoService.replaceCards}.
+     */
+    public Mono<Void> replaceCards(String accountId, Collection<String> customerNumbers, List<Card> cards) {
+        return reactiveMongoTemplate.bulkOps(BulkOperations.BulkMode.ORDERED, Card.class)
+                .remove(Query.query(Criteria.where("accountId").is(accountId).and("customerNumber").in(customerNumbers)))
+                .insert(cards)
+                .execute()
+                .onErrorMap(BulkOperationException.class, BulkRepoService::translateDuplicateKey)
+                .then();
+    }
+
+    /**
+     * Same account-scoped removal as {@code BulkRepoService.findAndRemoveCard}.
+     */
+    public Mono<Card> findAndRemoveCard(String accountId, String cardNumber) {
+        return reactiveMongoTemplate.findAndRemove(Query.query(Criteria.where("number").is(cardNumber).and("accountId").is(accountId)), Card.class);
+    }
+
+    public Mono<AccountReadiness> findReadiness(Account account) {
+        return reactiveMongoTemplate.findById(account.getNumber(), AccountReadiness.class)
+                .switchIfEmpty(Mono.defer(() -> rebuildReadiness(account)));
+    }
+
+    public Mono<AccountReadiness> initReadiness(Account account) {
+        return reactiveMongoTemplate.save(AccountReadiness.of(account, new HashSet<>(), new HashSet<>()));
+    }
+
+    public Mono<Void> initReadinesses(Collection<Account> accounts) {
+        if (accounts.isEmpty()) return Mono.empty();
+
+        return reactiveMongoTemplate.insertAll(accounts.stream()
+                .map(account -> AccountReadiness.of(account, new HashSet<>(), new HashSet<>()))
+                .toList()).then();
+    }
+
+    public Mono<Void> setTypeSet(String accountNumber, boolean typeSet) {
+        return updateReadiness(accountNumber, Update.update("typeSet", typeSet));
+    }
+
+    public Mono<Void> setNetbancoChosen(String accountNumber, boolean netbancoChosen) {
+        return updateReadiness(accountNumber, Update.update("netbancoChosen", netbancoChosen));
+    }
+
+    public Mono<Void> addCardHolders(String accountNumber, Collection<String> customerNumbers) {
+        return updateReadiness(accountNumber, new Update().addToSet("cardHolders").each(customerNumbers.toArray()));
+    }
+
+    public Mono<Void> removeCardHolder(String accountNumber, String customerNumber) {
+        return updateReadiness(accountNumber, new Update().pull("cardHolders", customerNumber));
+    }
+
+    /**
+     * Accounts created before the readiness projection existed are given one built from their cards and customers,
+     * as the servlet stack does.
+     */
+    private Mono<AccountReadiness> rebuildReadiness(Account account) {
+        Mono<Set<String>> cardHolders = reactiveCardRepository.findAllByAccountId(account.getId())
+                .map(Card::getCustomerNumber)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toCollection(HashSet::new));
+        Mono<Set<String>> invalidCustomers = reactiveCustomerRefRepository.findByAccountsAccountNumber(account.getNumber())
+                .filter(customer -> Boolean.FALSE.equals(customer.isValid()))
+                .map(CustomerRef::getCustomerNumber)
+                .collect(Collectors.toCollection(HashSet::new));
+
+        return Mono.zip(cardHolders, invalidCustomers)
+                .flatMap(readiness -> reactiveMongoTemplate.save(AccountReadiness.of(account, readiness.getT1(), readiness.getT2())));
+    }
+
+    /**
+     * Same append as {@code OutboxRepoService.appendAll}.
+     */
+    public Mono<Void> appendOutboxEvents(Collection<OutboxEvent> outboxEvents) {
+        if (outboxEvents.isEmpty()) return Mono.empty();
+
+        return reactiveMongoTemplate.insert(outboxEvents, OutboxEvent.class).then();
+    }
+
+    private Mono<Account> updateAccount(Query query, Update update) {
+        return reactiveMongoTemplate.findAndModify(query, update, AccountUpdates.RETURN_NEW, Account.class);
+    }
+
+    private static <T> Mono<T> accountNotFound() {
+        return Mono.error(() -> new OnboardingException("A conta introduzida não existe"));
+    }
+
+    private Mono<Void> updateReadiness(String accountNumber, Update update) {
+        return reactiveMongoTemplate.updateFirst(Query.query(Criteria.where("accountNumber").is(accountNumber)),
+                update.set("lastUpdateTime", LocalDateTime.now()), AccountReadiness.class).then();
+    }
+}
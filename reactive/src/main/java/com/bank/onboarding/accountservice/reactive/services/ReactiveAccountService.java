@@ -0,0 +1,27 @@
+package com.bank.onboarding.accountservice.reactive.services;
+
+import com.bank.onboarding.accountservice.services.dtos.BulkCreateAccountResultDTO;
+import com.bank.onboarding.commonslib.web.dtos.account.AccountCardDTO;
+import com.bank.onboarding.commonslib.web.dtos.account.AccountDTO;
+import com.bank.onboarding.commonslib.web.dtos.account.AccountDeleteCardDTO;
+import com.bank.onboarding.commonslib.web.dtos.account.AccountNetbancoDTO;
+import com.bank.onboarding.commonslib.web.dtos.account.AccountTypeRequestDTO;
+import com.bank.onboarding.commonslib.web.dtos.account.CardDTO;
+import com.bank.onboarding.commonslib.web.dtos.account.CreateAccountRequestDTO;
+import com.bank.onboarding.commonslib.web.dtos.account.MoveNextPhaseDTO;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Non-blocking counterpart of {@code AccountService} for the HTTP operations. Event consumption stays on
+ * {@code AccountService} in both stacks.
+ */
+public interface ReactiveAccountService {
+    Mono<AccountDTO> createAccount(CreateAccountRequestDTO createAccountRequestDTO);
+    Flux<BulkCreateAccountResultDTO> createAccounts(Flux<CreateAccountRequestDTO> createAccountRequestDTOs);
+    Mono<AccountDTO> patchAccountType(String accountNumber, AccountTypeRequestDTO accountTypeRequestDTO);
+    Mono<CardDTO> putAccountCard(String accountNumber, AccountCardDTO accountCardDTO);
+    Mono<AccountDTO> deleteAccountCard(String accountNumber, String cardNumber, AccountDeleteCardDTO accountDeleteCardDTO);
+    Mono<AccountDTO> putAccountNetbanco(String accountNumber, AccountNetbancoDTO accountNetbancoDTO);
+    Mono<AccountDTO> moveToNextPhase(String accountNumber, MoveNextPhaseDTO moveNextPhaseDTO);
+}
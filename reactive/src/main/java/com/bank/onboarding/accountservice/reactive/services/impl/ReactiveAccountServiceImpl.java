@@ -0,0 +1,267 @@
+package com.bank.onboarding.accountservice.reactive.services.impl;
+
+import com.bank.onboarding.accountservice.persistence.models.AccountReadiness;
+import com.bank.onboarding.accountservice.persistence.services.CachedAccountRepoService;
+import com.bank.onboarding.accountservice.reactive.persistence.services.ReactiveAccountRepoService;
+import com.bank.onboarding.accountservice.reactive.services.ReactiveAccountService;
+import com.bank.onboarding.accountservice.services.AccountFactory;
+import com.bank.onboarding.accountservice.services.AccountMetrics;
+import com.bank.onboarding.accountservice.services.AccountRules;
+import com.bank.onboarding.accountservice.services.CardNotFoundException;
+import com.bank.onboarding.accountservice.services.CustomerEventOutbox;
+import com.bank.onboarding.accountservice.services.dtos.BulkCreateAccountResultDTO;
+import com.bank.onboarding.commonslib.persistence.enums.OperationType;
+import com.bank.onboarding.commonslib.persistence.exceptions.OnboardingException;
+import com.bank.onboarding.commonslib.persistence.models.Account;
+import com.bank.onboarding.commonslib.persistence.models.Card;
+import com.bank.onboarding.commonslib.utils.OnboardingUtils;
+import com.bank.onboarding.commonslib.utils.kafka.models.CardAndNetbancoEvent;
+import com.bank.onboarding.commonslib.utils.kafka.models.CreateAccountEvent;
+import com.bank.onboarding.commonslib.utils.mappers.AccountMapper;
+import com.bank.onboarding.commonslib.web.dtos.account.AccountCardDTO;
+import com.bank.onboarding.commonslib.web.dtos.account.AccountDTO;
+import com.bank.onboarding.commonslib.web.dtos.account.AccountDeleteCardDTO;
+import com.bank.onboarding.commonslib.web.dtos.account.AccountNetbancoDTO;
+import com.bank.onboarding.commonslib.web.dtos.account.AccountTypeRequestDTO;
+import com.bank.onboarding.commonslib.web.dtos.account.CardDTO;
+import com.bank.onboarding.commonslib.web.dtos.account.CreateAccountRequestDTO;
+import com.bank.onboarding.commonslib.web.dtos.account.MoveNextPhaseDTO;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+import reactor.util.retry.Retry;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static com.bank.onboarding.commonslib.persistence.enums.OperationType.CARD_ACCOUNT;
+import static com.bank.onboarding.commonslib.persistence.enums.OperationType.CREATE_ACCOUNT;
+import static com.bank.onboarding.commonslib.persistence.enums.OperationType.NETBANCO_ACCOUNT;
+
+/**
+ * Applies the same rules and writes as {@code AccountServiceImpl} without blocking the event loop. Building a new
+ * account may wait on an IBAN block lease, so it runs on the bounded elastic scheduler. As in the servlet stack,
+ * the writes of a change and its customer-service events are recorded in one {@link TransactionalOperator}
+ * transaction, and the change evicts the account from the {@link CachedAccountRepoService} used by the event
+ * consumers once committed.
+ */
+@Service
+@RequiredArgsConstructor
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveAccountServiceImpl implements ReactiveAccountService {
+
+    private final ReactiveAccountRepoService reactiveAccountRepoService;
+    private final CachedAccountRepoService cachedAccountRepoService;
+    private final CustomerEventOutbox customerEventOutbox;
+    private final TransactionalOperator transactionalOperator;
+    private final AccountFactory accountFactory;
+    private final AccountRules accountRules;
+    private final OnboardingUtils onboardingUtils;
+    private final AccountMetrics accountMetrics;
+
+    private final Validator validator;
+
+    @Value("${bank.onboarding.accounts.bulk.batch-size:500}")
+    private int bulkBatchSize;
+
+    @Override
+    public Mono<AccountDTO> createAccount(CreateAccountRequestDTO createAccountRequestDTO) {
+        return Mono.fromCallable(() -> accountFactory.newAccount(createAccountRequestDTO))
+                .subscribeOn(Schedulers.boundedElastic())
+                .flatMap(newAccount -> reactiveAccountRepoService.saveAccountDB(newAccount)
+                        .flatMap(account -> reactiveAccountRepoService.initReadiness(account)
+                                .then(addToOutbox(CREATE_ACCOUNT, List.of(accountFactory.createAccountEvent(createAccountRequestDTO, account))))
+                                .thenReturn(account))
+                        .as(transactionalOperator::transactional))
+                .map(AccountMapper.INSTANCE::toAccountDTO);
+    }
+
+    /**
+     * Same batches as the servlet stack, but while one batch records its CREATE_ACCOUNT events in the outbox the
+     * next one is already being inserted. Results are emitted in request order.
+     */
+    @Override
+    public Flux<BulkCreateAccountResultDTO> createAccounts(Flux<CreateAccountRequestDTO> createAccountRequestDTOs) {
+        return createAccountRequestDTOs
+                .buffer(bulkBatchSize)
+                .index()
+                .flatMapSequential(batch -> createAccountsBatch(batch.getT2(), Math.toIntExact(batch.getT1() * bulkBatchSize)), 2);
+    }
+
+    @Override
+    public Mono<AccountDTO> patchAccountType(String accountNumber, AccountTypeRequestDTO accountTypeRequestDTO) {
+        return Mono.fromRunnable(() -> accountRules.checkAccountTypeRequest(accountTypeRequestDTO))
+                .then(Mono.defer(() -> accountRules.isAccountTypeAllowed(accountTypeRequestDTO)
+                        ? reactiveAccountRepoService.setType(accountNumber, accountTypeRequestDTO.getAccountType())
+                        : Mono.empty()))
+                .flatMap(account -> reactiveAccountRepoService.setTypeSet(accountNumber, true)
+                        .then(evictCachedAccount(accountNumber))
+                        .thenReturn(AccountMapper.INSTANCE.toAccountDTO(account)));
+    }
+
+    @Override
+    public Mono<CardDTO> putAccountCard(String accountNumber, AccountCardDTO accountCardDTO) {
+        return Mono.fromCallable(() -> accountRules.checkCardRequest(accountCardDTO))
+                .flatMap(customerNumbers -> reactiveAccountRepoService.getAccountByNumber(accountNumber)
+                        .flatMap(account -> Mono.defer(() -> {
+                                    List<Card> newCards = accountFactory.newCards(account, accountCardDTO.getCardType(), customerNumbers);
+                                    return reactiveAccountRepoService.replaceCards(account.getId(), customerNumbers, newCards)
+                                            .then(reactiveAccountRepoService.touch(accountNumber))
+                                            .then(reactiveAccountRepoService.addCardHolders(accountNumber, customerNumbers))
+                                            .then(addToOutbox(CARD_ACCOUNT, accountFactory.cardEvents(customerNumbers, true)))
+                                            .thenReturn(newCards)
+                                            .as(transactionalOperator::transactional);
+                                })
+                                .retryWhen(Retry.max(AccountFactory.CARD_NUMBER_ATTEMPTS - 1)
+                                        .filter(DuplicateKeyException.class::isInstance)
+                                        .onRetryExhaustedThrow((retrySpec, retrySignal) -> retrySignal.failure()))
+                                .flatMap(newCards -> evictCachedAccount(accountNumber)
+                                        .thenReturn(AccountMapper.INSTANCE.toCardDTO(newCards.get(newCards.size() - 1))))));
+    }
+
+    @Override
+    public Mono<AccountDTO> deleteAccountCard(String accountNumber, String cardNumber, AccountDeleteCardDTO accountDeleteCardDTO) {
+        Mono<Void> cardRemoval = Mono.fromRunnable(() -> onboardingUtils.isValidPhase(accountDeleteCardDTO.getAccountPhase(), CARD_ACCOUNT));
+        String customerNumber = accountDeleteCardDTO.getCustomerNumber();
+        if (customerNumber != null)
+            cardRemoval = cardRemoval.then(reactiveAccountRepoService.getAccountByNumber(accountNumber)
+                            .flatMap(account -> reactiveAccountRepoService.findAndRemoveCard(account.getId(), cardNumber))
+                            .switchIfEmpty(Mono.error(CardNotFoundException::new))
+                            .flatMap(card -> reactiveAccountRepoService.removeCardHolder(accountNumber, card.getCustomerNumber()))
+                            .then(reactiveAccountRepoService.touch(accountNumber))
+                            .then(addToOutbox(CARD_ACCOUNT, accountFactory.cardEvents(List.of(customerNumber), false)))
+                            .as(transactionalOperator::transactional))
+                    .then(evictCachedAccount(accountNumber));
+
+        return cardRemoval
+                .then(reactiveAccountRepoService.getAccountByNumber(accountNumber))
+                .map(AccountMapper.INSTANCE::toAccountDTO);
+    }
+
+    @Override
+    public Mono<AccountDTO> putAccountNetbanco(String accountNumber, AccountNetbancoDTO accountNetbancoDTO) {
+        return Mono.fromRunnable(() -> onboardingUtils.isValidPhase(accountNetbancoDTO.getAccountPhase(), NETBANCO_ACCOUNT))
+                .then(Mono.defer(() -> {
+                    String customerNumber = accountNetbancoDTO.getCustomerNumber();
+                    if (customerNumber == null) return reactiveAccountRepoService.getAccountByNumber(accountNumber);
+
+                    boolean wantsNetbanco = accountNetbancoDTO.isWantsNetbanco();
+                    return reactiveAccountRepoService.setOnlineBankingIndicator(accountNumber, wantsNetbanco)
+                            .flatMap(savedAccount -> reactiveAccountRepoService.setNetbancoChosen(accountNumber, true)
+                                    .then(addToOutbox(NETBANCO_ACCOUNT,
+                                            List.of(CardAndNetbancoEvent.builder().value(wantsNetbanco).customerNumber(customerNumber).build())))
+                                    .thenReturn(savedAccount))
+                            .as(transactionalOperator::transactional)
+                            .flatMap(savedAccount -> evictCachedAccount(accountNumber).thenReturn(savedAccount));
+                }))
+                .map(AccountMapper.INSTANCE::toAccountDTO);
+    }
+
+    @Override
+    public Mono<AccountDTO> moveToNextPhase(String accountNumber, MoveNextPhaseDTO moveNextPhaseDTO) {
+        int nextPhase = moveNextPhaseDTO.getNextPhase();
+        return Mono.fromRunnable(() -> accountRules.checkNextPhase(nextPhase))
+                .doOnError(OnboardingException.class, e -> accountMetrics.phaseRejected(nextPhase, AccountMetrics.INVALID_PHASE))
+                .then(reactiveAccountRepoService.findVersionedAccount(accountNumber))
+                .flatMap(versionedAccount -> findReadinessIfRequired(versionedAccount.account(), nextPhase)
+                        .flatMap(accountReadiness -> {
+                            try {
+                                accountRules.checkPhaseTransition(versionedAccount.account(), nextPhase, accountReadiness::orElseThrow);
+                            } catch (OnboardingException e) {
+                                accountMetrics.phaseRejected(nextPhase, AccountMetrics.NOT_READY);
+                                return Mono.error(e);
+                            }
+                            return reactiveAccountRepoService.setPhase(accountNumber, versionedAccount.version(),
+                                            nextPhase, accountRules.isFinalPhase(nextPhase))
+                                    .switchIfEmpty(Mono.error(() -> {
+                                        accountMetrics.phaseRejected(nextPhase, AccountMetrics.CONCURRENT_UPDATE);
+                                        return new OnboardingException("A conta foi alterada por outro pedido. Tente novamente");
+                                    }))
+                                    .doOnNext(movedAccount -> accountMetrics.phaseTransition(versionedAccount.account().getPhase(), nextPhase));
+                        }))
+                .flatMap(account -> evictCachedAccount(accountNumber).thenReturn(AccountMapper.INSTANCE.toAccountDTO(account)));
+    }
+
+    private Mono<Optional<AccountReadiness>> findReadinessIfRequired(Account account, int nextPhase) {
+        return accountRules.requiresReadiness(nextPhase)
+                ? reactiveAccountRepoService.findReadiness(account).map(Optional::of)
+                : Mono.just(Optional.empty());
+    }
+
+    private Flux<BulkCreateAccountResultDTO> createAccountsBatch(List<CreateAccountRequestDTO> batch, int firstIndex) {
+        return Mono.fromCallable(() -> validateBatch(batch, firstIndex))
+                .subscribeOn(Schedulers.boundedElastic())
+                .flatMap(validatedBatch -> reactiveAccountRepoService.insertAccounts(validatedBatch.newAccounts())
+                        .collectList()
+                        .flatMap(accounts -> reactiveAccountRepoService.initReadinesses(accounts)
+                                .then(addToOutbox(CREATE_ACCOUNT, validatedBatch.events(accountFactory, accounts)))
+                                .thenReturn(validatedBatch.complete(accounts)))
+                        .as(transactionalOperator::transactional))
+                .flatMapIterable(results -> results);
+    }
+
+    private ValidatedBatch validateBatch(List<CreateAccountRequestDTO> batch, int firstIndex) {
+        ValidatedBatch validatedBatch = new ValidatedBatch(firstIndex, new BulkCreateAccountResultDTO[batch.size()],
+                new ArrayList<>(batch.size()), new ArrayList<>(batch.size()), new ArrayList<>(batch.size()));
+
+        for (int i = 0; i < batch.size(); i++) {
+            CreateAccountRequestDTO createAccountRequestDTO = batch.get(i);
+            try {
+                Set<ConstraintViolation<CreateAccountRequestDTO>> violations = validator.validate(createAccountRequestDTO);
+                if (!violations.isEmpty())
+                    throw new OnboardingException(violations.stream().map(ConstraintViolation::getMessage).collect(Collectors.joining("; ")));
+
+                validatedBatch.newAccounts().add(accountFactory.newAccount(createAccountRequestDTO));
+                validatedBatch.acceptedRequests().add(createAccountRequestDTO);
+                validatedBatch.acceptedPositions().add(i);
+            } catch (OnboardingException e) {
+                validatedBatch.results()[i] = BulkCreateAccountResultDTO.rejected(firstIndex + i, e.getMessage());
+            }
+        }
+        return validatedBatch;
+    }
+
+    /**
+     * Records the events in the outbox, which {@code OutboxRelay} publishes, with the reactive template so the
+     * append joins the transaction of the change it describes.
+     */
+    private Mono<Void> addToOutbox(OperationType operationType, List<?> events) {
+        return Mono.fromCallable(() -> customerEventOutbox.outboxEvents(operationType, events))
+                .flatMap(reactiveAccountRepoService::appendOutboxEvents);
+    }
+
+    private Mono<Void> evictCachedAccount(String accountNumber) {
+        return Mono.fromRunnable(() -> cachedAccountRepoService.evict(accountNumber));
+    }
+
+    private record ValidatedBatch(int firstIndex, BulkCreateAccountResultDTO[] results, List<Account> newAccounts,
+                                  List<CreateAccountRequestDTO> acceptedRequests, List<Integer> acceptedPositions) {
+
+        List<CreateAccountEvent> events(AccountFactory accountFactory, List<Account> accounts) {
+            List<CreateAccountEvent> events = new ArrayList<>(accounts.size());
+            for (int i = 0; i < accounts.size(); i++)
+                events.add(accountFactory.createAccountEvent(acceptedRequests.get(i), accounts.get(i)));
+            return events;
+        }
+
+        List<BulkCreateAccountResultDTO> complete(List<Account> accounts) {
+            for (int i = 0; i < accounts.size(); i++) {
+                int position = acceptedPositions.get(i);
+                results[position] = BulkCreateAccountResultDTO.created(firstIndex + position, AccountMapper.INSTANCE.toAccountDTO(accounts.get(i)));
+            }
+            return Arrays.asList(results);
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package com.bank.onboarding.accountservice.configs;
+
+import com.bank.onboarding.accountservice.services.DeadLetterRouter;
+import com.bank.onboarding.accountservice.services.KafkaConsumer;
+import com.bank.onboarding.accountservice.services.KeyedEventDispatcher;
+import org.apache.kafka.common.errors.SerializationException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.kafka.ConcurrentKafkaListenerContainerFactoryConfigurer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
+import org.springframework.kafka.core.ConsumerFactory;
+import org.springframework.kafka.listener.ContainerProperties;
+import org.springframework.kafka.listener.DefaultErrorHandler;
+import org.springframework.kafka.retrytopic.RetryTopicConfiguration;
+import org.springframework.kafka.retrytopic.RetryTopicConfigurationBuilder;
+import org.springframework.kafka.support.EndpointHandlerMethod;
+import org.springframework.util.backoff.FixedBackOff;
+
+import java.time.Duration;
+import java.util.concurrent.RejectedExecutionException;
+
+@Configuration
+public class KafkaConsumerConfig {
+
+    public static final String BATCH_LISTENER_CONTAINER_FACTORY = "batchKafkaListenerContainerFactory";
+    public static final String PARALLEL_LISTENER_CONTAINER_FACTORY = "parallelKafkaListenerContainerFactory";
+
+    @Bean(BATCH_LISTENER_CONTAINER_FACTORY)
+    public ConcurrentKafkaListenerContainerFactory<Object, Object> batchKafkaListenerContainerFactory(
+            ConcurrentKafkaListenerContainerFactoryConfigurer configurer, ConsumerFactory<Object, Object> consumerFactory) {
+        ConcurrentKafkaListenerContainerFactory<Object, Object> factory = new ConcurrentKafkaListenerContainerFactory<>();
+        configurer.configure(factory, consumerFactory);
+        factory.setBatchListener(true);
+        return factory;
+    }
+
+    /**
+     * Records are acknowledged manually once their lane has processed them. With async acks the container only
+     * commits an offset when every record before it on the partition has been acknowledged.
+     */
+    @Bean(PARALLEL_LISTENER_CONTAINER_FACTORY)
+    public ConcurrentKafkaListenerContainerFactory<Object, Object> parallelKafkaListenerContainerFactory(
+            ConcurrentKafkaListenerContainerFactoryConfigurer configurer, ConsumerFactory<Object, Object> consumerFactory) {
+        ConcurrentKafkaListenerContainerFactory<Object, Object> factory = new ConcurrentKafkaListenerContainerFactory<>();
+        configurer.configure(factory, consumerFactory);
+        factory.getContainerProperties().setAckMode(ContainerProperties.AckMode.MANUAL);
+        factory.getContainerProperties().setAsyncAcks(true);
+        return factory;
+    }
+
+    /**
+     * A record that fails in any listener mode is not retried in place, which would hold back its partition, but
+     * forwarded by the {@link DeadLetterRouter}, and its offset committed once it is sent. A record the
+     * {@link KeyedEventDispatcher} rejected while shutting down is never forwarded: the container seeks back to it
+     * every second until it stops, so it is consumed again after the restart.
+     */
+    @Bean
+    public DefaultErrorHandler errorHandler(DeadLetterRouter deadLetterRouter) {
+        DefaultErrorHandler errorHandler = new DefaultErrorHandler(deadLetterRouter::route, new FixedBackOff(0, 0));
+        errorHandler.setBackOffFunction((record, exception) -> isRejected(exception)
+                ? new FixedBackOff(1000, FixedBackOff.UNLIMITED_ATTEMPTS) : null);
+        return errorHandler;
+    }
+
+    /**
+     * The retry topic is consumed straight away; a record failing there moves on to {@code attempts - 1} delay
+     * topics ({@code -retry-delay-0}, {@code -retry-delay-1}, ...), each consumed once its exponentially growing
+     * delay is over, and then to the dead-letter topic. Unreadable records skip the delay topics.
+     */
+    @Bean
+    public RetryTopicConfiguration accountEventRetryTopics(DeadLetterRouter deadLetterRouter,
+            @Value("${spring.kafka.consumer.retry.topic-name}") String retryTopicName,
+            @Value("${spring.kafka.consumer.retry.attempts:4}") int attempts,
+            @Value("${spring.kafka.consumer.retry.delay:PT1S}") Duration delay,
+            @Value("${spring.kafka.consumer.retry.multiplier:4}") double multiplier,
+            @Value("${spring.kafka.consumer.retry.max-delay:PT1M}") Duration maxDelay,
+            @Value("${spring.kafka.consumer.retry.auto-create-topics:true}") boolean autoCreateTopics,
+            @Value("${spring.kafka.consumer.retry.partitions:3}") int partitions,
+            @Value("${spring.kafka.consumer.retry.replication-factor:1}") short replicationFactor) {
+        return RetryTopicConfigurationBuilder.newInstance()
+                .includeTopic(retryTopicName)
+                .maxAttempts(attempts)
+                .exponentialBackoff(delay.toMillis(), multiplier, maxDelay.toMillis())
+                .retryTopicSuffix("-delay")
+                .suffixTopicsWithIndexValues()
+                .dltSuffix(DeadLetterRouter.DEAD_LETTER_TOPIC_SUFFIX)
+                .notRetryOn(SerializationException.class)
+                .traversingCauses()
+                .autoCreateTopics(autoCreateTopics, partitions, replicationFactor)
+                .dltHandlerMethod(new EndpointHandlerMethod(KafkaConsumer.class, "consumeDeadLetter"))
+                .create(deadLetterRouter.getKafkaTemplate());
+    }
+
+    private static boolean isRejected(Throwable exception) {
+        for (Throwable cause = exception; cause != null; cause = cause.getCause()) {
+            if (cause instanceof RejectedExecutionException) return true;
+        }
+        return false;
+    }
+}
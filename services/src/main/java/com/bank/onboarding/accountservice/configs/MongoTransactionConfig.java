@@ -0,0 +1,19 @@
+package com.bank.onboarding.accountservice.configs;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.mongodb.MongoDatabaseFactory;
+import org.springframework.data.mongodb.MongoTransactionManager;
+
+/**
+ * Lets account changes and their outbox events be written atomically. Boot does not register a Mongo transaction
+ * manager on its own; with this one in place it also provides the {@code TransactionTemplate} the services use.
+ */
+@Configuration
+public class MongoTransactionConfig {
+
+    @Bean
+    public MongoTransactionManager mongoTransactionManager(MongoDatabaseFactory mongoDatabaseFactory) {
+        return new MongoTransactionManager(mongoDatabaseFactory);
+    }
+}
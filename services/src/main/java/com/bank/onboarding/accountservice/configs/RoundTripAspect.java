@@ -0,0 +1,57 @@
+package com.bank.onboarding.accountservice.configs;
+
+import com.bank.onboarding.accountservice.services.RoundTripBudget;
+import com.bank.onboarding.accountservice.services.RoundTripTracker;
+import lombok.RequiredArgsConstructor;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.annotation.Before;
+import org.aspectj.lang.annotation.Pointcut;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * Feeds {@link RoundTripTracker} from the calls it counts: the public methods of the commons-lib and account-service
+ * repository services, except the account cache, which only counts when it reaches {@code AccountRepoService}, and
+ * every {@code KafkaOperations.send}. Disabled with {@code bank.onboarding.round-trips.enabled=false}.
+ */
+@Aspect
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "bank.onboarding.round-trips.enabled", havingValue = "true", matchIfMissing = true)
+public class RoundTripAspect {
+
+    private final RoundTripTracker roundTripTracker;
+
+    @Pointcut("execution(public * *(..)) && (within(com.bank.onboarding.commonslib.persistence.services..*) "
+            + "|| within(com.bank.onboarding.accountservice.persistence.services..*)) "
+            + "&& !within(com.bank.onboarding.accountservice.persistence.services.CachedAccountRepoService)")
+    public void repositoryCall() {
+    }
+
+    @Around("@annotation(roundTripBudget)")
+    public Object trackBudget(ProceedingJoinPoint joinPoint, RoundTripBudget roundTripBudget) throws Throwable {
+        if (!roundTripTracker.open()) return joinPoint.proceed();
+        try {
+            return joinPoint.proceed();
+        } finally {
+            roundTripTracker.close(joinPoint.getSignature().getName(), roundTripBudget.value());
+        }
+    }
+
+    @Around("repositoryCall()")
+    public Object countRepositoryCall(ProceedingJoinPoint joinPoint) throws Throwable {
+        boolean counted = roundTripTracker.enterRepository();
+        try {
+            return joinPoint.proceed();
+        } finally {
+            if (counted) roundTripTracker.exitRepository();
+        }
+    }
+
+    @Before("execution(* org.springframework.kafka.core.KafkaOperations.send(..))")
+    public void countSend() {
+        roundTripTracker.recordSend();
+    }
+}
@@ -0,0 +1,38 @@
+package com.bank.onboarding.accountservice.persistence.models;
+
+import com.bank.onboarding.commonslib.persistence.exceptions.OnboardingException;
+import com.bank.onboarding.commonslib.persistence.models.Account;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Position of an account in a listing, which is ordered by {@code creationTime} and then {@code _id}. Handed to
+ * clients as an opaque URL-safe token.
+ */
+public record AccountListingCursor(LocalDateTime creationTime, String id) {
+
+    private static final char SEPARATOR = '|';
+
+    public static AccountListingCursor of(Account account) {
+        return new AccountListingCursor(account.getCreationTime(), account.getId());
+    }
+
+    public static AccountListingCursor parse(String token) {
+        try {
+            String value = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = value.indexOf(SEPARATOR);
+            if (separator < 0) throw new IllegalArgumentException(token);
+            return new AccountListingCursor(LocalDateTime.parse(value.substring(0, separator)), value.substring(separator + 1));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new OnboardingException("O cursor de paginação introduzido é inválido");
+        }
+    }
+
+    public String token() {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((creationTime.toString() + SEPARATOR + id).getBytes(StandardCharsets.UTF_8));
+    }
+}
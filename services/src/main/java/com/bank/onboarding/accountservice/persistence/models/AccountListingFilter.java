@@ -0,0 +1,10 @@
+package com.bank.onboarding.accountservice.persistence.models;
+
+import java.time.LocalDateTime;
+
+/**
+ * Optional criteria of an account listing. {@code createdFrom} is inclusive and {@code createdTo} exclusive.
+ */
+public record AccountListingFilter(String accountManager, Integer phase, Boolean active,
+                                   LocalDateTime createdFrom, LocalDateTime createdTo) {
+}
@@ -0,0 +1,24 @@
+package com.bank.onboarding.accountservice.persistence.models;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Document("account_number_leases")
+public class AccountNumberLease {
+
+    @Id
+    private String id;
+    private long lastLeasedValue;
+    private String lastLeasedBy;
+    private LocalDateTime lastLeaseTime;
+}
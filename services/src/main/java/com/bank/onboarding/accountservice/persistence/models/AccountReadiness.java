@@ -0,0 +1,68 @@
+package com.bank.onboarding.accountservice.persistence.models;
+
+import com.bank.onboarding.commonslib.persistence.models.Account;
+import io.micrometer.common.util.StringUtils;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Onboarding readiness of an account, kept up to date by the operations that change it so phase transitions can
+ * be validated with a single point read. Card holders and invalid customers are kept as sets of customer numbers,
+ * which keeps the updates idempotent when the same event or request is applied twice.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Document("account_readiness")
+public class AccountReadiness {
+
+    @Id
+    private String accountNumber;
+    private String accountId;
+    private boolean typeSet;
+    private boolean netbancoChosen;
+    @Builder.Default
+    private Set<String> cardHolders = new HashSet<>();
+    @Builder.Default
+    private Set<String> invalidCustomers = new HashSet<>();
+    private Boolean docsValid;
+    private LocalDateTime lastUpdateTime;
+
+    public static AccountReadiness of(Account account, Set<String> cardHolders, Set<String> invalidCustomers) {
+        return AccountReadiness.builder()
+                .accountNumber(account.getNumber())
+                .accountId(account.getId())
+                .typeSet(StringUtils.isNotBlank(account.getType()))
+                .netbancoChosen(account.getOnlineBankingIndicator() != null)
+                .cardHolders(cardHolders)
+                .invalidCustomers(invalidCustomers)
+                .docsValid(account.getHasValidDocs())
+                .lastUpdateTime(LocalDateTime.now())
+                .build();
+    }
+
+    public int getCardCount() {
+        return cardHolders.size();
+    }
+
+    public int getInvalidCustomerCount() {
+        return invalidCustomers.size();
+    }
+
+    public boolean isReadyForPhase3() {
+        return typeSet && netbancoChosen && getCardCount() > 0 && getInvalidCustomerCount() == 0;
+    }
+
+    public boolean isReadyForPhase4() {
+        return isReadyForPhase3() && !Boolean.FALSE.equals(docsValid);
+    }
+}
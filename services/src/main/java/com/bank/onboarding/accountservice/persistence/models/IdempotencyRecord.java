@@ -0,0 +1,30 @@
+package com.bank.onboarding.accountservice.persistence.models;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDateTime;
+
+/**
+ * The response given to a request sent with an Idempotency-Key. Until the request completes the record only claims
+ * the key; {@code expiresAt} is then short, so a claim left behind by a crashed replica can be taken over.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Document("idempotency_keys")
+public class IdempotencyRecord {
+
+    @Id
+    private String id;
+    private String requestHash;
+    private boolean completed;
+    private Integer status;
+    private String body;
+    private LocalDateTime expiresAt;
+}
@@ -0,0 +1,34 @@
+package com.bank.onboarding.accountservice.persistence.models;
+
+import com.bank.onboarding.commonslib.persistence.enums.OperationType;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDateTime;
+
+/**
+ * Event for customer-service-topic written in the same transaction as the change it describes and removed by the
+ * outbox relay once the broker has acknowledged it. The payload is the JSON the event is published with.
+ * {@code attempts} counts the sends the broker rejected; an event rejected too often is parked in
+ * {@value #PARKED_COLLECTION} so it stops holding back the events behind it.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Document("outbox_events")
+public class OutboxEvent {
+
+    public static final String PARKED_COLLECTION = "outbox_parked_events";
+
+    @Id
+    private String id;
+    private OperationType operationType;
+    private String payload;
+    private LocalDateTime createdAt;
+    private int attempts;
+}
@@ -0,0 +1,23 @@
+package com.bank.onboarding.accountservice.persistence.models;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Document("outbox_relay_leases")
+public class OutboxRelayLease {
+
+    @Id
+    private String id;
+    private String owner;
+    private LocalDateTime expiresAt;
+}
@@ -0,0 +1,9 @@
+package com.bank.onboarding.accountservice.persistence.models;
+
+import com.bank.onboarding.commonslib.persistence.models.Account;
+
+/**
+ * An account together with the version it was read at, for updates that must not apply over a newer write.
+ */
+public record VersionedAccount(Account account, long version) {
+}
@@ -0,0 +1,36 @@
+package com.bank.onboarding.accountservice.persistence.services;
+
+import com.bank.onboarding.accountservice.persistence.models.AccountNumberLease;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+
+@Service
+@RequiredArgsConstructor
+public class AccountNumberLeaseRepoService {
+
+    private final MongoTemplate mongoTemplate;
+
+    /**
+     * Atomically reserves the next {@code blockSize} values of the given sequence and returns the last value of
+     * the reserved block. The block is {@code [returned - blockSize + 1, returned]} and belongs exclusively to
+     * the caller, so replicas sharing the database never hand out the same value.
+     */
+    public long leaseBlock(String sequenceName, long blockSize, String owner) {
+        AccountNumberLease lease = mongoTemplate.findAndModify(
+                Query.query(Criteria.where("id").is(sequenceName)),
+                new Update().inc("lastLeasedValue", blockSize)
+                        .set("lastLeasedBy", owner)
+                        .set("lastLeaseTime", LocalDateTime.now()),
+                FindAndModifyOptions.options().returnNew(true).upsert(true),
+                AccountNumberLease.class);
+
+        return lease.getLastLeasedValue();
+    }
+}
@@ -0,0 +1,121 @@
+package com.bank.onboarding.accountservice.persistence.services;
+
+import com.bank.onboarding.accountservice.persistence.models.AccountReadiness;
+import com.bank.onboarding.commonslib.persistence.models.Account;
+import com.bank.onboarding.commonslib.utils.kafka.models.DocUploadEvent;
+import com.bank.onboarding.commonslib.web.dtos.customer.CustomerRefDTO;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+@Service
+@RequiredArgsConstructor
+public class AccountReadinessRepoService {
+
+    private final MongoTemplate mongoTemplate;
+
+    public AccountReadiness findReadiness(String accountNumber) {
+        return mongoTemplate.findById(accountNumber, AccountReadiness.class);
+    }
+
+    public AccountReadiness initReadiness(Account account, Set<String> cardHolders, Set<String> invalidCustomers) {
+        return mongoTemplate.save(AccountReadiness.of(account, cardHolders, invalidCustomers));
+    }
+
+    public void initReadinesses(Collection<Account> accounts) {
+        if (accounts.isEmpty()) return;
+
+        mongoTemplate.insert(accounts.stream().map(account -> AccountReadiness.of(account, new HashSet<>(), new HashSet<>())).toList(),
+                AccountReadiness.class);
+    }
+
+    public void deleteReadiness(String accountNumber) {
+        mongoTemplate.remove(byAccountNumber(accountNumber), AccountReadiness.class);
+    }
+
+    public void setTypeSet(String accountNumber, boolean typeSet) {
+        update(accountNumber, Update.update("typeSet", typeSet));
+    }
+
+    public void setNetbancoChosen(String accountNumber, boolean netbancoChosen) {
+        update(accountNumber, Update.update("netbancoChosen", netbancoChosen));
+    }
+
+    public void setDocsValid(String accountNumber, boolean docsValid) {
+        update(accountNumber, Update.update("docsValid", docsValid));
+    }
+
+    public void addCardHolders(String accountNumber, Collection<String> customerNumbers) {
+        update(accountNumber, new Update().addToSet("cardHolders").each(customerNumbers.toArray()));
+    }
+
+    public void removeCardHolder(String accountNumber, String customerNumber) {
+        update(accountNumber, new Update().pull("cardHolders", customerNumber));
+    }
+
+    public void updateCustomerValidity(CustomerRefDTO customerRefDTO) {
+        BulkOperations bulkOperations = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, AccountReadiness.class);
+        addCustomerValidityUpdates(bulkOperations, customerRefDTO);
+        bulkOperations.execute();
+    }
+
+    public void updateCustomersValidity(Collection<CustomerRefDTO> customerRefDTOs) {
+        if (customerRefDTOs.isEmpty()) return;
+
+        BulkOperations bulkOperations = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, AccountReadiness.class);
+        customerRefDTOs.forEach(customerRefDTO -> addCustomerValidityUpdates(bulkOperations, customerRefDTO));
+        bulkOperations.execute();
+    }
+
+    public void updateDocsValidity(Collection<DocUploadEvent> docUploadEvents) {
+        if (docUploadEvents.isEmpty()) return;
+
+        BulkOperations bulkOperations = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, AccountReadiness.class);
+        docUploadEvents.forEach(docUploadEvent -> bulkOperations.updateOne(byAccountNumber(docUploadEvent.getAccountNumber()),
+                touch(Update.update("docsValid", docUploadEvent.isAreDocsValid()))));
+        bulkOperations.execute();
+    }
+
+    /**
+     * Marks the customer as invalid (or valid) on every account it holds and drops it from the invalid customers
+     * of accounts it no longer belongs to.
+     */
+    private void addCustomerValidityUpdates(BulkOperations bulkOperations, CustomerRefDTO customerRefDTO) {
+        String customerNumber = customerRefDTO.getCustomerNumber();
+        List<String> accountNumbers = Optional.ofNullable(customerRefDTO.getAccounts()).orElse(List.of()).stream()
+                .map(account -> account.getAccountNumber())
+                .toList();
+
+        Update validityUpdate = Boolean.FALSE.equals(customerRefDTO.getIsValid())
+                ? new Update().addToSet("invalidCustomers", customerNumber)
+                : new Update().pull("invalidCustomers", customerNumber);
+        if (!accountNumbers.isEmpty())
+            bulkOperations.updateMulti(Query.query(Criteria.where("accountNumber").in(accountNumbers)), touch(validityUpdate));
+
+        bulkOperations.updateMulti(Query.query(Criteria.where("invalidCustomers").is(customerNumber).and("accountNumber").nin(accountNumbers)),
+                touch(new Update().pull("invalidCustomers", customerNumber)));
+    }
+
+    private void update(String accountNumber, Update update) {
+        mongoTemplate.updateFirst(byAccountNumber(accountNumber), touch(update), AccountReadiness.class);
+    }
+
+    private static Update touch(Update update) {
+        return update.set("lastUpdateTime", LocalDateTime.now());
+    }
+
+    private static Query byAccountNumber(String accountNumber) {
+        return Query.query(Criteria.where("accountNumber").is(accountNumber));
+    }
+}
@@ -0,0 +1,56 @@
+package com.bank.onboarding.accountservice.persistence.services;
+
+import com.bank.onboarding.accountservice.persistence.models.VersionedAccount;
+import com.bank.onboarding.commonslib.persistence.models.Account;
+import lombok.RequiredArgsConstructor;
+import org.bson.Document;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+/**
+ * Applies {@link AccountUpdates} and returns the updated account, or null when no account matched the number and
+ * precondition.
+ */
+@Service
+@RequiredArgsConstructor
+public class AccountUpdateRepoService {
+
+    private final MongoTemplate mongoTemplate;
+
+    public VersionedAccount findVersionedAccount(String accountNumber) {
+        Document document = mongoTemplate.findOne(AccountUpdates.byNumber(accountNumber), Document.class,
+                mongoTemplate.getCollectionName(Account.class));
+        return document == null ? null
+                : new VersionedAccount(mongoTemplate.getConverter().read(Account.class, document), AccountUpdates.version(document));
+    }
+
+    public Account setType(String accountNumber, String accountType) {
+        return update(AccountUpdates.byNumber(accountNumber), AccountUpdates.setType(accountType));
+    }
+
+    public Account setOnlineBankingIndicator(String accountNumber, boolean onlineBankingIndicator) {
+        return update(AccountUpdates.byNumber(accountNumber), AccountUpdates.setOnlineBankingIndicator(onlineBankingIndicator));
+    }
+
+    public Account setHasValidDocs(String accountNumber, boolean hasValidDocs) {
+        return update(AccountUpdates.byNumber(accountNumber), AccountUpdates.setHasValidDocs(hasValidDocs));
+    }
+
+    /**
+     * Only if the account is still at {@code version}, i.e. nothing changed it since the phase transition was
+     * validated.
+     */
+    public Account setPhase(String accountNumber, long version, int phase, boolean activate) {
+        return update(AccountUpdates.atVersion(accountNumber, version), AccountUpdates.setPhase(phase, activate));
+    }
+
+    public Account touch(String accountNumber) {
+        return update(AccountUpdates.byNumber(accountNumber), AccountUpdates.touch());
+    }
+
+    private Account update(Query query, Update update) {
+        return mongoTemplate.findAndModify(query, update, AccountUpdates.RETURN_NEW, Account.class);
+    }
+}
@@ -0,0 +1,61 @@
+package com.bank.onboarding.accountservice.persistence.services;
+
+import org.bson.Document;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.time.LocalDateTime;
+
+/**
+ * Field-level updates of the account collection, shared by the servlet and reactive stacks so both apply them with
+ * a single findAndModify. Every update increments {@code version} and sets {@code lastUpdateTime}. The version is
+ * not mapped on {@code Account}: it is read from the raw document with {@link #version(Document)}, and accounts
+ * written before it existed count as version 0.
+ */
+public final class AccountUpdates {
+
+    public static final String VERSION = "version";
+    public static final FindAndModifyOptions RETURN_NEW = FindAndModifyOptions.options().returnNew(true);
+
+    private AccountUpdates() {
+    }
+
+    public static Query byNumber(String accountNumber) {
+        return Query.query(Criteria.where("number").is(accountNumber));
+    }
+
+    public static Query atVersion(String accountNumber, long version) {
+        Criteria criteria = Criteria.where("number").is(accountNumber);
+        return Query.query(version == 0
+                ? criteria.orOperator(Criteria.where(VERSION).exists(false), Criteria.where(VERSION).is(0))
+                : criteria.and(VERSION).is(version));
+    }
+
+    public static Update setType(String accountType) {
+        return touch().set("type", accountType);
+    }
+
+    public static Update setOnlineBankingIndicator(boolean onlineBankingIndicator) {
+        return touch().set("onlineBankingIndicator", onlineBankingIndicator);
+    }
+
+    public static Update setHasValidDocs(boolean hasValidDocs) {
+        return touch().set("hasValidDocs", hasValidDocs);
+    }
+
+    public static Update setPhase(int phase, boolean activate) {
+        Update update = touch().set("phase", phase);
+        return activate ? update.set("active", true) : update;
+    }
+
+    public static Update touch() {
+        return new Update().inc(VERSION, 1).set("lastUpdateTime", LocalDateTime.now());
+    }
+
+    public static long version(Document document) {
+        Number version = document.get(VERSION, Number.class);
+        return version == null ? 0 : version.longValue();
+    }
+}
@@ -0,0 +1,103 @@
+package com.bank.onboarding.accountservice.persistence.services;
+
+import com.bank.onboarding.accountservice.persistence.models.AccountListingCursor;
+import com.bank.onboarding.accountservice.persistence.models.AccountListingFilter;
+import com.bank.onboarding.accountservice.persistence.models.VersionedAccount;
+import com.bank.onboarding.commonslib.persistence.models.Account;
+import com.bank.onboarding.commonslib.web.dtos.account.AccountDTO;
+import org.bson.Document;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.mapping.MongoPersistentEntity;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Service;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Reads accounts for display, loading only the fields that {@link AccountDTO} has, plus {@code lastUpdateTime} and
+ * the version that the ETag of an account is built from. The projection is worked out once from the two classes, so
+ * it follows AccountDTO as it changes.
+ * <p>
+ * Listings are ordered by {@code creationTime} and {@code _id} and seek past the last account of the previous page
+ * instead of skipping it, so every page walks the same short index range, and are read from a cursor in batches.
+ * {@link MongoIndexManager} creates the listing order index and the one within an account manager.
+ */
+@Service
+public class AccountViewRepoService {
+
+    private static final String CREATION_TIME = "creationTime";
+    private static final String ID = "_id";
+    private static final Sort LISTING_ORDER = Sort.by(CREATION_TIME, ID);
+    private static final int LISTING_BATCH_SIZE = 500;
+
+    private final MongoTemplate mongoTemplate;
+    private final String collectionName;
+    private final List<String> viewFields;
+
+    public AccountViewRepoService(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+        this.collectionName = mongoTemplate.getCollectionName(Account.class);
+        MongoPersistentEntity<?> accountEntity = mongoTemplate.getConverter().getMappingContext().getRequiredPersistentEntity(Account.class);
+        this.viewFields = Stream.concat(
+                        Arrays.stream(AccountDTO.class.getDeclaredFields())
+                                .filter(field -> !Modifier.isStatic(field.getModifiers()))
+                                .map(Field::getName)
+                                .filter(name -> accountEntity.getPersistentProperty(name) != null),
+                        Stream.of("lastUpdateTime", CREATION_TIME, AccountUpdates.VERSION))
+                .distinct()
+                .toList();
+    }
+
+    public VersionedAccount findAccountView(String accountNumber) {
+        Document document = mongoTemplate.findOne(project(AccountUpdates.byNumber(accountNumber)), Document.class, collectionName);
+        return document == null ? null
+                : new VersionedAccount(mongoTemplate.getConverter().read(Account.class, document), AccountUpdates.version(document));
+    }
+
+    public List<Account> findAccountViews(Collection<String> accountNumbers) {
+        return mongoTemplate.find(project(Query.query(Criteria.where("number").in(accountNumbers))), Account.class);
+    }
+
+    /**
+     * Accounts matching the filter after the cursor, in listing order. The stream holds a Mongo cursor open and must
+     * be closed.
+     */
+    public Stream<Account> streamAccountViews(AccountListingFilter filter, AccountListingCursor after, int limit) {
+        Query query = project(Query.query(listingCriteria(filter, after)))
+                .with(LISTING_ORDER)
+                .limit(limit)
+                .cursorBatchSize(Math.min(limit, LISTING_BATCH_SIZE));
+        return mongoTemplate.stream(query, Account.class);
+    }
+
+    private static Criteria listingCriteria(AccountListingFilter filter, AccountListingCursor after) {
+        List<Criteria> criteria = new ArrayList<>();
+        if (filter.accountManager() != null) criteria.add(Criteria.where("accountManager").is(filter.accountManager()));
+        if (filter.phase() != null) criteria.add(Criteria.where("phase").is(filter.phase()));
+        if (filter.active() != null) criteria.add(Criteria.where("active").is(filter.active()));
+
+        Criteria creationTime = Criteria.where(CREATION_TIME).ne(null);
+        if (filter.createdFrom() != null) creationTime.gte(filter.createdFrom());
+        if (filter.createdTo() != null) creationTime.lt(filter.createdTo());
+        criteria.add(creationTime);
+
+        if (after != null)
+            criteria.add(new Criteria().orOperator(
+                    Criteria.where(CREATION_TIME).gt(after.creationTime()),
+                    Criteria.where(CREATION_TIME).is(after.creationTime()).and(ID).gt(after.id())));
+        return new Criteria().andOperator(criteria);
+    }
+
+    private Query project(Query query) {
+        viewFields.forEach(query.fields()::include);
+        return query;
+    }
+}
@@ -0,0 +1,115 @@
+package com.bank.onboarding.accountservice.persistence.services;
+
+import com.bank.onboarding.commonslib.persistence.models.Account;
+import com.bank.onboarding.commonslib.persistence.models.Card;
+import com.bank.onboarding.commonslib.persistence.models.CustomerRef;
+import com.bank.onboarding.commonslib.utils.kafka.models.DocUploadEvent;
+import com.bank.onboarding.commonslib.web.dtos.customer.CustomerRefDTO;
+import com.mongodb.bulk.BulkWriteError;
+import lombok.RequiredArgsConstructor;
+import org.bson.types.ObjectId;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+@Service
+@RequiredArgsConstructor
+public class BulkRepoService {
+
+    private static final int DUPLICATE_KEY_ERROR_CODE = 11000;
+
+    private final MongoTemplate mongoTemplate;
+
+    /**
+     * Inserts the accounts in one unordered bulk write, so an account that cannot be inserted, say on a duplicate
+     * key, fails on its own while the others are still written. Returns the reason each failed account was not
+     * inserted, keyed by its position in {@code accounts}. Ids are assigned up front, as a bulk write does not set
+     * them on the accounts.
+     */
+    public Map<Integer, String> insertAccounts(List<Account> accounts) {
+        if (accounts.isEmpty()) return Map.of();
+
+        accounts.stream().filter(account -> account.getId() == null).forEach(account -> account.setId(new ObjectId().toHexString()));
+        try {
+            mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Account.class).insert(accounts).execute();
+            return Map.of();
+        } catch (BulkOperationException e) {
+            if (e.getErrors().isEmpty()) throw e;
+            return e.getErrors().stream().collect(Collectors.toMap(BulkWriteError::getIndex, BulkWriteError::getMessage));
+        }
+    }
+
+    /**
+     * Replaces the cards the given holders have on the account with {@code cards} in one ordered bulk write, so
+     * removals are applied before the inserts. Throws {@link DuplicateKeyException} when a card number is taken.
+     */
+    public void replaceCards(String accountId, Collection<String> customerNumbers, List<Card> cards) {
+        BulkOperations bulkOperations = mongoTemplate.bulkOps(BulkOperations.BulkMode.ORDERED, Card.class);
+        bulkOperations.remove(Query.query(Criteria.where("accountId").is(accountId).and("customerNumber").in(customerNumbers)));
+        bulkOperations.insert(cards);
+        try {
+            bulkOperations.execute();
+        } catch (BulkOperationException e) {
+            throw translateDuplicateKey(e);
+        }
+    }
+
+    /**
+     * A bulk write rejected by a unique index, reported as the {@link DuplicateKeyException} a single write throws.
+     */
+    public static RuntimeException translateDuplicateKey(BulkOperationException e) {
+        return e.getErrors().stream().anyMatch(error -> error.getCode() == DUPLICATE_KEY_ERROR_CODE)
+                ? new DuplicateKeyException(e.getMessage(), e)
+                : e;
+    }
+
+    /**
+     * Removes the card only if it is one of the account's, so a card number taken from another account is left as is.
+     */
+    public Card findAndRemoveCard(String accountId, String cardNumber) {
+        return mongoTemplate.findAndRemove(Query.query(Criteria.where("number").is(cardNumber).and("accountId").is(accountId)), Card.class);
+    }
+
+    public void upsertCustomerRefs(Collection<CustomerRefDTO> customerRefDTOs) {
+        if (customerRefDTOs.isEmpty()) return;
+
+        BulkOperations bulkOperations = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, CustomerRef.class);
+        customerRefDTOs.forEach(customerRefDTO -> bulkOperations.upsert(
+                Query.query(Criteria.where("customerNumber").is(customerRefDTO.getCustomerNumber())),
+                new Update().set("valid", customerRefDTO.getIsValid())
+                        .set("accounts", customerRefDTO.getAccounts())));
+        bulkOperations.execute();
+    }
+
+    /**
+     * Expects at most one event per account. Returns the account numbers that matched no account, which are only
+     * looked up when the bulk write matched fewer accounts than it was given events.
+     */
+    public Set<String> updateAccountsDocsValidity(Collection<DocUploadEvent> docUploadEvents) {
+        if (docUploadEvents.isEmpty()) return Set.of();
+
+        BulkOperations bulkOperations = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Account.class);
+        docUploadEvents.forEach(docUploadEvent -> bulkOperations.updateOne(
+                AccountUpdates.byNumber(docUploadEvent.getAccountNumber()),
+                AccountUpdates.setHasValidDocs(docUploadEvent.isAreDocsValid())));
+        if (bulkOperations.execute().getMatchedCount() == docUploadEvents.size()) return Set.of();
+
+        Set<String> missingAccountNumbers = docUploadEvents.stream().map(DocUploadEvent::getAccountNumber).collect(Collectors.toCollection(HashSet::new));
+        Query existingAccounts = Query.query(Criteria.where("number").in(missingAccountNumbers));
+        existingAccounts.fields().include("number");
+        mongoTemplate.find(existingAccounts, Account.class).forEach(account -> missingAccountNumbers.remove(account.getNumber()));
+        return missingAccountNumbers;
+    }
+}
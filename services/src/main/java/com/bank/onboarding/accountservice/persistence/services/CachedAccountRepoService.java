@@ -0,0 +1,165 @@
+package com.bank.onboarding.accountservice.persistence.services;
+
+import com.bank.onboarding.commonslib.persistence.models.Account;
+import com.bank.onboarding.commonslib.persistence.services.AccountRepoService;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.convert.MongoConverter;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.UUID;
+
+/**
+ * Read-through cache of {@link Account} by number in front of {@link AccountRepoService}. Every write through this
+ * service refreshes the local entry and broadcasts the account number on the invalidation topic, which every
+ * replica consumes with its own consumer group to drop its copy. The cache holds each account as the document it
+ * is stored as, and every read maps a new {@link Account} from it, so a caller changing the account it got back
+ * changes neither the cache nor the accounts of concurrent requests.
+ */
+@Slf4j
+@Service
+public class CachedAccountRepoService {
+
+    private static final String CACHE_NAME = "accounts";
+
+    private final AccountRepoService accountRepoService;
+    private final KafkaTemplate<String, String> kafkaTemplate;
+    private final MongoConverter mongoConverter;
+    private final Cache<String, Document> accounts;
+    private final String instanceId = UUID.randomUUID().toString();
+    private final String invalidationTopicName;
+
+    public CachedAccountRepoService(AccountRepoService accountRepoService, KafkaTemplate<String, String> kafkaTemplate,
+                                    MongoConverter mongoConverter, MeterRegistry meterRegistry,
+                                    @Value("${bank.onboarding.account-cache.maximum-size:10000}") long maximumSize,
+                                    @Value("${bank.onboarding.account-cache.time-to-live:PT5M}") Duration timeToLive,
+                                    @Value("${spring.kafka.account-cache.topic-name}") String invalidationTopicName) {
+        this.accountRepoService = accountRepoService;
+        this.kafkaTemplate = kafkaTemplate;
+        this.invalidationTopicName = invalidationTopicName;
+        this.mongoConverter = mongoConverter;
+        this.accounts = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(timeToLive)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, accounts, CACHE_NAME);
+    }
+
+    /**
+     * Loads on a miss inside the cache's compute, so a write cached or invalidated meanwhile waits for the load and
+     * replaces its result instead of being overwritten by an older version. Concurrent misses on the same number
+     * share one load. The compute holds a map bin lock, and pins the carrier of a virtual thread, for the Mongo round
+     * trip, which only misses pay.
+     */
+    public Account getAccountByNumber(String accountNumber) {
+        Account[] loaded = new Account[1];
+        Document snapshot = accounts.get(accountNumber, number -> {
+            loaded[0] = accountRepoService.getAccountByNumber(number);
+            return loaded[0] == null ? null : snapshotOf(loaded[0]);
+        });
+        if (loaded[0] != null || snapshot == null) return loaded[0];
+        return mongoConverter.read(Account.class, snapshot);
+    }
+
+    /**
+     * Inside a transaction the saved account is cached, and the other replicas told to drop theirs, only once it
+     * commits; until then they would reload and keep the old version.
+     */
+    public Account saveAccountDB(Account account) {
+        accounts.invalidate(account.getNumber());
+        return cacheUpdatedAccount(accountRepoService.saveAccountDB(account));
+    }
+
+    /**
+     * Caches an account returned by a field-level update made outside this service, with the same after-commit
+     * handling as {@link #saveAccountDB(Account)}. The account is snapshotted as it is now, so changes made to it
+     * before the commit are not cached.
+     */
+    public Account cacheUpdatedAccount(Account updatedAccount) {
+        accounts.invalidate(updatedAccount.getNumber());
+        Document snapshot = snapshotOf(updatedAccount);
+        afterCommit(() -> {
+            accounts.put(updatedAccount.getNumber(), snapshot);
+            publishInvalidation(updatedAccount.getNumber());
+        });
+        return updatedAccount;
+    }
+
+    public void deleteAccount(String accountId, String accountNumber) {
+        accountRepoService.deleteAccountByAccountNumber(accountId);
+        evict(accountNumber);
+    }
+
+    /**
+     * Drops the cached account on every replica, for writes made to the account collection outside this service.
+     */
+    public void evict(String accountNumber) {
+        accounts.invalidate(accountNumber);
+        afterCommit(() -> {
+            accounts.invalidate(accountNumber);
+            publishInvalidation(accountNumber);
+        });
+    }
+
+    public void evictAll(Collection<String> accountNumbers) {
+        accountNumbers.forEach(this::evict);
+    }
+
+    /**
+     * Each replica needs a consumer group of its own to get every invalidation, named after its
+     * {@code bank.onboarding.account-cache.instance-id} (the host name by default) so that a restarted replica reuses
+     * its group instead of leaving another one behind on the broker. A new group starts from the latest
+     * invalidations, as the cache it serves starts empty.
+     */
+    @KafkaListener(topics = "${spring.kafka.account-cache.topic-name}",
+            groupId = "account-cache-${bank.onboarding.account-cache.instance-id:local}",
+            properties = "auto.offset.reset=latest")
+    public void consumeInvalidation(ConsumerRecord<byte[], byte[]> event) {
+        if (event.key() == null || instanceId.equals(new String(event.key(), StandardCharsets.UTF_8))) return;
+
+        String accountNumber = new String(event.value(), StandardCharsets.UTF_8);
+        log.debug("Invalidating cached account {}", accountNumber);
+        accounts.invalidate(accountNumber);
+    }
+
+    private Document snapshotOf(Account account) {
+        Document snapshot = new Document();
+        mongoConverter.write(account, snapshot);
+        return snapshot;
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    private void publishInvalidation(String accountNumber) {
+        kafkaTemplate.send(invalidationTopicName, instanceId, accountNumber)
+                .whenComplete((result, e) -> {
+                    if (e != null) log.warn("Unable to publish cache invalidation for account {}", accountNumber, e);
+                });
+    }
+}
@@ -0,0 +1,71 @@
+package com.bank.onboarding.accountservice.persistence.services;
+
+import com.bank.onboarding.accountservice.persistence.models.AccountReadiness;
+import com.bank.onboarding.commonslib.persistence.models.Account;
+import com.bank.onboarding.commonslib.persistence.models.Card;
+import com.bank.onboarding.commonslib.persistence.models.CustomerRef;
+import lombok.RequiredArgsConstructor;
+import org.bson.Document;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Bulk deletes undoing the accounts and new customers that customer-service rolled back, one round trip each
+ * whatever the number of accounts or customers. Every delete is idempotent, so a compensation that failed half way
+ * is applied again from the start.
+ */
+@Service
+@RequiredArgsConstructor
+public class CompensationRepoService {
+
+    private final MongoTemplate mongoTemplate;
+
+    /**
+     * Only the id and number of the accounts that still exist.
+     */
+    public List<Account> findAccountIds(Collection<String> accountNumbers) {
+        Query query = Query.query(Criteria.where("number").in(accountNumbers));
+        query.fields().include("number");
+        return mongoTemplate.find(query, Account.class);
+    }
+
+    public void deleteCards(Collection<String> accountIds) {
+        mongoTemplate.remove(Query.query(Criteria.where("accountId").in(accountIds)), Card.class);
+    }
+
+    public void deleteAccounts(Collection<String> accountNumbers) {
+        mongoTemplate.remove(Query.query(Criteria.where("number").in(accountNumbers)), Account.class);
+    }
+
+    public void deleteReadinesses(Collection<String> accountNumbers) {
+        mongoTemplate.remove(Query.query(Criteria.where("accountNumber").in(accountNumbers)), AccountReadiness.class);
+    }
+
+    /**
+     * Takes the deleted accounts off the customer refs that hold them, then deletes the refs left without any
+     * account and the refs of {@code customerNumbers}: one distinct to find the holders and one ordered bulk write.
+     */
+    public void deleteCustomerRefs(Collection<String> deletedAccountNumbers, Collection<String> customerNumbers) {
+        Query holdersQuery = Query.query(Criteria.where("accounts.accountNumber").in(deletedAccountNumbers));
+        List<String> holders = deletedAccountNumbers.isEmpty() ? List.of()
+                : mongoTemplate.findDistinct(holdersQuery, "customerNumber", CustomerRef.class, String.class);
+        if (holders.isEmpty() && customerNumbers.isEmpty()) return;
+
+        BulkOperations bulkOperations = mongoTemplate.bulkOps(BulkOperations.BulkMode.ORDERED, CustomerRef.class);
+        if (!holders.isEmpty()) {
+            bulkOperations.updateMulti(holdersQuery, new Update().pull("accounts",
+                    new Document("accountNumber", new Document("$in", List.copyOf(deletedAccountNumbers)))));
+            bulkOperations.remove(Query.query(Criteria.where("customerNumber").in(holders).and("accounts").size(0)));
+        }
+        if (!customerNumbers.isEmpty())
+            bulkOperations.remove(Query.query(Criteria.where("customerNumber").in(customerNumbers)));
+        bulkOperations.execute();
+    }
+}
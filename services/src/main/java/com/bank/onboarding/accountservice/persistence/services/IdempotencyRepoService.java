@@ -0,0 +1,60 @@
+package com.bank.onboarding.accountservice.persistence.services;
+
+import com.bank.onboarding.accountservice.persistence.models.IdempotencyRecord;
+import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+/**
+ * Mongo removes records once {@code expiresAt} has passed, through the TTL index that {@link MongoIndexManager}
+ * creates.
+ */
+@Service
+@RequiredArgsConstructor
+public class IdempotencyRepoService {
+
+    private final MongoTemplate mongoTemplate;
+
+    /**
+     * Claims the key for {@code timeToLive}, the same way {@code OutboxRepoService} takes a lease. Returns null when
+     * the key was claimed, otherwise the record of whoever holds it. A holder that releases the key, or whose record
+     * expires, between the failed claim and the read leaves nothing to return, so the claim is tried again.
+     */
+    public IdempotencyRecord claim(String id, String requestHash, Duration timeToLive) {
+        while (true) {
+            LocalDateTime now = LocalDateTime.now();
+            try {
+                mongoTemplate.findAndModify(
+                        Query.query(Criteria.where("_id").is(id).and("expiresAt").lt(now)),
+                        new Update().set("requestHash", requestHash).set("completed", false)
+                                .unset("status").unset("body").set("expiresAt", now.plus(timeToLive)),
+                        FindAndModifyOptions.options().upsert(true),
+                        IdempotencyRecord.class);
+                return null;
+            } catch (DuplicateKeyException e) {
+                IdempotencyRecord idempotencyRecord = mongoTemplate.findById(id, IdempotencyRecord.class);
+                if (idempotencyRecord != null) return idempotencyRecord;
+            }
+        }
+    }
+
+    public IdempotencyRecord complete(String id, int status, String body, Duration timeToLive) {
+        return mongoTemplate.findAndModify(Query.query(Criteria.where("_id").is(id)),
+                new Update().set("completed", true).set("status", status).set("body", body)
+                        .set("expiresAt", LocalDateTime.now().plus(timeToLive)),
+                FindAndModifyOptions.options().returnNew(true),
+                IdempotencyRecord.class);
+    }
+
+    public void release(String id) {
+        mongoTemplate.remove(Query.query(Criteria.where("_id").is(id).and("completed").is(false)), IdempotencyRecord.class);
+    }
+}
@@ -0,0 +1,112 @@
+package com.bank.onboarding.accountservice.persistence.services;
+
+import com.bank.onboarding.accountservice.persistence.models.AccountReadiness;
+import com.bank.onboarding.accountservice.persistence.models.IdempotencyRecord;
+import com.bank.onboarding.accountservice.persistence.models.OutboxEvent;
+import com.bank.onboarding.commonslib.persistence.models.Account;
+import com.bank.onboarding.commonslib.persistence.models.Card;
+import com.bank.onboarding.commonslib.persistence.models.CustomerRef;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.index.IndexField;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The indexes that the queries of this service rely on, created once the application is ready, so that starting the
+ * context, as the AppCDS training run does, needs no Mongo, and then checked against the indexes each collection
+ * actually has. An index that cannot be created, because the collection holds duplicates of a unique key or already
+ * has an index on the same keys with other options, is logged rather than failing the start unless
+ * {@code bank.onboarding.mongo.indexes.fail-on-missing} is set.
+ * <p>
+ * A query added without an index here is caught by {@code QueryPlanTests}, which fails on any collection scan and
+ * on listing filters that examine far more accounts than they return.
+ */
+@Slf4j
+@Service
+public class MongoIndexManager {
+
+    private static final List<RequiredIndex> REQUIRED_INDEXES = List.of(
+            new RequiredIndex(Account.class, new Index().on("number", Sort.Direction.ASC).unique()),
+            new RequiredIndex(Account.class, new Index().on("iban", Sort.Direction.ASC).unique()),
+            new RequiredIndex(Account.class, new Index().on("creationTime", Sort.Direction.ASC).on("_id", Sort.Direction.ASC)),
+            new RequiredIndex(Account.class, new Index().on("accountManager", Sort.Direction.ASC)
+                    .on("creationTime", Sort.Direction.ASC).on("_id", Sort.Direction.ASC)),
+            new RequiredIndex(Account.class, new Index().on("phase", Sort.Direction.ASC)
+                    .on("creationTime", Sort.Direction.ASC).on("_id", Sort.Direction.ASC)),
+            new RequiredIndex(Account.class, new Index().on("active", Sort.Direction.ASC)
+                    .on("creationTime", Sort.Direction.ASC).on("_id", Sort.Direction.ASC)),
+            new RequiredIndex(Card.class, new Index().on("number", Sort.Direction.ASC).unique()),
+            new RequiredIndex(Card.class, new Index().on("accountId", Sort.Direction.ASC).on("customerNumber", Sort.Direction.ASC)),
+            new RequiredIndex(CustomerRef.class, new Index().on("customerNumber", Sort.Direction.ASC).unique()),
+            new RequiredIndex(CustomerRef.class, new Index().on("accounts.accountNumber", Sort.Direction.ASC)),
+            new RequiredIndex(AccountReadiness.class, new Index().on("invalidCustomers", Sort.Direction.ASC)),
+            new RequiredIndex(OutboxEvent.class, new Index().on("createdAt", Sort.Direction.ASC).on("_id", Sort.Direction.ASC)),
+            new RequiredIndex(IdempotencyRecord.class, new Index().on("expiresAt", Sort.Direction.ASC).expire(Duration.ZERO)));
+
+    private final MongoTemplate mongoTemplate;
+    private final boolean failOnMissing;
+
+    public MongoIndexManager(MongoTemplate mongoTemplate,
+                             @Value("${bank.onboarding.mongo.indexes.fail-on-missing:false}") boolean failOnMissing) {
+        this.mongoTemplate = mongoTemplate;
+        this.failOnMissing = failOnMissing;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void ensureIndexes() {
+        REQUIRED_INDEXES.forEach(required -> {
+            try {
+                mongoTemplate.indexOps(required.entityClass()).ensureIndex(required.index());
+            } catch (DataAccessException e) {
+                log.error("Unable to create index {} on {}", required.keys(), collectionName(required), e);
+            }
+        });
+
+        List<RequiredIndex> missingIndexes = missingIndexes();
+        if (missingIndexes.isEmpty()) {
+            log.info("All {} required Mongo indexes are in place", REQUIRED_INDEXES.size());
+            return;
+        }
+        missingIndexes.forEach(missing -> log.error("Missing index {} on {}", missing.keys(), collectionName(missing)));
+        if (failOnMissing)
+            throw new IllegalStateException(missingIndexes.size() + " required Mongo indexes are missing");
+    }
+
+    /**
+     * Required indexes that no index of their collection matches key for key, whatever its options.
+     */
+    public List<RequiredIndex> missingIndexes() {
+        Map<Class<?>, List<List<String>>> existingKeys = new HashMap<>();
+        return REQUIRED_INDEXES.stream()
+                .filter(required -> !existingKeys.computeIfAbsent(required.entityClass(), this::indexKeys).contains(required.keys()))
+                .toList();
+    }
+
+    private List<List<String>> indexKeys(Class<?> entityClass) {
+        return mongoTemplate.indexOps(entityClass).getIndexInfo().stream()
+                .map(indexInfo -> indexInfo.getIndexFields().stream().map(IndexField::getKey).toList())
+                .toList();
+    }
+
+    private String collectionName(RequiredIndex required) {
+        return mongoTemplate.getCollectionName(required.entityClass());
+    }
+
+    public record RequiredIndex(Class<?> entityClass, Index index) {
+
+        public List<String> keys() {
+            return List.copyOf(index.getIndexKeys().keySet());
+        }
+    }
+}
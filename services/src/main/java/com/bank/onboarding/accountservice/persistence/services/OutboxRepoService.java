@@ -0,0 +1,83 @@
+package com.bank.onboarding.accountservice.persistence.services;
+
+import com.bank.onboarding.accountservice.persistence.models.OutboxEvent;
+import com.bank.onboarding.accountservice.persistence.models.OutboxRelayLease;
+import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Service
+@RequiredArgsConstructor
+public class OutboxRepoService {
+
+    private final MongoTemplate mongoTemplate;
+
+    public void appendAll(Collection<OutboxEvent> outboxEvents) {
+        if (outboxEvents.isEmpty()) return;
+
+        mongoTemplate.insert(outboxEvents, OutboxEvent.class);
+    }
+
+    /**
+     * Oldest events first. Events written by one replica keep their order; across replicas they are ordered by
+     * creation time.
+     */
+    public List<OutboxEvent> findOldestEvents(int batchSize) {
+        return mongoTemplate.find(new Query().with(Sort.by("createdAt", "_id")).limit(batchSize), OutboxEvent.class);
+    }
+
+    public void deleteEvents(Collection<OutboxEvent> outboxEvents) {
+        if (outboxEvents.isEmpty()) return;
+
+        mongoTemplate.remove(Query.query(Criteria.where("_id").in(outboxEvents.stream().map(OutboxEvent::getId).toList())),
+                OutboxEvent.class);
+    }
+
+    public void recordFailedAttempts(Collection<OutboxEvent> outboxEvents) {
+        if (outboxEvents.isEmpty()) return;
+
+        mongoTemplate.updateMulti(Query.query(Criteria.where("_id").in(outboxEvents.stream().map(OutboxEvent::getId).toList())),
+                new Update().inc("attempts", 1), OutboxEvent.class);
+    }
+
+    /**
+     * Moves the events to {@link OutboxEvent#PARKED_COLLECTION}. They are saved there before being removed from the
+     * outbox, so parking again after a failure in between overwrites the copy instead of duplicating it.
+     */
+    public void parkEvents(Collection<OutboxEvent> outboxEvents) {
+        if (outboxEvents.isEmpty()) return;
+
+        outboxEvents.forEach(outboxEvent -> mongoTemplate.save(outboxEvent, OutboxEvent.PARKED_COLLECTION));
+        deleteEvents(outboxEvents);
+    }
+
+    /**
+     * Takes or renews the named lease for {@code timeToLive}. Returns false while another owner holds an unexpired
+     * lease: the upsert then collides on the lease id instead of taking it over.
+     */
+    public boolean acquireRelayLease(String leaseName, String owner, Duration timeToLive) {
+        LocalDateTime now = LocalDateTime.now();
+        try {
+            mongoTemplate.findAndModify(
+                    Query.query(Criteria.where("_id").is(leaseName)
+                            .orOperator(Criteria.where("owner").is(owner), Criteria.where("expiresAt").lt(now))),
+                    new Update().set("owner", owner).set("expiresAt", now.plus(timeToLive)),
+                    FindAndModifyOptions.options().returnNew(true).upsert(true),
+                    OutboxRelayLease.class);
+            return true;
+        } catch (DuplicateKeyException e) {
+            return false;
+        }
+    }
+}
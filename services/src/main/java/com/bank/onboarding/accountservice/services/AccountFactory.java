@@ -0,0 +1,90 @@
+package com.bank.onboarding.accountservice.services;
+
+import com.bank.onboarding.commonslib.persistence.exceptions.OnboardingException;
+import com.bank.onboarding.commonslib.persistence.models.Account;
+import com.bank.onboarding.commonslib.persistence.models.Card;
+import com.bank.onboarding.commonslib.persistence.services.CardRepoService;
+import com.bank.onboarding.commonslib.utils.kafka.models.CardAndNetbancoEvent;
+import com.bank.onboarding.commonslib.utils.kafka.models.CreateAccountEvent;
+import com.bank.onboarding.commonslib.web.dtos.account.AccountRefDTO;
+import com.bank.onboarding.commonslib.web.dtos.account.CreateAccountRequestDTO;
+import io.micrometer.common.util.StringUtils;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.IntStream;
+
+import static com.bank.onboarding.commonslib.persistence.constants.OnboardingConstants.ACCOUNT_TYPES;
+
+/**
+ * Builds the accounts, cards and events written by the account operations, shared by the servlet and reactive stacks.
+ * {@link #newAccount(CreateAccountRequestDTO)} may wait on Mongo when the {@link IbanAllocator} leases a new block.
+ */
+@Component
+@RequiredArgsConstructor
+public class AccountFactory {
+
+    /**
+     * How many times new cards are drawn when their numbers collide with existing cards.
+     */
+    public static final int CARD_NUMBER_ATTEMPTS = 3;
+
+    private final IbanAllocator ibanAllocator;
+    private final CardRepoService cardRepoService;
+    private final CardCredentialGenerator cardCredentialGenerator;
+
+    public Account newAccount(CreateAccountRequestDTO createAccountRequestDTO) {
+        String accountManager = Optional.ofNullable(createAccountRequestDTO.getAccountManager()).orElse("");
+        String accountType = Optional.ofNullable(createAccountRequestDTO.getAccountType()).orElse("");
+        if(StringUtils.isBlank(accountManager) || !ACCOUNT_TYPES.contains(accountType))
+            throw new OnboardingException("Não foi inserido um gestor de conta válido ou o tipo de conta é inválido, pelo que não é possível criar a conta.");
+
+        String iban = ibanAllocator.nextIban();
+        return Account.builder()
+            .accountManager(accountManager)
+            .active(Boolean.FALSE)
+            .creationTime(LocalDateTime.now())
+            .currencyCode("EUR")
+            .iban(iban)
+            .lastUpdateTime(LocalDateTime.now())
+            .number(iban.substring(iban.length()-19))
+            .onlineBankingIndicator(Boolean.FALSE)
+            .phase(1)
+            .type(accountType)
+            .build();
+    }
+
+    /**
+     * One card per holder, all of the same type and annual fee, with distinct numbers.
+     */
+    public List<Card> newCards(Account account, String cardType, List<String> customerNumbers) {
+        Double annualFee = cardCredentialGenerator.annualFee();
+        String cardTypeValue = cardRepoService.getCardTypeValue(cardType);
+        List<String> cardNumbers = cardCredentialGenerator.cardNumbers(customerNumbers.size());
+        return IntStream.range(0, customerNumbers.size())
+                .mapToObj(i -> Card.builder()
+                        .annualFee(annualFee)
+                        .cvc(cardCredentialGenerator.cvc())
+                        .number(cardNumbers.get(i))
+                        .type(cardTypeValue)
+                        .accountId(account.getId())
+                        .customerNumber(customerNumbers.get(i)).build())
+                .toList();
+    }
+
+    public CreateAccountEvent createAccountEvent(CreateAccountRequestDTO createAccountRequestDTO, Account account) {
+        return CreateAccountEvent.builder()
+                .createAccountRequestDTO(createAccountRequestDTO)
+                .accountRefDTO(AccountRefDTO.builder().accountNumber(account.getNumber()).build())
+                .build();
+    }
+
+    public List<CardAndNetbancoEvent> cardEvents(List<String> customerNumbers, boolean value) {
+        return customerNumbers.stream()
+                .map(customerNumber -> CardAndNetbancoEvent.builder().value(value).customerNumber(customerNumber).build())
+                .toList();
+    }
+}
@@ -0,0 +1,96 @@
+package com.bank.onboarding.accountservice.services;
+
+import com.bank.onboarding.commonslib.persistence.enums.OperationType;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Business meters of the account service. Every tag has a small fixed set of values: phases, rejection reasons,
+ * event types, operation types and exception class names.
+ * <ul>
+ *     <li>{@code account.phase.transitions}: accounts moved from one phase to the next.</li>
+ *     <li>{@code account.phase.rejections}: moveToNextPhase requests refused, by requested phase and reason.</li>
+ *     <li>{@code account.events.consume}: time to apply an account-service-topic event, by event type and outcome.</li>
+ *     <li>{@code account.events.consume.errors}: events that could not be read or applied, by event type and exception.</li>
+ *     <li>{@code account.compensation.lag}: time from an ErrorEvent being produced to its compensation being applied,
+ *     by the operation rolled back.</li>
+ *     <li>{@code account.events.dead-lettered}: events that reached the dead-letter topic, by the exception of their
+ *     last attempt.</li>
+ * </ul>
+ */
+@Component
+@RequiredArgsConstructor
+public class AccountMetrics {
+
+    public static final String INVALID_PHASE = "invalid_phase";
+    public static final String NOT_READY = "not_ready";
+    public static final String CONCURRENT_UPDATE = "concurrent_update";
+    public static final String UNREADABLE_EVENT = "unreadable";
+
+    private final MeterRegistry meterRegistry;
+
+    public void phaseTransition(Integer fromPhase, int toPhase) {
+        Counter.builder("account.phase.transitions")
+                .tag("from", String.valueOf(fromPhase))
+                .tag("to", String.valueOf(toPhase))
+                .register(meterRegistry)
+                .increment();
+    }
+
+    public void phaseRejected(int toPhase, String reason) {
+        Counter.builder("account.phase.rejections")
+                .tag("to", String.valueOf(toPhase))
+                .tag("reason", reason)
+                .register(meterRegistry)
+                .increment();
+    }
+
+    public void eventConsumed(String event, Duration latency) {
+        consumeTimer(event, "success").record(latency);
+    }
+
+    public void eventFailed(String event, Duration latency, Throwable cause) {
+        consumeTimer(event, "failure").record(latency);
+        consumeError(event, cause);
+    }
+
+    public void compensationApplied(OperationType operation, Duration lag) {
+        Timer.builder("account.compensation.lag")
+                .tag("operation", operation == null ? "unknown" : operation.name())
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(lag);
+    }
+
+    public void eventUnreadable(Throwable cause) {
+        consumeError(UNREADABLE_EVENT, cause);
+    }
+
+    public void eventDeadLettered(String exception) {
+        Counter.builder("account.events.dead-lettered")
+                .tag("exception", exception)
+                .register(meterRegistry)
+                .increment();
+    }
+
+    private void consumeError(String event, Throwable cause) {
+        Counter.builder("account.events.consume.errors")
+                .tag("event", event)
+                .tag("exception", cause.getClass().getSimpleName())
+                .register(meterRegistry)
+                .increment();
+    }
+
+    private Timer consumeTimer(String event, String outcome) {
+        return Timer.builder("account.events.consume")
+                .tag("event", event)
+                .tag("outcome", outcome)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+}
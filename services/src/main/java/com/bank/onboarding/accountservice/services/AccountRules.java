@@ -0,0 +1,113 @@
+package com.bank.onboarding.accountservice.services;
+
+import com.bank.onboarding.accountservice.persistence.models.AccountReadiness;
+import com.bank.onboarding.commonslib.persistence.enums.CustomerType;
+import com.bank.onboarding.commonslib.persistence.enums.OperationType;
+import com.bank.onboarding.commonslib.persistence.exceptions.OnboardingException;
+import com.bank.onboarding.commonslib.persistence.models.Account;
+import com.bank.onboarding.commonslib.utils.OnboardingUtils;
+import com.bank.onboarding.commonslib.web.dtos.account.AccountCardDTO;
+import com.bank.onboarding.commonslib.web.dtos.account.AccountTypeRequestDTO;
+import io.micrometer.common.util.StringUtils;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+import static com.bank.onboarding.commonslib.persistence.constants.OnboardingConstants.ACCOUNT_PHASES;
+import static com.bank.onboarding.commonslib.persistence.constants.OnboardingConstants.ACCOUNT_TYPES;
+import static com.bank.onboarding.commonslib.persistence.constants.OnboardingConstants.CARD_TYPES;
+import static com.bank.onboarding.commonslib.persistence.enums.AccountPhase.TERMINADA;
+
+/**
+ * Validation rules of the account operations, shared by the servlet and reactive stacks. None of them reads from
+ * Mongo: whatever they need is loaded by the caller.
+ */
+@Component
+@RequiredArgsConstructor
+public class AccountRules {
+
+    private final OnboardingUtils onboardingUtils;
+
+    public void checkAccountTypeRequest(AccountTypeRequestDTO accountTypeRequestDTO) {
+        if(Boolean.TRUE.equals(accountTypeRequestDTO.isAccountActive()) ||
+                !ACCOUNT_TYPES.contains(Optional.ofNullable(accountTypeRequestDTO.getAccountType()).orElse("")))
+            throw new OnboardingException("Não é possível adicionar/atualizar/remover tipo de conta. A conta está ativa ou o tipo de conta são inválidos");
+
+        onboardingUtils.isValidPhase(accountTypeRequestDTO.getAccountPhase(), OperationType.TYPE_ACCOUNT);
+    }
+
+    public boolean isAccountTypeAllowed(AccountTypeRequestDTO accountTypeRequestDTO) {
+        String accountType = Optional.ofNullable(accountTypeRequestDTO.getAccountType()).orElse("");
+        String customerType = Optional.ofNullable(accountTypeRequestDTO.getCustomerType()).orElse("");
+
+        if(CustomerType.EMPRESA.name().equals(customerType))
+            return onboardingUtils.isEmpresaAccountType(accountType);
+
+        if(CustomerType.PARTICULAR.name().equals(customerType)){
+            int age = onboardingUtils.calculateAge(Optional.ofNullable(accountTypeRequestDTO.getCustomerBirthDate()).orElse(LocalDateTime.now()));
+            return onboardingUtils.isMajorAndUniversityStudentAndAccountTypeIsUNIV(age, accountTypeRequestDTO.getCustomerProfession(), customerType) ||
+                    onboardingUtils.isMinorAndHasProgenitorOrTutorAndAccountTypeIsJOV(age, customerType) || onboardingUtils.isParticularAccountType(accountType);
+        }
+
+        return false;
+    }
+
+    /**
+     * Returns the customers that will hold the new card.
+     */
+    public List<String> checkCardRequest(AccountCardDTO accountCardDTO) {
+        if(!CARD_TYPES.contains(Optional.ofNullable(accountCardDTO.getCardType()).orElse("")))
+            throw new OnboardingException("Não é possível adicionar cartão de conta. O cartão que está a tentar introduzir ou a fase introduzida são inválidos");
+
+        onboardingUtils.isValidPhase(accountCardDTO.getAccountPhase(), OperationType.CARD_ACCOUNT);
+
+        return Optional.ofNullable(accountCardDTO.getCustomerNumber()).filter(numbers -> !numbers.isEmpty()).orElseThrow(() ->
+                new OnboardingException("A lista de clientes para se adicionar o cartão está vazia"));
+    }
+
+    public void checkNextPhase(int nextPhase) {
+        if(!ACCOUNT_PHASES.contains(nextPhase))
+            throw new OnboardingException("Não é possível avançar de fase. A fase seguinte introduzida não é válida");
+    }
+
+    /**
+     * Whether moving to {@code nextPhase} depends on the account's readiness projection.
+     */
+    public boolean requiresReadiness(int nextPhase) {
+        return nextPhase == 3 || nextPhase == 4;
+    }
+
+    /**
+     * Checks the account can move to {@code nextPhase}. The readiness is only asked for when
+     * {@link #requiresReadiness(int)} is true.
+     */
+    public void checkPhaseTransition(Account account, int nextPhase, Supplier<AccountReadiness> accountReadiness) {
+        switch (nextPhase) {
+            case 2 -> {
+                if (StringUtils.isBlank(account.getType()))
+                    onboardingUtils.throwInvalidPhaseForOperationTypeException();
+            }
+            case 3 -> {
+                if (!accountReadiness.get().isReadyForPhase3())
+                    onboardingUtils.throwInvalidPhaseForOperationTypeException();
+            }
+            case 4 -> {
+                if (!accountReadiness.get().isReadyForPhase4())
+                    onboardingUtils.throwInvalidPhaseForOperationTypeException();
+            }
+            default -> {}
+        }
+    }
+
+    /**
+     * Reaching the last phase activates the account.
+     */
+    public boolean isFinalPhase(int phase) {
+        return Objects.equals(TERMINADA.getValue(), phase);
+    }
+}
@@ -1,8 +1,11 @@
 package com.bank.onboarding.accountservice.services;
 
+import com.bank.onboarding.accountservice.persistence.models.AccountListingFilter;
+import com.bank.onboarding.accountservice.services.dtos.AccountListingEntryDTO;
+import com.bank.onboarding.accountservice.services.dtos.BulkCreateAccountResultDTO;
+import com.bank.onboarding.accountservice.services.dtos.VersionedAccountDTO;
 import com.bank.onboarding.commonslib.persistence.exceptions.OnboardingException;
 import com.bank.onboarding.commonslib.utils.kafka.models.DocUploadEvent;
-import com.bank.onboarding.commonslib.utils.kafka.models.ErrorEvent;
 import com.bank.onboarding.commonslib.web.dtos.account.AccountCardDTO;
 import com.bank.onboarding.commonslib.web.dtos.account.AccountDTO;
 import com.bank.onboarding.commonslib.web.dtos.account.AccountDeleteCardDTO;
@@ -12,13 +15,22 @@ import com.bank.onboarding.commonslib.web.dtos.account.CardDTO;
 import com.bank.onboarding.commonslib.web.dtos.account.CreateAccountRequestDTO;
 import com.bank.onboarding.commonslib.web.dtos.account.MoveNextPhaseDTO;
 
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
 public interface AccountService {
     AccountDTO createAccount(CreateAccountRequestDTO createAccountRequestDTO);
+    void createAccounts(Iterator<CreateAccountRequestDTO> createAccountRequestDTOs, Consumer<BulkCreateAccountResultDTO> resultConsumer);
     AccountDTO patchAccountType(String accountNumber, AccountTypeRequestDTO accountTypeRequestDTO) throws OnboardingException;
     CardDTO putAccountCard(String accountNumber, AccountCardDTO accountTypeDTO);
     AccountDTO deleteAccountCard(String accountNumber, String cardId, AccountDeleteCardDTO accountDeleteCardDTO);
     AccountDTO putAccountNetbanco(String accountNumber, AccountNetbancoDTO accountNetbancoDTO);
-    void handleErrorEvent(ErrorEvent errorEvent);
     AccountDTO moveToNextPhase (String accountNumber, MoveNextPhaseDTO moveNextPhaseDTO);
     void updateDocsValidOrNotValid(DocUploadEvent docUploadEvent);
+    VersionedAccountDTO getAccount(String accountNumber);
+    List<AccountDTO> getAccounts(Collection<String> accountNumbers);
+    Stream<AccountListingEntryDTO> listAccounts(AccountListingFilter filter, String after, int limit);
 }
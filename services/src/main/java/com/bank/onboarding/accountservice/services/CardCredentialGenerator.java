@@ -0,0 +1,60 @@
+package com.bank.onboarding.accountservice.services;
+
+import com.bank.onboarding.accountservice.services.utils.CardNumberUtils;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static com.bank.onboarding.accountservice.services.utils.CardNumberUtils.MAX_ACCOUNT_IDENTIFIER;
+
+/**
+ * Generates the number, CVC and annual fee of new cards with {@link ThreadLocalRandom}, so concurrent requests never
+ * contend on a shared generator. Numbers carry the configured BIN and a Luhn check digit, and are unique within each
+ * call; the account identifier space (10^9 per BIN) keeps collisions across calls unlikely, and the unique index on
+ * card numbers rejects the ones that happen, after which the cards are written again with new numbers. CVCs always
+ * have three digits. Fees are drawn in whole cents between the configured bounds.
+ */
+@Component
+public class CardCredentialGenerator {
+
+    private final String bin;
+    private final int minAnnualFeeCents;
+    private final int maxAnnualFeeCents;
+
+    public CardCredentialGenerator(@Value("${bank.onboarding.cards.bin:400000}") String bin,
+                                   @Value("${bank.onboarding.cards.annual-fee-min:5.00}") BigDecimal minAnnualFee,
+                                   @Value("${bank.onboarding.cards.annual-fee-max:20.00}") BigDecimal maxAnnualFee) {
+        if (!CardNumberUtils.isValidBin(bin))
+            throw new IllegalArgumentException("Invalid card BIN: " + bin);
+        this.bin = bin;
+        this.minAnnualFeeCents = minAnnualFee.movePointRight(2).intValueExact();
+        this.maxAnnualFeeCents = maxAnnualFee.movePointRight(2).intValueExact();
+        if (minAnnualFeeCents > maxAnnualFeeCents)
+            throw new IllegalArgumentException("Card annual fee bounds are inverted: " + minAnnualFee + " > " + maxAnnualFee);
+    }
+
+    public List<String> cardNumbers(int count) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        Set<String> issued = new HashSet<>(count * 2);
+        List<String> cardNumbers = new ArrayList<>(count);
+        while (cardNumbers.size() < count) {
+            String cardNumber = CardNumberUtils.buildCardNumber(bin, random.nextLong(MAX_ACCOUNT_IDENTIFIER + 1));
+            if (issued.add(cardNumber)) cardNumbers.add(cardNumber);
+        }
+        return cardNumbers;
+    }
+
+    public int cvc() {
+        return 100 + ThreadLocalRandom.current().nextInt(900);
+    }
+
+    public double annualFee() {
+        return ThreadLocalRandom.current().nextInt(minAnnualFeeCents, maxAnnualFeeCents + 1) / 100.0;
+    }
+}
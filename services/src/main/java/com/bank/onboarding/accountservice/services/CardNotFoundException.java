@@ -0,0 +1,14 @@
+package com.bank.onboarding.accountservice.services;
+
+import com.bank.onboarding.commonslib.persistence.exceptions.OnboardingException;
+
+/**
+ * The card asked for is not one of the account's, which the controllers answer with 404 rather than the 400 of
+ * other {@link OnboardingException}s.
+ */
+public class CardNotFoundException extends OnboardingException {
+
+    public CardNotFoundException() {
+        super("Não é possível remover o cartão de conta. O cartão introduzido não existe nesta conta");
+    }
+}
@@ -0,0 +1,185 @@
+package com.bank.onboarding.accountservice.services;
+
+import com.bank.onboarding.accountservice.persistence.services.CachedAccountRepoService;
+import com.bank.onboarding.accountservice.persistence.services.CompensationRepoService;
+import com.bank.onboarding.commonslib.persistence.models.Account;
+import com.bank.onboarding.commonslib.utils.kafka.models.ErrorEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static com.bank.onboarding.commonslib.persistence.enums.OperationType.ADD_INTERVENIENT;
+import static com.bank.onboarding.commonslib.persistence.enums.OperationType.ADD_REL;
+import static com.bank.onboarding.commonslib.persistence.enums.OperationType.CREATE_ACCOUNT;
+
+/**
+ * Applies the rollbacks customer-service asks for with ErrorEvents. A rolled back CREATE_ACCOUNT deletes the account,
+ * its cards, its readiness and the customer refs left without an account; a rolled back ADD_INTERVENIENT or ADD_REL
+ * of a new customer deletes its customer ref. Rollbacks come in bursts, so events are collected for up to
+ * {@code window}, or until {@code max-batch-size} are pending, deduplicated by account and customer number and
+ * applied together with bulk deletes. A caller waits for the batch holding its event, so its offset is committed
+ * only once the compensation is applied; when a batch fails, it fails for every event in it.
+ */
+@Slf4j
+@Component
+public class CompensationEngine implements SmartLifecycle {
+
+    private final CompensationRepoService compensationRepoService;
+    private final CachedAccountRepoService cachedAccountRepoService;
+    private final AccountMetrics accountMetrics;
+    private final Duration window;
+    private final int maxBatchSize;
+
+    private final Object pendingLock = new Object();
+    private List<PendingCompensation> pending = new ArrayList<>();
+    private ScheduledExecutorService executor;
+    private volatile boolean running;
+
+    public CompensationEngine(CompensationRepoService compensationRepoService, CachedAccountRepoService cachedAccountRepoService,
+                              AccountMetrics accountMetrics,
+                              @Value("${bank.onboarding.compensation.window:PT0.05S}") Duration window,
+                              @Value("${bank.onboarding.compensation.max-batch-size:1000}") int maxBatchSize) {
+        this.compensationRepoService = compensationRepoService;
+        this.cachedAccountRepoService = cachedAccountRepoService;
+        this.accountMetrics = accountMetrics;
+        this.window = window;
+        this.maxBatchSize = maxBatchSize;
+    }
+
+    @Override
+    public void start() {
+        executor = Executors.newSingleThreadScheduledExecutor(Thread.ofPlatform().name("compensation-engine").daemon().factory());
+        running = true;
+        executor.scheduleWithFixedDelay(this::flush, window.toMillis(), window.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Applies what is still pending before stopping, so no caller is left waiting.
+     */
+    @Override
+    public void stop() {
+        running = false;
+        executor.shutdown();
+        try {
+            executor.awaitTermination(30, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        flush();
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Waits until the batch holding the event has been applied, for callers on several threads sharing the engine.
+     * The caller that fills a batch applies it itself, and events arriving while the engine is not running are
+     * applied straight away. A single thread gains nothing from the window and calls {@link #compensateAll} instead.
+     */
+    public void compensate(ErrorEvent errorEvent, Instant producedAt) {
+        Compensation compensation = new Compensation(errorEvent, producedAt);
+        if (!running) {
+            compensateAll(List.of(compensation));
+            return;
+        }
+
+        CompletableFuture<Void> applied = new CompletableFuture<>();
+        boolean full;
+        synchronized (pendingLock) {
+            pending.add(new PendingCompensation(compensation, applied));
+            full = pending.size() >= maxBatchSize;
+        }
+        if (full || !running) flush();
+
+        try {
+            applied.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) throw cause;
+            throw e;
+        }
+    }
+
+    /**
+     * Whether the event rolls back the ADD_INTERVENIENT or ADD_REL of a new customer, i.e. targets that customer's
+     * ref rather than an account.
+     */
+    static boolean removesNewCustomer(ErrorEvent errorEvent) {
+        return Boolean.TRUE.equals(errorEvent.getIsNewCustomer()) && errorEvent.getCustomerRefDTO() != null
+                && (ADD_INTERVENIENT.equals(errorEvent.getOperationType()) || ADD_REL.equals(errorEvent.getOperationType()));
+    }
+
+    /**
+     * Applies the events as one batch, for callers that already collected them, such as the batch listener. A batch
+     * costs up to five Mongo round trips however many events it holds, plus one cache invalidation send per
+     * compensated account.
+     */
+    public void compensateAll(List<Compensation> compensations) {
+        if (compensations.isEmpty()) return;
+
+        Set<String> accountNumbers = new LinkedHashSet<>();
+        Set<String> customerNumbers = new LinkedHashSet<>();
+        compensations.forEach(compensation -> {
+            ErrorEvent errorEvent = compensation.errorEvent();
+            if (CREATE_ACCOUNT.equals(errorEvent.getOperationType()) && errorEvent.getAccountRefDTO() != null)
+                accountNumbers.add(errorEvent.getAccountRefDTO().getAccountNumber());
+            else if (removesNewCustomer(errorEvent))
+                customerNumbers.add(errorEvent.getCustomerRefDTO().getCustomerNumber());
+        });
+
+        if (!accountNumbers.isEmpty()) {
+            List<String> accountIds = compensationRepoService.findAccountIds(accountNumbers).stream().map(Account::getId).toList();
+            if (!accountIds.isEmpty()) {
+                compensationRepoService.deleteCards(accountIds);
+                compensationRepoService.deleteAccounts(accountNumbers);
+            }
+            compensationRepoService.deleteReadinesses(accountNumbers);
+        }
+        compensationRepoService.deleteCustomerRefs(accountNumbers, customerNumbers);
+        cachedAccountRepoService.evictAll(accountNumbers);
+
+        Instant appliedAt = Instant.now();
+        compensations.forEach(compensation -> accountMetrics.compensationApplied(compensation.errorEvent().getOperationType(),
+                Duration.between(compensation.producedAt(), appliedAt)));
+        log.info("Compensated {} error events: {} accounts and {} new customers", compensations.size(),
+                accountNumbers.size(), customerNumbers.size());
+    }
+
+    void flush() {
+        List<PendingCompensation> batch;
+        synchronized (pendingLock) {
+            if (pending.isEmpty()) return;
+            batch = pending;
+            pending = new ArrayList<>();
+        }
+
+        try {
+            compensateAll(batch.stream().map(PendingCompensation::compensation).toList());
+            batch.forEach(pendingCompensation -> pendingCompensation.applied().complete(null));
+        } catch (RuntimeException e) {
+            log.warn("Unable to compensate a batch of {} error events", batch.size(), e);
+            batch.forEach(pendingCompensation -> pendingCompensation.applied().completeExceptionally(e));
+        }
+    }
+
+    /**
+     * An error event and when it was produced, which the compensation lag is measured from.
+     */
+    public record Compensation(ErrorEvent errorEvent, Instant producedAt) {}
+
+    private record PendingCompensation(Compensation compensation, CompletableFuture<Void> applied) {}
+}
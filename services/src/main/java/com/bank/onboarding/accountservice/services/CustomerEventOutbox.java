@@ -0,0 +1,46 @@
+package com.bank.onboarding.accountservice.services;
+
+import com.bank.onboarding.accountservice.persistence.models.OutboxEvent;
+import com.bank.onboarding.accountservice.persistence.services.OutboxRepoService;
+import com.bank.onboarding.commonslib.persistence.enums.OperationType;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Records customer-service events in the outbox instead of sending them. Called inside the transaction of the
+ * change being described, so the event exists if and only if the change was committed; {@link OutboxRelay}
+ * publishes it afterwards.
+ */
+@Service
+@RequiredArgsConstructor
+public class CustomerEventOutbox {
+
+    private final OutboxRepoService outboxRepoService;
+    private final CustomerEventPublisher customerEventPublisher;
+
+    public void add(OperationType operationType, Object event) {
+        addAll(operationType, List.of(event));
+    }
+
+    public void addAll(OperationType operationType, List<?> events) {
+        outboxRepoService.appendAll(outboxEvents(operationType, events));
+    }
+
+    /**
+     * The outbox entries for the events, for callers that write them with their own template, such as the reactive
+     * stack.
+     */
+    public List<OutboxEvent> outboxEvents(OperationType operationType, List<?> events) {
+        LocalDateTime createdAt = LocalDateTime.now();
+        return events.stream()
+                .map(event -> OutboxEvent.builder()
+                        .operationType(operationType)
+                        .payload(customerEventPublisher.serialize(event))
+                        .createdAt(createdAt)
+                        .build())
+                .toList();
+    }
+}
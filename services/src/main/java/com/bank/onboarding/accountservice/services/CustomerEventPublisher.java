@@ -0,0 +1,120 @@
+package com.bank.onboarding.accountservice.services;
+
+import com.bank.onboarding.accountservice.persistence.models.OutboxEvent;
+import com.bank.onboarding.commonslib.persistence.enums.OperationType;
+import com.bank.onboarding.commonslib.persistence.exceptions.OnboardingException;
+import com.bank.onboarding.commonslib.utils.kafka.EventSeDeserializer;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * Publishes events to customer-service-topic keyed by operation type, as {@code KafkaProducer.sendEvent} does, but
+ * hands a whole list to the producer before waiting so the events of one operation leave in the same batch. Sends
+ * are never waited on one at a time: how many are in flight is bounded by the producer's batching and
+ * {@code max.in.flight.requests.per.connection} settings. The outcome of each send is reported to every
+ * {@link PublishListener}. Events are serialized by the commons-lib {@link EventSeDeserializer}, as
+ * {@code KafkaProducer} does, so the payloads are the ones the other services read.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class CustomerEventPublisher {
+
+    private final KafkaTemplate<String, String> kafkaTemplate;
+    private final EventSeDeserializer eventSeDeserializer;
+    private final List<PublishListener> publishListeners;
+
+    @Value("${spring.kafka.producer.customer.topic-name}")
+    private String customerTopicName;
+
+    public void publishAll(OperationType operationType, List<?> events) {
+        try {
+            publishAllAsync(operationType, events).join();
+        } catch (CompletionException e) {
+            throw publishFailure(operationType);
+        }
+    }
+
+    public static OnboardingException publishFailure(OperationType operationType) {
+        return new OnboardingException("Não foi possível notificar o serviço de clientes da operação " + operationType.name());
+    }
+
+    /**
+     * Hands every event to the producer and returns a future completed once all of them are acknowledged.
+     */
+    public CompletableFuture<Void> publishAllAsync(OperationType operationType, List<?> events) {
+        if (events.isEmpty()) return CompletableFuture.completedFuture(null);
+
+        CompletableFuture<?>[] sends = events.stream()
+                .map(event -> sendSerialized(operationType, event))
+                .toArray(CompletableFuture[]::new);
+        return CompletableFuture.allOf(sends).whenComplete((result, e) -> {
+            if (e != null) log.error("Failed to publish {} {} events to {}", events.size(), operationType, customerTopicName, e);
+        });
+    }
+
+    /**
+     * Publishes events read from the outbox, whose payloads are already serialized, in the given order. The returned
+     * future completes once every send has, with the events that were not acknowledged and why.
+     */
+    public CompletableFuture<Map<OutboxEvent, Throwable>> publishOutboxAsync(List<OutboxEvent> outboxEvents) {
+        List<CompletableFuture<SendResult<String, String>>> sends = outboxEvents.stream()
+                .map(outboxEvent -> send(outboxEvent.getOperationType(), outboxEvent.getPayload()))
+                .toList();
+        return CompletableFuture.allOf(sends.toArray(CompletableFuture[]::new)).handle((result, e) -> {
+            Map<OutboxEvent, Throwable> failures = new LinkedHashMap<>();
+            for (int i = 0; i < sends.size(); i++)
+                if (sends.get(i).isCompletedExceptionally()) failures.put(outboxEvents.get(i), sends.get(i).exceptionNow());
+            return failures;
+        });
+    }
+
+    public String serialize(Object event) {
+        try {
+            return eventSeDeserializer.serialize(event);
+        } catch (RuntimeException e) {
+            throw new OnboardingException("Não foi possível serializar o evento " + event.getClass().getSimpleName());
+        }
+    }
+
+    private CompletableFuture<SendResult<String, String>> sendSerialized(OperationType operationType, Object event) {
+        try {
+            return send(operationType, serialize(event));
+        } catch (OnboardingException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    private CompletableFuture<SendResult<String, String>> send(OperationType operationType, String payload) {
+        long startTime = System.nanoTime();
+        CompletableFuture<SendResult<String, String>> sent;
+        try {
+            sent = kafkaTemplate.send(customerTopicName, operationType.name(), payload);
+        } catch (RuntimeException e) {
+            sent = CompletableFuture.failedFuture(e);
+        }
+        return sent.whenComplete((result, e) -> notifyListeners(operationType, Duration.ofNanos(System.nanoTime() - startTime), e));
+    }
+
+    private void notifyListeners(OperationType operationType, Duration latency, Throwable cause) {
+        for (PublishListener publishListener : publishListeners) {
+            try {
+                if (cause == null) publishListener.onSuccess(operationType, latency);
+                else publishListener.onFailure(operationType, latency, cause);
+            } catch (RuntimeException e) {
+                log.warn("Publish listener {} failed", publishListener.getClass().getSimpleName(), e);
+            }
+        }
+    }
+}
@@ -0,0 +1,152 @@
+package com.bank.onboarding.accountservice.services;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.ConsumerRecords;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.header.Header;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.kafka.core.ConsumerFactory;
+import org.springframework.kafka.support.KafkaHeaders;
+import org.springframework.kafka.support.SendResult;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Re-drives dead-lettered events to account-service-topic in bulk, exposed as {@code POST /actuator/deadletters}
+ * with an optional {@code maxRecords} on the management port only, which is not published next to the API. The dead-letter topic is read with its own consumer group, from the last
+ * replayed offset up to the end offsets taken when the replay starts, so events dead-lettered meanwhile wait for the
+ * next replay. The events are sent with their key, payload and original headers, all sends are awaited and only
+ * then are the offsets committed; a replay that fails half way sends its events again on the next run, which the
+ * idempotent writes of the listeners absorb.
+ */
+@Slf4j
+@Component
+@Endpoint(id = "deadletters")
+public class DeadLetterReplayer {
+
+    private static final String RETRY_TOPIC_HEADER_PREFIX = "retry_topic-";
+
+    private final ConsumerFactory<byte[], byte[]> consumerFactory;
+    private final DeadLetterRouter deadLetterRouter;
+    private final String groupId;
+    private final int defaultMaxRecords;
+    private final Duration pollTimeout;
+    private final Duration sendTimeout;
+    private final ReentrantLock replayLock = new ReentrantLock();
+
+    public DeadLetterReplayer(ConsumerFactory<byte[], byte[]> consumerFactory, DeadLetterRouter deadLetterRouter,
+                              @Value("${spring.kafka.consumer.dead-letter.replay.group-id:account-dlt-replay}") String groupId,
+                              @Value("${spring.kafka.consumer.dead-letter.replay.max-records:10000}") int defaultMaxRecords,
+                              @Value("${spring.kafka.consumer.dead-letter.replay.poll-timeout:PT5S}") Duration pollTimeout,
+                              @Value("${spring.kafka.consumer.dead-letter.replay.send-timeout:PT30S}") Duration sendTimeout) {
+        this.consumerFactory = consumerFactory;
+        this.deadLetterRouter = deadLetterRouter;
+        this.groupId = groupId;
+        this.defaultMaxRecords = defaultMaxRecords;
+        this.pollTimeout = pollTimeout;
+        this.sendTimeout = sendTimeout;
+    }
+
+    @WriteOperation
+    public ReplayResult replay(@Nullable Integer maxRecords) {
+        int limit = maxRecords == null ? defaultMaxRecords : maxRecords;
+        if (limit < 1) throw new IllegalArgumentException("maxRecords must be at least 1");
+        if (!replayLock.tryLock()) throw new IllegalStateException("A dead-letter replay is already running");
+        try (Consumer<byte[], byte[]> consumer = consumerFactory.createConsumer(groupId, null, "-replay", replayConsumerProperties())) {
+            return replay(consumer, limit);
+        } finally {
+            replayLock.unlock();
+        }
+    }
+
+    private ReplayResult replay(Consumer<byte[], byte[]> consumer, int limit) {
+        String deadLetterTopicName = deadLetterRouter.getDeadLetterTopicName();
+        List<TopicPartition> partitions = consumer.partitionsFor(deadLetterTopicName).stream()
+                .map(partitionInfo -> new TopicPartition(partitionInfo.topic(), partitionInfo.partition()))
+                .toList();
+        consumer.assign(partitions);
+        Map<TopicPartition, Long> endOffsets = consumer.endOffsets(partitions);
+        Map<TopicPartition, Long> nextOffsets = new HashMap<>();
+        partitions.forEach(partition -> nextOffsets.put(partition, consumer.position(partition)));
+
+        List<CompletableFuture<SendResult<byte[], byte[]>>> sends = new ArrayList<>();
+        while (sends.size() < limit && !caughtUp(nextOffsets, endOffsets)) {
+            ConsumerRecords<byte[], byte[]> records = consumer.poll(pollTimeout);
+            if (records.isEmpty()) break;
+            for (ConsumerRecord<byte[], byte[]> record : records) {
+                TopicPartition partition = new TopicPartition(record.topic(), record.partition());
+                if (sends.size() >= limit || record.offset() >= endOffsets.get(partition)) continue;
+                sends.add(deadLetterRouter.getKafkaTemplate().send(replayRecord(record)));
+                nextOffsets.put(partition, record.offset() + 1);
+            }
+        }
+
+        awaitSends(sends);
+        Map<TopicPartition, OffsetAndMetadata> replayedOffsets = new HashMap<>();
+        nextOffsets.forEach((partition, offset) -> replayedOffsets.put(partition, new OffsetAndMetadata(offset)));
+        consumer.commitSync(replayedOffsets);
+
+        long remaining = partitions.stream().mapToLong(partition -> endOffsets.get(partition) - nextOffsets.get(partition)).sum();
+        log.info("Replayed {} dead-lettered events from {}, {} left", sends.size(), deadLetterTopicName, remaining);
+        return new ReplayResult(sends.size(), remaining);
+    }
+
+    /**
+     * The event as it was first produced: same key, payload and headers, without those the retry chain added, and
+     * with its original timestamp so that lag metrics still count from it.
+     */
+    private ProducerRecord<byte[], byte[]> replayRecord(ConsumerRecord<byte[], byte[]> record) {
+        RecordHeaders headers = new RecordHeaders();
+        for (Header header : record.headers()) {
+            if (!header.key().startsWith(KafkaHeaders.PREFIX) && !header.key().startsWith(RETRY_TOPIC_HEADER_PREFIX))
+                headers.add(header);
+        }
+        Instant producedAt = DeadLetterRouter.producedAt(record);
+        return new ProducerRecord<>(deadLetterRouter.getTopicName(), null, producedAt.toEpochMilli(), record.key(), record.value(), headers);
+    }
+
+    private void awaitSends(List<CompletableFuture<SendResult<byte[], byte[]>>> sends) {
+        try {
+            CompletableFuture.allOf(sends.toArray(CompletableFuture[]::new)).get(sendTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while replaying dead-lettered events", e);
+        } catch (ExecutionException | TimeoutException e) {
+            throw new IllegalStateException("Unable to replay dead-lettered events, none of them is committed", e);
+        }
+    }
+
+    private static boolean caughtUp(Map<TopicPartition, Long> nextOffsets, Map<TopicPartition, Long> endOffsets) {
+        return nextOffsets.entrySet().stream().allMatch(next -> next.getValue() >= endOffsets.get(next.getKey()));
+    }
+
+    private static Properties replayConsumerProperties() {
+        Properties properties = new Properties();
+        properties.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "earliest");
+        properties.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, false);
+        return properties;
+    }
+
+    public record ReplayResult(int replayed, long remaining) {}
+}
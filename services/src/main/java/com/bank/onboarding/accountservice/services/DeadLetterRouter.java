@@ -0,0 +1,83 @@
+package com.bank.onboarding.accountservice.services;
+
+import lombok.Getter;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.header.Header;
+import org.apache.kafka.common.serialization.ByteArraySerializer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.core.ProducerFactory;
+import org.springframework.kafka.listener.DeadLetterPublishingRecoverer;
+import org.springframework.kafka.support.KafkaHeaders;
+import org.springframework.stereotype.Component;
+
+import java.nio.ByteBuffer;
+import java.time.Instant;
+import java.util.Iterator;
+import java.util.Map;
+
+/**
+ * Forwards the account-service-topic records that could not be applied to the retry topic, or straight to the
+ * dead-letter topic when they cannot even be read, whatever the listener mode. Records of other topics, such as the
+ * account cache invalidations, are dropped as before. Forwarded records keep their byte payload, so they are sent
+ * with byte array serializers rather than the String ones the rest of the service publishes with.
+ */
+@Component
+public class DeadLetterRouter {
+
+    public static final String DEAD_LETTER_TOPIC_SUFFIX = "-dlt";
+
+    @Getter
+    private final String topicName;
+    private final String retryTopicName;
+    @Getter
+    private final KafkaTemplate<byte[], byte[]> kafkaTemplate;
+    private final DeadLetterPublishingRecoverer recoverer;
+
+    public DeadLetterRouter(ProducerFactory<byte[], byte[]> producerFactory,
+                            @Value("${spring.kafka.consumer.topic-name}") String topicName,
+                            @Value("${spring.kafka.consumer.retry.topic-name}") String retryTopicName) {
+        this.topicName = topicName;
+        this.retryTopicName = retryTopicName;
+        this.kafkaTemplate = new KafkaTemplate<>(producerFactory, Map.<String, Object>of(
+                ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, ByteArraySerializer.class,
+                ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, ByteArraySerializer.class));
+        this.recoverer = new DeadLetterPublishingRecoverer(kafkaTemplate, this::destination);
+    }
+
+    public String getDeadLetterTopicName() {
+        return retryTopicName + DEAD_LETTER_TOPIC_SUFFIX;
+    }
+
+    /**
+     * Waits for the record to be sent, so the caller only releases its offset once it is forwarded.
+     */
+    public void route(ConsumerRecord<?, ?> record, Exception exception) {
+        recoverer.accept(record, exception);
+    }
+
+    TopicPartition destination(ConsumerRecord<?, ?> record, Exception exception) {
+        if (!topicName.equals(record.topic())) return null;
+        return new TopicPartition(isUnreadable(exception) ? getDeadLetterTopicName() : retryTopicName, -1);
+    }
+
+    public static boolean isUnreadable(Throwable exception) {
+        for (Throwable cause = exception; cause != null; cause = cause.getCause()) {
+            if (cause instanceof SerializationException) return true;
+        }
+        return false;
+    }
+
+    /**
+     * When the event was first produced: forwarded records carry the timestamp of the record they were first
+     * forwarded from, and records written without a timestamp are taken to be produced now.
+     */
+    public static Instant producedAt(ConsumerRecord<?, ?> record) {
+        Iterator<Header> originalTimestamps = record.headers().headers(KafkaHeaders.DLT_ORIGINAL_TIMESTAMP).iterator();
+        if (originalTimestamps.hasNext()) return Instant.ofEpochMilli(ByteBuffer.wrap(originalTimestamps.next().value()).getLong());
+        return record.timestamp() < 0 ? Instant.now() : Instant.ofEpochMilli(record.timestamp());
+    }
+}
@@ -0,0 +1,64 @@
+package com.bank.onboarding.accountservice.services;
+
+import com.bank.onboarding.commonslib.utils.kafka.models.DocUploadEvent;
+import com.bank.onboarding.commonslib.utils.kafka.models.ErrorEvent;
+import com.bank.onboarding.commonslib.web.dtos.customer.CustomerRefDTO;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.errors.SerializationException;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Reads account-service-topic records straight from their byte payload. The Jackson readers of each event key are
+ * resolved once, and the key is matched against its pre-encoded bytes, so no intermediate String is created per
+ * record. Records with an unknown key are read as {@link ErrorEvent}, as customer-service publishes every
+ * compensation under its operation type.
+ */
+@Component
+public class EventRecordReader {
+
+    public static final String UPDATE_CUSTOMER_REF = "UPDATE_CUSTOMER_REF";
+    public static final String DOCS_UPLOAD = "DOCS_UPLOAD";
+
+    private static final byte[] UPDATE_CUSTOMER_REF_KEY = UPDATE_CUSTOMER_REF.getBytes(StandardCharsets.UTF_8);
+    private static final byte[] DOCS_UPLOAD_KEY = DOCS_UPLOAD.getBytes(StandardCharsets.UTF_8);
+
+    private final ObjectReader customerRefReader;
+    private final ObjectReader docUploadReader;
+    private final ObjectReader errorEventReader;
+
+    public EventRecordReader(ObjectMapper objectMapper) {
+        customerRefReader = readerFor(objectMapper, CustomerRefDTO.class);
+        docUploadReader = readerFor(objectMapper, DocUploadEvent.class);
+        errorEventReader = readerFor(objectMapper, ErrorEvent.class);
+    }
+
+    public Object read(ConsumerRecord<byte[], byte[]> event) {
+        return read(event.key(), event.value());
+    }
+
+    public Object read(byte[] key, byte[] value) {
+        ObjectReader objectReader = readerForKey(key);
+        try {
+            return objectReader.readValue(value);
+        } catch (IOException e) {
+            throw new SerializationException("Unable to read " + objectReader.getValueType() + " event", e);
+        }
+    }
+
+    private ObjectReader readerForKey(byte[] key) {
+        if (Arrays.equals(UPDATE_CUSTOMER_REF_KEY, key)) return customerRefReader;
+        if (Arrays.equals(DOCS_UPLOAD_KEY, key)) return docUploadReader;
+        return errorEventReader;
+    }
+
+    private static ObjectReader readerFor(ObjectMapper objectMapper, Class<?> eventClass) {
+        return objectMapper.readerFor(eventClass).without(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+    }
+}
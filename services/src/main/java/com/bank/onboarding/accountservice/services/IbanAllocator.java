@@ -0,0 +1,5 @@
+package com.bank.onboarding.accountservice.services;
+
+public interface IbanAllocator {
+    String nextIban();
+}
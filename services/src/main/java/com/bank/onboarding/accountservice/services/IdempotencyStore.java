@@ -0,0 +1,145 @@
+package com.bank.onboarding.accountservice.services;
+
+import com.bank.onboarding.accountservice.persistence.models.IdempotencyRecord;
+import com.bank.onboarding.accountservice.persistence.services.IdempotencyRepoService;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.Principal;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.Objects;
+import java.util.function.Supplier;
+
+/**
+ * Runs a request at most once per Idempotency-Key and replays its response to the retries. Completed responses are
+ * kept in a bounded local cache in front of the {@code idempotency_keys} collection, which is what makes a key
+ * hold across replicas: the first request claims it there, a retry arriving while it is still running is refused
+ * with 409, and one arriving later gets the stored status and body. Reusing a key for a different request body is
+ * refused with 422. Only successful responses are stored; after a failure the key is released so the client can
+ * retry.
+ */
+@Service
+public class IdempotencyStore {
+
+    public static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+    public static final String IDEMPOTENT_REPLAYED_HEADER = "Idempotent-Replayed";
+    private static final String CACHE_NAME = "idempotency-keys";
+
+    private final IdempotencyRepoService idempotencyRepoService;
+    private final ObjectMapper objectMapper;
+    private final Cache<String, IdempotencyRecord> completedRequests;
+    private final Duration timeToLive;
+    private final Duration claimTimeToLive;
+
+    public IdempotencyStore(IdempotencyRepoService idempotencyRepoService, ObjectMapper objectMapper, MeterRegistry meterRegistry,
+                            @Value("${bank.onboarding.idempotency.maximum-size:10000}") long maximumSize,
+                            @Value("${bank.onboarding.idempotency.time-to-live:PT24H}") Duration timeToLive,
+                            @Value("${bank.onboarding.idempotency.claim-time-to-live:PT1M}") Duration claimTimeToLive) {
+        this.idempotencyRepoService = idempotencyRepoService;
+        this.objectMapper = objectMapper;
+        this.timeToLive = timeToLive;
+        this.claimTimeToLive = claimTimeToLive;
+        this.completedRequests = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(timeToLive)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, completedRequests, CACHE_NAME);
+    }
+
+    /**
+     * Who a key belongs to: the authenticated principal or, when the JWT filter leaves none on the request, a digest
+     * of the bearer token it validated. Never a header the caller chooses, which would let one client read another
+     * client's stored responses by sending its id.
+     */
+    public static String owner(Principal principal, String authorization) {
+        return principal != null ? principal.getName() : digest(authorization.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @param scope what the key applies to, i.e. its {@link #owner} and the operation, so the same key can be used
+     *              elsewhere
+     */
+    public ResponseEntity<?> execute(String scope, String idempotencyKey, Object request, Supplier<ResponseEntity<?>> action) {
+        String id = scope + ":" + idempotencyKey;
+        String requestHash = hash(request);
+
+        IdempotencyRecord idempotencyRecord = completedRequests.getIfPresent(id);
+        if (idempotencyRecord == null) {
+            idempotencyRecord = idempotencyRepoService.claim(id, requestHash, claimTimeToLive);
+            if (idempotencyRecord == null) return executeClaimed(id, action);
+            if (idempotencyRecord.isCompleted()) completedRequests.put(id, idempotencyRecord);
+        }
+        return replay(idempotencyRecord, requestHash);
+    }
+
+    private ResponseEntity<?> executeClaimed(String id, Supplier<ResponseEntity<?>> action) {
+        ResponseEntity<?> response;
+        try {
+            response = action.get();
+        } catch (RuntimeException e) {
+            idempotencyRepoService.release(id);
+            throw e;
+        }
+
+        if (!response.getStatusCode().is2xxSuccessful()) {
+            idempotencyRepoService.release(id);
+            return response;
+        }
+
+        IdempotencyRecord idempotencyRecord = idempotencyRepoService.complete(id, response.getStatusCode().value(),
+                serialize(response.getBody()), timeToLive);
+        if (idempotencyRecord != null) completedRequests.put(id, idempotencyRecord);
+        return response;
+    }
+
+    private ResponseEntity<?> replay(IdempotencyRecord idempotencyRecord, String requestHash) {
+        if (!Objects.equals(requestHash, idempotencyRecord.getRequestHash()))
+            throw new ResponseStatusException(HttpStatus.UNPROCESSABLE_ENTITY, "A chave de idempotência já foi usada noutro pedido");
+        if (!idempotencyRecord.isCompleted())
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "Já existe um pedido em curso com esta chave de idempotência");
+
+        return ResponseEntity.status(idempotencyRecord.getStatus())
+                .contentType(MediaType.APPLICATION_JSON)
+                .header(IDEMPOTENT_REPLAYED_HEADER, Boolean.TRUE.toString())
+                .body(idempotencyRecord.getBody());
+    }
+
+    private String hash(Object request) {
+        try {
+            return digest(objectMapper.writeValueAsBytes(request));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static String digest(byte[] bytes) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(bytes));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private String serialize(Object body) {
+        try {
+            return objectMapper.writeValueAsString(body);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
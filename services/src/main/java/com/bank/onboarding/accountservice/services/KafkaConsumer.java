@@ -1,8 +1,11 @@
 package com.bank.onboarding.accountservice.services;
 
+import com.bank.onboarding.accountservice.persistence.services.AccountReadinessRepoService;
+import com.bank.onboarding.accountservice.persistence.services.BulkRepoService;
+import com.bank.onboarding.accountservice.persistence.services.CachedAccountRepoService;
+import com.bank.onboarding.commonslib.persistence.exceptions.OnboardingException;
 import com.bank.onboarding.commonslib.persistence.models.CustomerRef;
 import com.bank.onboarding.commonslib.persistence.services.CustomerRefRepoService;
-import com.bank.onboarding.commonslib.utils.kafka.EventSeDeserializer;
 import com.bank.onboarding.commonslib.utils.kafka.models.DocUploadEvent;
 import com.bank.onboarding.commonslib.utils.kafka.models.ErrorEvent;
 import com.bank.onboarding.commonslib.web.dtos.account.AccountRefDTO;
@@ -10,29 +13,245 @@ import com.bank.onboarding.commonslib.web.dtos.customer.CustomerRefDTO;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.kafka.clients.consumer.ConsumerRecord;
-import org.springframework.context.annotation.Bean;
+import org.apache.kafka.common.header.Header;
 import org.springframework.kafka.annotation.KafkaListener;
-import org.springframework.kafka.listener.DefaultErrorHandler;
+import org.springframework.kafka.listener.BatchListenerFailedException;
+import org.springframework.kafka.support.Acknowledgment;
+import org.springframework.kafka.support.KafkaHeaders;
 import org.springframework.stereotype.Service;
-import org.springframework.util.backoff.FixedBackOff;
 
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+
+import static com.bank.onboarding.accountservice.configs.KafkaConsumerConfig.BATCH_LISTENER_CONTAINER_FACTORY;
+import static com.bank.onboarding.accountservice.configs.KafkaConsumerConfig.PARALLEL_LISTENER_CONTAINER_FACTORY;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class KafkaConsumer {
 
-    private final EventSeDeserializer eventSeDeserializer;
+    private static final Duration FORWARD_RETRY_INTERVAL = Duration.ofSeconds(1);
+
+    private final EventRecordReader eventRecordReader;
     private final AccountService accountService;
     private final CustomerRefRepoService customerRefRepoService;
+    private final BulkRepoService bulkRepoService;
+    private final AccountReadinessRepoService accountReadinessRepoService;
+    private final CachedAccountRepoService cachedAccountRepoService;
+    private final KeyedEventDispatcher keyedEventDispatcher;
+    private final AccountMetrics accountMetrics;
+    private final CompensationEngine compensationEngine;
+    private final DeadLetterRouter deadLetterRouter;
+
+    @KafkaListener(topics = "${spring.kafka.consumer.topic-name}",  groupId = "${spring.kafka.consumer.group-id}",
+            autoStartup = "#{'${spring.kafka.consumer.listener-mode:record}' == 'record'}")
+    public void consumeEvent(ConsumerRecord<byte[], byte[]> event){
+        Object accountEvent;
+        try {
+            accountEvent = eventRecordReader.read(event);
+        } catch (RuntimeException e) {
+            accountMetrics.eventUnreadable(e);
+            throw e;
+        }
+        applyEvent(accountEvent, DeadLetterRouter.producedAt(event), false);
+    }
+
+    /**
+     * Events that failed on account-service-topic in any listener mode, forwarded by the {@link DeadLetterRouter}.
+     * They are retried here straight away, then from each delay topic of the retry chain once its delay is over, so
+     * a write waiting for Mongo or for an account not written yet holds back no partition of account-service-topic.
+     * A retried event is no longer ordered with the later events of its account.
+     */
+    @KafkaListener(topics = "${spring.kafka.consumer.retry.topic-name}",  groupId = "${spring.kafka.consumer.group-id}")
+    public void retryEvent(ConsumerRecord<byte[], byte[]> event){
+        consumeEvent(event);
+    }
+
+    /**
+     * End of the retry chain, which only records the event: dead-lettered events stay on the dead-letter topic
+     * until {@link DeadLetterReplayer} re-drives them.
+     */
+    public void consumeDeadLetter(ConsumerRecord<byte[], byte[]> event){
+        Header exceptionHeader = Optional.ofNullable(event.headers().lastHeader(KafkaHeaders.DLT_EXCEPTION_CAUSE_FQCN))
+                .orElseGet(() -> event.headers().lastHeader(KafkaHeaders.DLT_EXCEPTION_FQCN));
+        String exception = exceptionHeader == null ? "unknown" : new String(exceptionHeader.value(), StandardCharsets.UTF_8);
+        exception = exception.substring(exception.lastIndexOf('.') + 1);
+        log.error("Event with key {} dead-lettered at offset {} of partition {} after {}", event.key() == null ? null
+                : new String(event.key(), StandardCharsets.UTF_8), event.offset(), event.partition(), exception);
+        accountMetrics.eventDeadLettered(exception);
+    }
+
+    /**
+     * Parallel counterpart of {@link #consumeEvent(ConsumerRecord)}, active when {@code spring.kafka.consumer.listener-mode=parallel}.
+     * Events are deserialized on the listener thread and handed to the {@link KeyedEventDispatcher} by account
+     * (or customer) number, so events of the same account keep their order and slow writes only hold back their
+     * own lane. Offsets are acknowledged once the lane is done and committed up to the lowest pending record; an
+     * event that fails, or cannot be read, is acknowledged once the {@link DeadLetterRouter} has forwarded it. A lane
+     * that cannot forward a failed event keeps trying every second; if the dispatcher stops first, the event is
+     * left unacknowledged and consumed again after the restart.
+     */
+    @KafkaListener(topics = "${spring.kafka.consumer.topic-name}",  groupId = "${spring.kafka.consumer.group-id}",
+            containerFactory = PARALLEL_LISTENER_CONTAINER_FACTORY,
+            autoStartup = "#{'${spring.kafka.consumer.listener-mode:record}' == 'parallel'}")
+    public void dispatchEvent(ConsumerRecord<byte[], byte[]> event, Acknowledgment acknowledgment){
+        Object accountEvent;
+        try {
+            accountEvent = eventRecordReader.read(event);
+        } catch (Exception e) {
+            log.error("Unable to deserialize event at offset {} of partition {}", event.offset(), event.partition(), e);
+            accountMetrics.eventUnreadable(e);
+            deadLetterRouter.route(event, e);
+            acknowledgment.acknowledge();
+            return;
+        }
+        keyedEventDispatcher.dispatch(dispatchKey(accountEvent), () -> {
+            try {
+                applyEvent(accountEvent, DeadLetterRouter.producedAt(event), true);
+            } catch (RuntimeException e) {
+                log.error("Failed to apply event at offset {} of partition {}", event.offset(), event.partition(), e);
+                forwardFromLane(event, e);
+            }
+        }, acknowledgment::acknowledge);
+    }
+
+    private void forwardFromLane(ConsumerRecord<byte[], byte[]> event, Exception cause) {
+        while (true) {
+            try {
+                deadLetterRouter.route(event, cause);
+                return;
+            } catch (RuntimeException e) {
+                if (!keyedEventDispatcher.isRunning())
+                    throw new IllegalStateException("Unable to forward the event at offset " + event.offset() + " of partition "
+                            + event.partition() + " before stopping", e);
+                log.warn("Unable to forward the event at offset {} of partition {}, retrying in {}", event.offset(),
+                        event.partition(), FORWARD_RETRY_INTERVAL, e);
+            }
+            try {
+                Thread.sleep(FORWARD_RETRY_INTERVAL);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while forwarding the event at offset " + event.offset(), e);
+            }
+        }
+    }
+
+    /**
+     * Batch counterpart of {@link #consumeEvent(ConsumerRecord)}, active when {@code spring.kafka.consumer.listener-mode=batch}.
+     * A poll is applied in the same order as record mode would apply it, one segment at a time: a segment is a run
+     * of updates followed by the error events that come after them, and ends at the next update. Within a segment,
+     * updates are collapsed to the latest event per customer/account and written with bulk operations (customer refs
+     * and docs validity, with their readiness projection), then its error events are applied as one
+     * {@link CompensationEngine} batch. So an update that follows a compensation is written after it, as in record
+     * mode, and a poll without interleaved error events still costs one bulk write per collection. The offsets of the
+     * whole poll are committed once this method returns.
+     * Unreadable records are sent to the dead-letter topic once the segment they were read in has been applied, and
+     * docs uploads for accounts not written yet to the retry topic, as record mode would send them. When a write fails, the segment is reported as failed from its first record: the records before it are committed,
+     * that record is forwarded to the retry topic and the rest of the poll, unreadable records included, is
+     * consumed again, which is safe as the bulk writes are idempotent. So no record is forwarded twice.
+     */
+    @KafkaListener(topics = "${spring.kafka.consumer.topic-name}",  groupId = "${spring.kafka.consumer.group-id}",
+            containerFactory = BATCH_LISTENER_CONTAINER_FACTORY,
+            autoStartup = "#{'${spring.kafka.consumer.listener-mode:record}' == 'batch'}")
+    public void consumeEvents(List<ConsumerRecord<byte[], byte[]>> events){
+        EventSegment segment = new EventSegment(0);
+        int segments = 1;
+
+        for (int i = 0; i < events.size(); i++) {
+            ConsumerRecord<byte[], byte[]> event = events.get(i);
+            Object accountEvent;
+            try {
+                accountEvent = eventRecordReader.read(event);
+            } catch (RuntimeException e) {
+                log.error("Unable to deserialize event at offset {} of partition {}", event.offset(), event.partition(), e);
+                accountMetrics.eventUnreadable(e);
+                segment.unappliedEvents.add(new UnappliedEvent(i, event, e));
+                continue;
+            }
+            if (!(accountEvent instanceof ErrorEvent) && !segment.compensations.isEmpty()) {
+                applySegment(events, segment);
+                segment = new EventSegment(i);
+                segments++;
+            }
+            switch (accountEvent) {
+                case CustomerRefDTO customerRefDTO -> segment.customerRefsByNumber.put(customerRefDTO.getCustomerNumber(), customerRefDTO);
+                case DocUploadEvent docUploadEvent -> {
+                    segment.docUploadsByAccount.put(docUploadEvent.getAccountNumber(), docUploadEvent);
+                    segment.docUploadIndexes.put(docUploadEvent.getAccountNumber(), i);
+                }
+                case ErrorEvent errorEvent -> segment.compensations.add(new CompensationEngine.Compensation(errorEvent, DeadLetterRouter.producedAt(event)));
+                default -> log.warn("Unsupported event received at offset {}", event.offset());
+            }
+        }
+        applySegment(events, segment);
+
+        log.info("Batch of {} events applied in {} segments", events.size(), segments);
+    }
+
+    private void applySegment(List<ConsumerRecord<byte[], byte[]>> events, EventSegment segment) {
+        log.debug("Applying {} customer refs, {} docs uploads and {} error events", segment.customerRefsByNumber.size(),
+                segment.docUploadsByAccount.size(), segment.compensations.size());
 
-    @KafkaListener(topics = "${spring.kafka.consumer.topic-name}",  groupId = "${spring.kafka.consumer.group-id}")
-    public void consumeEvent(ConsumerRecord event){
-        String eventValue = event.value().toString();
-        switch (event.key().toString()) {
-            case "UPDATE_CUSTOMER_REF" -> {
-                CustomerRefDTO customerRefDTO = (CustomerRefDTO) eventSeDeserializer.deserialize(eventValue, CustomerRefDTO.class);
+        try {
+            bulkRepoService.upsertCustomerRefs(segment.customerRefsByNumber.values());
+            accountReadinessRepoService.updateCustomersValidity(segment.customerRefsByNumber.values());
+            Set<String> missingAccountNumbers = bulkRepoService.updateAccountsDocsValidity(segment.docUploadsByAccount.values());
+            for (String accountNumber : missingAccountNumbers) {
+                int index = segment.docUploadIndexes.get(accountNumber);
+                segment.unappliedEvents.add(new UnappliedEvent(index, events.get(index),
+                        new OnboardingException("A conta " + accountNumber + " não existe")));
+            }
+            cachedAccountRepoService.evictAll(segment.docUploadsByAccount.keySet());
+            accountReadinessRepoService.updateDocsValidity(segment.docUploadsByAccount.values());
+            compensationEngine.compensateAll(segment.compensations);
+        } catch (RuntimeException e) {
+            throw new BatchListenerFailedException("Unable to apply the segment starting at record " + segment.firstIndex, e, segment.firstIndex);
+        }
+
+        segment.unappliedEvents.sort(Comparator.comparingInt(UnappliedEvent::index));
+        for (UnappliedEvent unappliedEvent : segment.unappliedEvents) {
+            try {
+                deadLetterRouter.route(unappliedEvent.event(), unappliedEvent.cause());
+            } catch (RuntimeException e) {
+                BatchListenerFailedException failure = new BatchListenerFailedException("Unable to dead-letter record "
+                        + unappliedEvent.index(), unappliedEvent.cause(), unappliedEvent.index());
+                failure.addSuppressed(e);
+                throw failure;
+            }
+        }
+    }
+
+    /**
+     * Times every event applied in the record and parallel modes, by event type and outcome.
+     *
+     * @param sharedCompensations whether other threads apply events alongside this one, as the dispatcher lanes do,
+     *                            so error events are worth collecting into {@link CompensationEngine} windows; a
+     *                            single listener thread would only wait out the window for its own event
+     */
+    private void applyEvent(Object accountEvent, Instant producedAt, boolean sharedCompensations) {
+        String eventType = accountEvent.getClass().getSimpleName();
+        long start = System.nanoTime();
+        try {
+            applyAccountEvent(accountEvent, producedAt, sharedCompensations);
+        } catch (RuntimeException e) {
+            accountMetrics.eventFailed(eventType, Duration.ofNanos(System.nanoTime() - start), e);
+            throw e;
+        }
+        accountMetrics.eventConsumed(eventType, Duration.ofNanos(System.nanoTime() - start));
+    }
+
+    private void applyAccountEvent(Object accountEvent, Instant producedAt, boolean sharedCompensations) {
+        switch (accountEvent) {
+            case CustomerRefDTO customerRefDTO -> {
                 String customerRefDTONumber = customerRefDTO.getCustomerNumber();
                 log.info("Event received to update Customer Ref with number {}", customerRefDTONumber);
                 CustomerRef customerRef = customerRefRepoService.findCustomerRefByCustomerNumber(customerRefDTONumber);
@@ -40,22 +259,54 @@ public class KafkaConsumer {
                 customerRef.setValid(customerRefDTO.getIsValid());
                 customerRef.setAccounts(customerRefDTO.getAccounts());
                 customerRefRepoService.saveCustomerRefDB(customerRef);
+                accountReadinessRepoService.updateCustomerValidity(customerRefDTO);
             }
-            case "DOCS_UPLOAD" -> {
-                DocUploadEvent docUploadEvent = (DocUploadEvent) eventSeDeserializer.deserialize(eventValue, DocUploadEvent.class);
+            case DocUploadEvent docUploadEvent -> {
                 log.info("Event received to validate account docs with number {}", docUploadEvent.getAccountNumber());
                 accountService.updateDocsValidOrNotValid(docUploadEvent);
             }
-            default -> {
-                ErrorEvent errorEvent = (ErrorEvent) eventSeDeserializer.deserialize(eventValue, ErrorEvent.class);
+            case ErrorEvent errorEvent -> {
                 log.info("Error event {} received for account number {}", errorEvent, Optional.ofNullable(errorEvent.getAccountRefDTO()).map(AccountRefDTO::getAccountNumber).orElse(""));
-                accountService.handleErrorEvent(errorEvent);
+                if (sharedCompensations) compensationEngine.compensate(errorEvent, producedAt);
+                else compensationEngine.compensateAll(List.of(new CompensationEngine.Compensation(errorEvent, producedAt)));
             }
+            default -> log.warn("Unsupported event {} received", accountEvent);
         }
     }
 
-    @Bean
-    public DefaultErrorHandler errorHandler() {
-        return new DefaultErrorHandler(new FixedBackOff(0, 0));
+    /**
+     * The customer or account number an event changes, so the rollback of a new customer runs on the same lane as
+     * the UPDATE_CUSTOMER_REF events of that customer, and an account rollback on that of the account's docs uploads.
+     */
+    private String dispatchKey(Object accountEvent) {
+        return switch (accountEvent) {
+            case CustomerRefDTO customerRefDTO -> customerRefDTO.getCustomerNumber();
+            case DocUploadEvent docUploadEvent -> docUploadEvent.getAccountNumber();
+            case ErrorEvent errorEvent -> CompensationEngine.removesNewCustomer(errorEvent)
+                    ? errorEvent.getCustomerRefDTO().getCustomerNumber()
+                    : Optional.ofNullable(errorEvent.getAccountRefDTO()).map(AccountRefDTO::getAccountNumber)
+                            .orElseGet(() -> Optional.ofNullable(errorEvent.getCustomerRefDTO()).map(customerRefDTO -> customerRefDTO.getCustomerNumber()).orElse(null));
+            default -> null;
+        };
     }
+
+    /**
+     * Updates collapsed to the latest event per customer/account, the error events that follow them and the records
+     * in between that could not be read or applied. {@code firstIndex} is the position of its first record in the
+     * poll, and {@code docUploadIndexes} that of the docs upload kept for each account.
+     */
+    private static final class EventSegment {
+        private final int firstIndex;
+        private final Map<String, CustomerRefDTO> customerRefsByNumber = new LinkedHashMap<>();
+        private final Map<String, DocUploadEvent> docUploadsByAccount = new LinkedHashMap<>();
+        private final Map<String, Integer> docUploadIndexes = new HashMap<>();
+        private final List<CompensationEngine.Compensation> compensations = new ArrayList<>();
+        private final List<UnappliedEvent> unappliedEvents = new ArrayList<>();
+
+        private EventSegment(int firstIndex) {
+            this.firstIndex = firstIndex;
+        }
+    }
+
+    private record UnappliedEvent(int index, ConsumerRecord<byte[], byte[]> event, RuntimeException cause) {}
 }
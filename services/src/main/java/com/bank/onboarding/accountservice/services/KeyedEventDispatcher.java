@@ -0,0 +1,122 @@
+package com.bank.onboarding.accountservice.services;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.kafka.listener.AbstractMessageListenerContainer;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs event handlers on a fixed set of single-threaded lanes. Events are routed by the hash of their key, so
+ * events sharing a key run one after the other in dispatch order while different keys run in parallel. Each lane
+ * has a bounded queue and {@link #dispatch} blocks the caller when it is full, pushing back on the listener.
+ * <p>
+ * The dispatcher stops before the listener containers, so the events already queued are drained while their
+ * acknowledgements can still be committed. Once it is stopping, {@link #dispatch} throws a
+ * {@link RejectedExecutionException} rather than queueing events that would never run, and the container seeks
+ * back to the rejected record.
+ */
+@Slf4j
+@Component
+public class KeyedEventDispatcher implements SmartLifecycle {
+
+    private static final long OFFER_TIMEOUT_MILLIS = 100;
+
+    private final ThreadPoolExecutor[] lanes;
+    private volatile boolean running;
+
+    public KeyedEventDispatcher(@Value("${spring.kafka.consumer.dispatcher.workers:8}") int workers,
+                                @Value("${spring.kafka.consumer.dispatcher.queue-capacity:256}") int queueCapacity,
+                                @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
+        ThreadFactory threadFactory = virtualThreads
+                ? Thread.ofVirtual().name("account-event-lane-", 0).factory()
+                : new CustomizableThreadFactory("account-event-lane-");
+        lanes = new ThreadPoolExecutor[workers];
+        for (int i = 0; i < workers; i++) {
+            lanes[i] = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+                    new LinkedBlockingQueue<>(queueCapacity), threadFactory, KeyedEventDispatcher::waitForFreeSlot);
+        }
+    }
+
+    @Override
+    public void start() {
+        running = true;
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        try {
+            shutdown();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Just above the phase of the listener containers, which are stopped in decreasing phase order.
+     */
+    @Override
+    public int getPhase() {
+        return AbstractMessageListenerContainer.DEFAULT_PHASE + 1;
+    }
+
+    /**
+     * Runs {@code handler} on the lane owning {@code key} and then {@code onComplete}, so the caller can release the
+     * record (e.g. acknowledge its offset). A handler that throws leaves its record unreleased: a handler that
+     * deals with its own failures, such as by forwarding the event, throws only when it could not.
+     */
+    public void dispatch(String key, Runnable handler, Runnable onComplete) {
+        lanes[Math.floorMod(key == null ? 0 : key.hashCode(), lanes.length)].execute(() -> {
+            try {
+                handler.run();
+            } catch (Exception e) {
+                log.error("Failed to process event with key {}, leaving it unreleased", key, e);
+                return;
+            }
+            onComplete.run();
+        });
+    }
+
+    /**
+     * Rejects new events and waits for the queued ones to run.
+     */
+    public void shutdown() throws InterruptedException {
+        for (ThreadPoolExecutor lane : lanes) lane.shutdown();
+        for (ThreadPoolExecutor lane : lanes) {
+            if (!lane.awaitTermination(30, TimeUnit.SECONDS))
+                log.warn("Event lane did not drain within 30 seconds, {} events pending", lane.getQueue().size());
+        }
+    }
+
+    /**
+     * Blocks the caller until the lane has a free slot, and rejects the event once the lane is shutting down, when
+     * nothing may be left to run it.
+     */
+    private static void waitForFreeSlot(Runnable task, ThreadPoolExecutor lane) {
+        try {
+            while (!lane.isShutdown()) {
+                if (lane.getQueue().offer(task, OFFER_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS)) {
+                    if (lane.isShutdown() && lane.getQueue().remove(task)) break;
+                    return;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RejectedExecutionException("Interrupted while waiting for a free slot in the event lane", e);
+        }
+        throw new RejectedExecutionException("The event lane is shut down");
+    }
+}
@@ -0,0 +1,139 @@
+package com.bank.onboarding.accountservice.services;
+
+import com.bank.onboarding.accountservice.persistence.models.OutboxEvent;
+import com.bank.onboarding.accountservice.persistence.services.OutboxRepoService;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.common.errors.RetriableException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Drains the outbox to customer-service-topic in batches of up to {@code batch-size} events, oldest first. Events
+ * are deleted only once acknowledged, so delivery is at least once. A backlog is drained batch after batch;
+ * otherwise the outbox is polled every {@code linger}, which bounds how long an event waits to be batched. Only the
+ * replica holding the relay lease drains, which keeps the events in order.
+ * <p>
+ * When an event of a batch fails, only the events before it are deleted: the failed event and every one behind it,
+ * acknowledged or not, are sent again, so no event overtakes an older one. An event the broker rejects, as opposed
+ * to one that timed out or hit another retriable error, counts an attempt; after {@code max-attempts} it is parked
+ * so the events behind it are relayed. A broker outage therefore never parks anything.
+ * <p>
+ * A batch is waited on for at most {@code publish-timeout}, which must be shorter than the lease, so a relay stuck
+ * on the broker gives up before another replica can take the lease and send the same events alongside it. The
+ * producer's {@code delivery.timeout.ms} is set below it too, so the sends themselves fail rather than linger.
+ */
+@Slf4j
+@Component
+public class OutboxRelay implements SmartLifecycle {
+
+    private static final String RELAY_LEASE_NAME = "customer-service-topic";
+
+    private final OutboxRepoService outboxRepoService;
+    private final CustomerEventPublisher customerEventPublisher;
+    private final int batchSize;
+    private final Duration linger;
+    private final Duration leaseTimeToLive;
+    private final Duration publishTimeout;
+    private final int maxAttempts;
+    private final String instanceId = UUID.randomUUID().toString();
+
+    private ScheduledExecutorService executor;
+    private volatile boolean running;
+
+    public OutboxRelay(OutboxRepoService outboxRepoService, CustomerEventPublisher customerEventPublisher,
+                       @Value("${bank.onboarding.outbox.batch-size:500}") int batchSize,
+                       @Value("${bank.onboarding.outbox.linger:PT0.05S}") Duration linger,
+                       @Value("${bank.onboarding.outbox.lease-time-to-live:PT10S}") Duration leaseTimeToLive,
+                       @Value("${bank.onboarding.outbox.publish-timeout:PT8S}") Duration publishTimeout,
+                       @Value("${bank.onboarding.outbox.max-attempts:5}") int maxAttempts) {
+        if (publishTimeout.compareTo(leaseTimeToLive) >= 0)
+            throw new IllegalArgumentException("bank.onboarding.outbox.publish-timeout must be shorter than bank.onboarding.outbox.lease-time-to-live");
+
+        this.outboxRepoService = outboxRepoService;
+        this.customerEventPublisher = customerEventPublisher;
+        this.batchSize = batchSize;
+        this.linger = linger;
+        this.leaseTimeToLive = leaseTimeToLive;
+        this.publishTimeout = publishTimeout;
+        this.maxAttempts = maxAttempts;
+    }
+
+    @Override
+    public void start() {
+        executor = Executors.newSingleThreadScheduledExecutor(Thread.ofPlatform().name("outbox-relay").daemon().factory());
+        running = true;
+        executor.scheduleWithFixedDelay(this::relay, linger.toMillis(), linger.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        executor.shutdown();
+        try {
+            executor.awaitTermination(leaseTimeToLive.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    void relay() {
+        try {
+            boolean backlog = true;
+            while (backlog && running && outboxRepoService.acquireRelayLease(RELAY_LEASE_NAME, instanceId, leaseTimeToLive))
+                backlog = relayBatch() == batchSize;
+        } catch (Exception e) {
+            log.warn("Unable to relay outbox events to customer-service-topic, retrying in {}", linger, e);
+        }
+    }
+
+    int relayBatch() {
+        List<OutboxEvent> outboxEvents = outboxRepoService.findOldestEvents(batchSize);
+        if (outboxEvents.isEmpty()) return 0;
+
+        Map<OutboxEvent, Throwable> failures = customerEventPublisher.publishOutboxAsync(outboxEvents)
+                .orTimeout(publishTimeout.toMillis(), TimeUnit.MILLISECONDS)
+                .join();
+        int relayedCount = 0;
+        while (relayedCount < outboxEvents.size() && !failures.containsKey(outboxEvents.get(relayedCount))) relayedCount++;
+
+        outboxRepoService.deleteEvents(outboxEvents.subList(0, relayedCount));
+        log.debug("Relayed {} outbox events", relayedCount);
+        if (relayedCount < outboxEvents.size()) recordFailure(outboxEvents.get(relayedCount), failures.get(outboxEvents.get(relayedCount)));
+        return relayedCount;
+    }
+
+    private void recordFailure(OutboxEvent outboxEvent, Throwable cause) {
+        if (isRetriable(cause)) {
+            log.warn("Outbox event {} was not relayed, retrying in {}", outboxEvent.getId(), linger, cause);
+            return;
+        }
+        if (outboxEvent.getAttempts() + 1 < maxAttempts) {
+            log.warn("Outbox event {} was rejected by the broker, retrying in {}", outboxEvent.getId(), linger, cause);
+            outboxRepoService.recordFailedAttempts(List.of(outboxEvent));
+            return;
+        }
+        outboxEvent.setAttempts(maxAttempts);
+        outboxRepoService.parkEvents(List.of(outboxEvent));
+        log.error("Parked outbox event {} in {} after {} rejected attempts", outboxEvent.getId(), OutboxEvent.PARKED_COLLECTION, maxAttempts, cause);
+    }
+
+    static boolean isRetriable(Throwable e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause())
+            if (cause instanceof RetriableException) return true;
+        return false;
+    }
+}
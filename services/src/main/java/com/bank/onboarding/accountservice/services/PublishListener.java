@@ -0,0 +1,17 @@
+package com.bank.onboarding.accountservice.services;
+
+import com.bank.onboarding.commonslib.persistence.enums.OperationType;
+
+import java.time.Duration;
+
+/**
+ * Told about the outcome of every event {@link CustomerEventPublisher} sends, measured from the hand-off to the
+ * producer until the broker acknowledges it or the send fails. Called on the producer's I/O thread, so
+ * implementations must not block.
+ */
+public interface PublishListener {
+
+    void onSuccess(OperationType operationType, Duration latency);
+
+    void onFailure(OperationType operationType, Duration latency, Throwable cause);
+}
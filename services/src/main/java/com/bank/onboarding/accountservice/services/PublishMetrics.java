@@ -0,0 +1,39 @@
+package com.bank.onboarding.accountservice.services;
+
+import com.bank.onboarding.commonslib.persistence.enums.OperationType;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Records the send latency of customer-service events per operation type and outcome as the
+ * {@code account.customer-events.publish} timer, whose count per outcome also gives the failures.
+ */
+@Component
+@RequiredArgsConstructor
+public class PublishMetrics implements PublishListener {
+
+    private static final String TIMER_NAME = "account.customer-events.publish";
+
+    private final MeterRegistry meterRegistry;
+
+    @Override
+    public void onSuccess(OperationType operationType, Duration latency) {
+        timer(operationType, "success").record(latency);
+    }
+
+    @Override
+    public void onFailure(OperationType operationType, Duration latency, Throwable cause) {
+        timer(operationType, "failure").record(latency);
+    }
+
+    private Timer timer(OperationType operationType, String outcome) {
+        return Timer.builder(TIMER_NAME)
+                .tag("operation", operationType.name())
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+}
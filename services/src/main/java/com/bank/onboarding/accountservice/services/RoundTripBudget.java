@@ -0,0 +1,20 @@
+package com.bank.onboarding.accountservice.services;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Most round trips one call of the annotated method is expected to make: one per repository service call, whatever
+ * it does in Mongo, and one per record handed to the Kafka producer. Calls over budget are reported by
+ * {@link RoundTripTracker}.
+ */
+@Documented
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface RoundTripBudget {
+
+    int value();
+}
@@ -0,0 +1,89 @@
+package com.bank.onboarding.accountservice.services;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+/**
+ * Counts the Mongo and Kafka round trips made on the current thread while a {@link RoundTripBudget} method runs,
+ * which for the servlet stack is the whole request. Counts are published as {@code account.round-trips}, by
+ * operation and target, and calls over budget are logged and counted as {@code account.round-trips.over-budget}.
+ * A repository service calling another one is counted once.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class RoundTripTracker {
+
+    private static final ThreadLocal<RoundTrips> CURRENT = new ThreadLocal<>();
+
+    private final MeterRegistry meterRegistry;
+
+    /**
+     * Starts counting on this thread, unless a budgeted method further up the stack already is.
+     */
+    public boolean open() {
+        if (CURRENT.get() != null) return false;
+        CURRENT.set(new RoundTrips());
+        return true;
+    }
+
+    public void close(String operation, int budget) {
+        RoundTrips roundTrips = CURRENT.get();
+        CURRENT.remove();
+        if (roundTrips == null) return;
+
+        summary(operation, "mongo").record(roundTrips.mongo);
+        summary(operation, "kafka").record(roundTrips.kafka);
+        if (roundTrips.total() > budget) {
+            log.warn("{} made {} round trips ({} to Mongo, {} to Kafka), over its budget of {}",
+                    operation, roundTrips.total(), roundTrips.mongo, roundTrips.kafka, budget);
+            Counter.builder("account.round-trips.over-budget")
+                    .tag("operation", operation)
+                    .register(meterRegistry)
+                    .increment();
+        }
+    }
+
+    /**
+     * Counts a repository call unless it is made from inside another one, and returns whether it was counted, in
+     * which case {@link #exitRepository()} must follow.
+     */
+    public boolean enterRepository() {
+        RoundTrips roundTrips = CURRENT.get();
+        if (roundTrips == null || roundTrips.inRepository) return false;
+        roundTrips.inRepository = true;
+        roundTrips.mongo++;
+        return true;
+    }
+
+    public void exitRepository() {
+        RoundTrips roundTrips = CURRENT.get();
+        if (roundTrips != null) roundTrips.inRepository = false;
+    }
+
+    public void recordSend() {
+        RoundTrips roundTrips = CURRENT.get();
+        if (roundTrips != null) roundTrips.kafka++;
+    }
+
+    private DistributionSummary summary(String operation, String target) {
+        return DistributionSummary.builder("account.round-trips")
+                .tag("operation", operation)
+                .tag("target", target)
+                .register(meterRegistry);
+    }
+
+    private static final class RoundTrips {
+        private int mongo;
+        private int kafka;
+        private boolean inRepository;
+
+        private int total() {
+            return mongo + kafka;
+        }
+    }
+}
@@ -0,0 +1,9 @@
+package com.bank.onboarding.accountservice.services.dtos;
+
+import com.bank.onboarding.commonslib.web.dtos.account.AccountDTO;
+
+/**
+ * One line of an account listing. The cursor of the last line is the {@code after} of the next page.
+ */
+public record AccountListingEntryDTO(String cursor, AccountDTO account) {
+}
@@ -0,0 +1,31 @@
+package com.bank.onboarding.accountservice.services.dtos;
+
+import com.bank.onboarding.commonslib.web.dtos.account.AccountDTO;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class BulkCreateAccountResultDTO {
+
+    public enum Status { CREATED, REJECTED }
+
+    private int index;
+    private Status status;
+    private AccountDTO account;
+    private String error;
+
+    public static BulkCreateAccountResultDTO created(int index, AccountDTO account) {
+        return BulkCreateAccountResultDTO.builder().index(index).status(Status.CREATED).account(account).build();
+    }
+
+    public static BulkCreateAccountResultDTO rejected(int index, String error) {
+        return BulkCreateAccountResultDTO.builder().index(index).status(Status.REJECTED).error(error).build();
+    }
+}
@@ -0,0 +1,9 @@
+package com.bank.onboarding.accountservice.services.dtos;
+
+import com.bank.onboarding.commonslib.web.dtos.account.AccountDTO;
+
+/**
+ * An account with the strong ETag of the version it was read at.
+ */
+public record VersionedAccountDTO(AccountDTO account, String eTag) {
+}
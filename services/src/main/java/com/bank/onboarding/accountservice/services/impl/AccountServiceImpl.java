@@ -1,254 +1,386 @@
 package com.bank.onboarding.accountservice.services.impl;
 
+import com.bank.onboarding.accountservice.persistence.models.AccountListingCursor;
+import com.bank.onboarding.accountservice.persistence.models.AccountListingFilter;
+import com.bank.onboarding.accountservice.persistence.models.AccountReadiness;
+import com.bank.onboarding.accountservice.persistence.models.VersionedAccount;
+import com.bank.onboarding.accountservice.persistence.services.AccountReadinessRepoService;
+import com.bank.onboarding.accountservice.persistence.services.AccountUpdateRepoService;
+import com.bank.onboarding.accountservice.persistence.services.AccountViewRepoService;
+import com.bank.onboarding.accountservice.persistence.services.BulkRepoService;
+import com.bank.onboarding.accountservice.persistence.services.CachedAccountRepoService;
+import com.bank.onboarding.accountservice.services.AccountFactory;
+import com.bank.onboarding.accountservice.services.AccountMetrics;
+import com.bank.onboarding.accountservice.services.AccountRules;
 import com.bank.onboarding.accountservice.services.AccountService;
-import com.bank.onboarding.commonslib.persistence.enums.CustomerType;
+import com.bank.onboarding.accountservice.services.CardNotFoundException;
+import com.bank.onboarding.accountservice.services.CustomerEventOutbox;
+import com.bank.onboarding.accountservice.services.RoundTripBudget;
+import com.bank.onboarding.accountservice.services.dtos.AccountListingEntryDTO;
+import com.bank.onboarding.accountservice.services.dtos.BulkCreateAccountResultDTO;
+import com.bank.onboarding.accountservice.services.dtos.VersionedAccountDTO;
 import com.bank.onboarding.commonslib.persistence.enums.OperationType;
 import com.bank.onboarding.commonslib.persistence.exceptions.OnboardingException;
 import com.bank.onboarding.commonslib.persistence.models.Account;
 import com.bank.onboarding.commonslib.persistence.models.Card;
-import com.bank.onboarding.commonslib.persistence.services.AccountRepoService;
+import com.bank.onboarding.commonslib.persistence.models.CustomerRef;
 import com.bank.onboarding.commonslib.persistence.services.CardRepoService;
 import com.bank.onboarding.commonslib.persistence.services.CustomerRefRepoService;
 import com.bank.onboarding.commonslib.utils.OnboardingUtils;
-import com.bank.onboarding.commonslib.utils.kafka.KafkaProducer;
 import com.bank.onboarding.commonslib.utils.kafka.models.CardAndNetbancoEvent;
 import com.bank.onboarding.commonslib.utils.kafka.models.CreateAccountEvent;
 import com.bank.onboarding.commonslib.utils.kafka.models.DocUploadEvent;
-import com.bank.onboarding.commonslib.utils.kafka.models.ErrorEvent;
 import com.bank.onboarding.commonslib.utils.mappers.AccountMapper;
 import com.bank.onboarding.commonslib.web.dtos.account.AccountCardDTO;
 import com.bank.onboarding.commonslib.web.dtos.account.AccountDTO;
 import com.bank.onboarding.commonslib.web.dtos.account.AccountDeleteCardDTO;
 import com.bank.onboarding.commonslib.web.dtos.account.AccountNetbancoDTO;
-import com.bank.onboarding.commonslib.web.dtos.account.AccountRefDTO;
 import com.bank.onboarding.commonslib.web.dtos.account.AccountTypeRequestDTO;
 import com.bank.onboarding.commonslib.web.dtos.account.CardDTO;
 import com.bank.onboarding.commonslib.web.dtos.account.CreateAccountRequestDTO;
 import com.bank.onboarding.commonslib.web.dtos.account.MoveNextPhaseDTO;
-import io.micrometer.common.util.StringUtils;
+import io.micrometer.core.annotation.Timed;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
-import static com.bank.onboarding.commonslib.persistence.constants.OnboardingConstants.ACCOUNT_PHASES;
-import static com.bank.onboarding.commonslib.persistence.constants.OnboardingConstants.ACCOUNT_TYPES;
-import static com.bank.onboarding.commonslib.persistence.constants.OnboardingConstants.CARD_TYPES;
-import static com.bank.onboarding.commonslib.persistence.constants.OnboardingConstants.faker;
-import static com.bank.onboarding.commonslib.persistence.enums.AccountPhase.TERMINADA;
-import static com.bank.onboarding.commonslib.persistence.enums.OperationType.ADD_INTERVENIENT;
-import static com.bank.onboarding.commonslib.persistence.enums.OperationType.ADD_REL;
 import static com.bank.onboarding.commonslib.persistence.enums.OperationType.CREATE_ACCOUNT;
 
 @Slf4j
 @Service
 @RequiredArgsConstructor
+@Timed(value = "account.service", histogram = true)
 public class AccountServiceImpl implements AccountService {
 
     private final CustomerRefRepoService customerRefRepoService;
     private final OnboardingUtils onboardingUtils;
-    private final AccountRepoService accountRepoService;
     private final CardRepoService cardRepoService;
-    private final KafkaProducer kafkaProducer;
+    private final AccountFactory accountFactory;
+    private final AccountRules accountRules;
+    private final AccountReadinessRepoService accountReadinessRepoService;
+    private final CachedAccountRepoService cachedAccountRepoService;
+    private final AccountUpdateRepoService accountUpdateRepoService;
+    private final AccountViewRepoService accountViewRepoService;
+    private final BulkRepoService bulkRepoService;
+    private final CustomerEventOutbox customerEventOutbox;
+    private final TransactionTemplate transactionTemplate;
+    private final AccountMetrics accountMetrics;
 
-    @Value("${spring.kafka.producer.customer.topic-name}")
-    private String customerTopicName;
+    private final Validator validator;
+
+    @Value("${bank.onboarding.accounts.bulk.batch-size:500}")
+    private int bulkBatchSize;
+
+    @Value("${bank.onboarding.accounts.lookup.max-size:500}")
+    private int lookupMaxSize;
+
+    @Value("${bank.onboarding.accounts.listing.max-page-size:10000}")
+    private int listingMaxPageSize;
 
     @Override
+    @RoundTripBudget(5)
     public AccountDTO createAccount(CreateAccountRequestDTO createAccountRequestDTO) {
-
-        String accountManager = Optional.ofNullable(createAccountRequestDTO.getAccountManager()).orElse("");
-        String accountType = Optional.ofNullable(createAccountRequestDTO.getAccountType()).orElse("");
-        if(StringUtils.isBlank(accountManager) || !ACCOUNT_TYPES.contains(accountType))
-            throw new OnboardingException("Não foi inserido um gestor de conta válido ou o tipo de conta é inválido, pelo que não é possível criar a conta.");
-
-
-        String iban;
-        do {
-            iban = faker.finance().iban("PT");
-        }while (iban != null && !accountRepoService.getAccountsByIBAN(iban).isEmpty());
-
-        Account account = accountRepoService.saveAccountDB(Account.builder()
-            .accountManager(accountManager)
-            .active(Boolean.FALSE)
-            .creationTime(LocalDateTime.now())
-            .currencyCode("EUR")
-            .iban(iban)
-            .lastUpdateTime(LocalDateTime.now())
-            .number(iban.trim().substring(iban.length()-19))
-            .onlineBankingIndicator(Boolean.FALSE)
-            .phase(1)
-            .type(accountType)
-            .build());
-
-        AccountRefDTO accountRefDTO = AccountRefDTO.builder().accountNumber(account.getNumber()).build();
-        kafkaProducer.sendEvent(customerTopicName, CREATE_ACCOUNT, CreateAccountEvent.builder()
-                .createAccountRequestDTO(createAccountRequestDTO)
-                .accountRefDTO(accountRefDTO)
-                .build());
+        Account newAccount = accountFactory.newAccount(createAccountRequestDTO);
+        Account account = transactionTemplate.execute(status -> {
+            Account savedAccount = cachedAccountRepoService.saveAccountDB(newAccount);
+            accountReadinessRepoService.initReadiness(savedAccount, new HashSet<>(), new HashSet<>());
+            customerEventOutbox.add(CREATE_ACCOUNT, accountFactory.createAccountEvent(createAccountRequestDTO, savedAccount));
+            return savedAccount;
+        });
 
         return AccountMapper.INSTANCE.toAccountDTO(account);
     }
 
+    /**
+     * A null request, which the caller could not read, is rejected at its index like an invalid one.
+     */
     @Override
-    public AccountDTO patchAccountType(String accountNumber, AccountTypeRequestDTO accountTypeRequestDTO) throws OnboardingException {
-        if(Boolean.TRUE.equals(accountTypeRequestDTO.isAccountActive()) ||
-                !ACCOUNT_TYPES.contains(Optional.ofNullable(accountTypeRequestDTO.getAccountType()).orElse("")))
-            throw new OnboardingException("Não é possível adicionar/atualizar/remover tipo de conta. A conta está ativa ou o tipo de conta são inválidos");
-
-        onboardingUtils.isValidPhase(accountTypeRequestDTO.getAccountPhase(), OperationType.TYPE_ACCOUNT);
+    public void createAccounts(Iterator<CreateAccountRequestDTO> createAccountRequestDTOs, Consumer<BulkCreateAccountResultDTO> resultConsumer) {
+        int index = 0;
 
-        Account account = accountRepoService.getAccountByNumber(accountNumber);
-        AccountDTO accountDTOReturned = null;
-        String accountType = Optional.ofNullable(accountTypeRequestDTO.getAccountType()).orElse("");
+        while (createAccountRequestDTOs.hasNext()) {
+            List<CreateAccountRequestDTO> batch = new ArrayList<>(bulkBatchSize);
+            while (batch.size() < bulkBatchSize && createAccountRequestDTOs.hasNext()) batch.add(createAccountRequestDTOs.next());
 
-        if(CustomerType.EMPRESA.name().equals(Optional.ofNullable(accountTypeRequestDTO.getCustomerType()).orElse("")) &&
-                onboardingUtils.isEmpresaAccountType(accountType)) {
-            account.setType(accountType);
-            account.setLastUpdateTime(LocalDateTime.now());
+            for (BulkCreateAccountResultDTO result : createAccountsBatch(batch, index)) resultConsumer.accept(result);
+            index += batch.size();
+        }
+    }
 
-            accountDTOReturned = AccountMapper.INSTANCE.toAccountDTO(accountRepoService.saveAccountDB(account));
-        }else if(CustomerType.PARTICULAR.name().equals(Optional.ofNullable(accountTypeRequestDTO.getCustomerType()).orElse(""))){
-            int age = onboardingUtils.calculateAge(Optional.ofNullable(accountTypeRequestDTO.getCustomerBirthDate()).orElse(LocalDateTime.now()));
-            String customerType = Optional.ofNullable(accountTypeRequestDTO.getCustomerType()).orElse("");
+    @Override
+    @RoundTripBudget(3)
+    public AccountDTO patchAccountType(String accountNumber, AccountTypeRequestDTO accountTypeRequestDTO) throws OnboardingException {
+        accountRules.checkAccountTypeRequest(accountTypeRequestDTO);
 
-            if(onboardingUtils.isMajorAndUniversityStudentAndAccountTypeIsUNIV(age, accountTypeRequestDTO.getCustomerProfession(), customerType) ||
-                    onboardingUtils.isMinorAndHasProgenitorOrTutorAndAccountTypeIsJOV(age, customerType) || onboardingUtils.isParticularAccountType(accountType)){
-                account.setType(accountType);
-                account.setLastUpdateTime(LocalDateTime.now());
+        if(!accountRules.isAccountTypeAllowed(accountTypeRequestDTO))
+            return null;
 
-                accountDTOReturned = AccountMapper.INSTANCE.toAccountDTO(accountRepoService.saveAccountDB(account));
-            }
-        }
+        AccountDTO accountDTOReturned = AccountMapper.INSTANCE.toAccountDTO(
+                cacheUpdatedAccount(accountUpdateRepoService.setType(accountNumber, accountTypeRequestDTO.getAccountType())));
+        accountReadinessRepoService.setTypeSet(accountNumber, true);
 
         return accountDTOReturned;
     }
 
     @Override
+    @RoundTripBudget(7)
     public CardDTO putAccountCard(String accountNumber, AccountCardDTO accountCardDTO) {
-        if(!CARD_TYPES.contains(Optional.ofNullable(accountCardDTO.getCardType()).orElse("")))
-            throw new OnboardingException("Não é possível adicionar cartão de conta. O cartão que está a tentar introduzir ou a fase introduzida são inválidos");
-
-        onboardingUtils.isValidPhase(accountCardDTO.getAccountPhase(), OperationType.CARD_ACCOUNT);
-        Account account = accountRepoService.getAccountByNumber(accountNumber);
-
-        Card newCard = Card.builder()
-                .annualFee(Double.valueOf(faker.commerce().price(5.00,20.00).replace(",", ".")))
-                .cvc((int)faker.number().randomNumber(3, false))
-                .number(faker.numerify("####-####-####-####"))
-                .type(cardRepoService.getCardTypeValue(accountCardDTO.getCardType()))
-                .accountId(account.getId()).build();
-
-        Optional.ofNullable(accountCardDTO.getCustomerNumber()).orElseThrow(() ->
-                new OnboardingException("A lista de clientes para se adicionar o cartão está vazia")).forEach(customerNumber -> {
-                    cardRepoService.findAndDeleteCardDB(customerNumber, account.getId());
-                    newCard.setCustomerNumber(customerNumber);
-
-                    cardRepoService.saveCardDB(newCard);
-                    accountRepoService.saveAccountDB(account);
-
-                    kafkaProducer.sendEvent(customerTopicName, OperationType.CARD_ACCOUNT,
-                            CardAndNetbancoEvent.builder().value(true).customerNumber(customerNumber).build());
-        });
-
-        return AccountMapper.INSTANCE.toCardDTO(newCard);
+        List<String> customerNumbers = accountRules.checkCardRequest(accountCardDTO);
+        Account account = cachedAccountRepoService.getAccountByNumber(accountNumber);
+        for (int attempt = 1; ; attempt++) {
+            List<Card> newCards = accountFactory.newCards(account, accountCardDTO.getCardType(), customerNumbers);
+            try {
+                transactionTemplate.executeWithoutResult(status -> {
+                    bulkRepoService.replaceCards(account.getId(), customerNumbers, newCards);
+                    cacheUpdatedAccount(accountUpdateRepoService.touch(accountNumber));
+                    accountReadinessRepoService.addCardHolders(accountNumber, customerNumbers);
+                    customerEventOutbox.addAll(OperationType.CARD_ACCOUNT, accountFactory.cardEvents(customerNumbers, true));
+                });
+                return AccountMapper.INSTANCE.toCardDTO(newCards.get(newCards.size() - 1));
+            } catch (DuplicateKeyException e) {
+                if (attempt == AccountFactory.CARD_NUMBER_ATTEMPTS) throw e;
+                log.warn("A new card number of account {} is taken, drawing new ones", accountNumber);
+            }
+        }
     }
 
     @Override
+    @RoundTripBudget(6)
     public AccountDTO deleteAccountCard(String accountNumber, String cardNumber, AccountDeleteCardDTO accountDeleteCardDTO) {
         onboardingUtils.isValidPhase(accountDeleteCardDTO.getAccountPhase(), OperationType.CARD_ACCOUNT);
         String customerNumber = accountDeleteCardDTO.getCustomerNumber();
-        if (customerNumber != null){
-            Card card = cardRepoService.findCardDB(cardNumber);
-            cardRepoService.deleteCardDB(card.getId());
-
-            accountRepoService.saveAccountDB(accountRepoService.getAccountById(card.getAccountId()));
-
-            kafkaProducer.sendEvent(customerTopicName, OperationType.CARD_ACCOUNT,
-                    CardAndNetbancoEvent.builder().value(false).customerNumber(customerNumber).build());
-        }
-
-        return AccountMapper.INSTANCE.toAccountDTO(accountRepoService.getAccountByNumber(accountNumber));
+        if (customerNumber == null)
+            return AccountMapper.INSTANCE.toAccountDTO(cachedAccountRepoService.getAccountByNumber(accountNumber));
+
+        Account account = cachedAccountRepoService.getAccountByNumber(accountNumber);
+        return AccountMapper.INSTANCE.toAccountDTO(transactionTemplate.execute(status -> {
+            Card card = Optional.ofNullable(bulkRepoService.findAndRemoveCard(account.getId(), cardNumber)).orElseThrow(CardNotFoundException::new);
+            accountReadinessRepoService.removeCardHolder(accountNumber, card.getCustomerNumber());
+            Account savedAccount = cacheUpdatedAccount(accountUpdateRepoService.touch(accountNumber));
+            customerEventOutbox.addAll(OperationType.CARD_ACCOUNT, accountFactory.cardEvents(List.of(customerNumber), false));
+            return savedAccount;
+        }));
     }
 
     @Override
+    @RoundTripBudget(5)
     public AccountDTO putAccountNetbanco(String accountNumber, AccountNetbancoDTO accountNetbancoDTO) {
         onboardingUtils.isValidPhase(accountNetbancoDTO.getAccountPhase(), OperationType.NETBANCO_ACCOUNT);
-        Account account = accountRepoService.getAccountByNumber(accountNumber);
+        Account account = cachedAccountRepoService.getAccountByNumber(accountNumber);
         String customerNumber = accountNetbancoDTO.getCustomerNumber();
 
-        if (customerNumber != null){
-            boolean wantsNetbanco = accountNetbancoDTO.isWantsNetbanco();
-            account.setOnlineBankingIndicator(wantsNetbanco);
-            account.setLastUpdateTime(LocalDateTime.now());
-
-            account = accountRepoService.saveAccountDB(account);
+        if (customerNumber == null)
+            return AccountMapper.INSTANCE.toAccountDTO(account);
 
-            kafkaProducer.sendEvent(customerTopicName, OperationType.NETBANCO_ACCOUNT,
+        boolean wantsNetbanco = accountNetbancoDTO.isWantsNetbanco();
+        return AccountMapper.INSTANCE.toAccountDTO(transactionTemplate.execute(status -> {
+            Account savedAccount = cacheUpdatedAccount(accountUpdateRepoService.setOnlineBankingIndicator(accountNumber, wantsNetbanco));
+            accountReadinessRepoService.setNetbancoChosen(accountNumber, true);
+            customerEventOutbox.add(OperationType.NETBANCO_ACCOUNT,
                     CardAndNetbancoEvent.builder().value(wantsNetbanco).customerNumber(customerNumber).build());
+            return savedAccount;
+        }));
+    }
+
+    @Override
+    @RoundTripBudget(4)
+    public AccountDTO moveToNextPhase(String accountNumber, MoveNextPhaseDTO moveNextPhaseDTO) {
+        int nextPhase =  moveNextPhaseDTO.getNextPhase();
+        try {
+            accountRules.checkNextPhase(nextPhase);
+        } catch (OnboardingException e) {
+            accountMetrics.phaseRejected(nextPhase, AccountMetrics.INVALID_PHASE);
+            throw e;
         }
 
-        return AccountMapper.INSTANCE.toAccountDTO(account);
+        VersionedAccount versionedAccount = Optional.ofNullable(accountUpdateRepoService.findVersionedAccount(accountNumber))
+                .orElseThrow(() -> new OnboardingException("A conta introduzida não existe"));
+        Account account = versionedAccount.account();
+        try {
+            accountRules.checkPhaseTransition(account, nextPhase, () -> getAccountReadiness(account));
+        } catch (OnboardingException e) {
+            accountMetrics.phaseRejected(nextPhase, AccountMetrics.NOT_READY);
+            throw e;
+        }
+
+        Account movedAccount = accountUpdateRepoService.setPhase(accountNumber, versionedAccount.version(),
+                nextPhase, accountRules.isFinalPhase(nextPhase));
+        if (movedAccount == null) {
+            accountMetrics.phaseRejected(nextPhase, AccountMetrics.CONCURRENT_UPDATE);
+            throw new OnboardingException("A conta foi alterada por outro pedido. Tente novamente");
+        }
+        accountMetrics.phaseTransition(account.getPhase(), nextPhase);
+
+        return AccountMapper.INSTANCE.toAccountDTO(cacheUpdatedAccount(movedAccount));
     }
 
     @Override
-    public void handleErrorEvent(ErrorEvent errorEvent) {
-        if(CREATE_ACCOUNT.equals(errorEvent.getOperationType())){
-            String accountNumber = accountRepoService.getAccountByNumber(errorEvent.getAccountRefDTO().getAccountNumber()).getId();
-            accountRepoService.deleteAccountByAccountNumber(accountNumber);
-        }else if (Boolean.TRUE.equals(errorEvent.getIsNewCustomer())
-                && (ADD_INTERVENIENT.equals(errorEvent.getOperationType()) || ADD_REL.equals(errorEvent.getOperationType()))){
-            customerRefRepoService.deleteCustomerByNumber(errorEvent.getCustomerRefDTO().getCustomerNumber());
-        }
+    @RoundTripBudget(3)
+    public void updateDocsValidOrNotValid(DocUploadEvent docUploadEvent) {
+        cacheUpdatedAccount(accountUpdateRepoService.setHasValidDocs(docUploadEvent.getAccountNumber(), docUploadEvent.isAreDocsValid()));
+        accountReadinessRepoService.setDocsValid(docUploadEvent.getAccountNumber(), docUploadEvent.isAreDocsValid());
     }
 
     @Override
-    public AccountDTO moveToNextPhase(String accountNumber, MoveNextPhaseDTO moveNextPhaseDTO) {
-        int nextPhase =  moveNextPhaseDTO.getNextPhase();
-        if(!ACCOUNT_PHASES.contains(nextPhase))
-            throw new OnboardingException("Não é possível avançar de fase. A fase seguinte introduzida não é válida");
+    @RoundTripBudget(1)
+    public VersionedAccountDTO getAccount(String accountNumber) {
+        VersionedAccount versionedAccount = Optional.ofNullable(accountViewRepoService.findAccountView(accountNumber))
+                .orElseThrow(() -> new OnboardingException("A conta introduzida não existe"));
+        return new VersionedAccountDTO(AccountMapper.INSTANCE.toAccountDTO(versionedAccount.account()), eTag(versionedAccount));
+    }
 
-        Account account = accountRepoService.getAccountByNumber(accountNumber);
+    /**
+     * Accounts in the order they were asked for, leaving out the numbers that do not exist.
+     */
+    @Override
+    @RoundTripBudget(1)
+    public List<AccountDTO> getAccounts(Collection<String> accountNumbers) {
+        Set<String> distinctAccountNumbers = new LinkedHashSet<>(accountNumbers);
+        if (distinctAccountNumbers.size() > lookupMaxSize)
+            throw new OnboardingException("Só é possível consultar até " + lookupMaxSize + " contas de cada vez");
+        if (distinctAccountNumbers.isEmpty()) return List.of();
+
+        Map<String, Account> accountsByNumber = accountViewRepoService.findAccountViews(distinctAccountNumbers).stream()
+                .collect(Collectors.toMap(Account::getNumber, Function.identity(), (first, second) -> first));
+        return distinctAccountNumbers.stream()
+                .map(accountsByNumber::get)
+                .filter(Objects::nonNull)
+                .map(AccountMapper.INSTANCE::toAccountDTO)
+                .toList();
+    }
 
-        switch (nextPhase) {
-            case 2 -> {
-                if (StringUtils.isBlank(account.getType()))
-                    onboardingUtils.throwInvalidPhaseForOperationTypeException();
+    /**
+     * Checks the page size and cursor before the listing is opened, so that a bad request fails before anything is
+     * streamed. The returned stream must be closed.
+     */
+    @Override
+    @RoundTripBudget(1)
+    public Stream<AccountListingEntryDTO> listAccounts(AccountListingFilter filter, String after, int limit) {
+        if (limit < 1 || limit > listingMaxPageSize)
+            throw new OnboardingException("O número de contas por página deve estar entre 1 e " + listingMaxPageSize);
+        AccountListingCursor cursor = after == null ? null : AccountListingCursor.parse(after);
+
+        return accountViewRepoService.streamAccountViews(filter, cursor, limit)
+                .map(account -> new AccountListingEntryDTO(AccountListingCursor.of(account).token(), AccountMapper.INSTANCE.toAccountDTO(account)));
+    }
+
+    /**
+     * Validates one batch of a bulk creation, then inserts its accounts and records their readiness and CREATE_ACCOUNT
+     * events in one transaction. A write error aborts a Mongo transaction, so the accounts that could not be inserted
+     * are rejected and the transaction is run again with the others.
+     */
+    private BulkCreateAccountResultDTO[] createAccountsBatch(List<CreateAccountRequestDTO> batch, int firstIndex){
+        BulkCreateAccountResultDTO[] results = new BulkCreateAccountResultDTO[batch.size()];
+        List<Account> newAccounts = new ArrayList<>(batch.size());
+        List<CreateAccountRequestDTO> acceptedRequests = new ArrayList<>(batch.size());
+        List<Integer> acceptedPositions = new ArrayList<>(batch.size());
+
+        for (int i = 0; i < batch.size(); i++) {
+            CreateAccountRequestDTO createAccountRequestDTO = batch.get(i);
+            if (createAccountRequestDTO == null) {
+                results[i] = BulkCreateAccountResultDTO.rejected(firstIndex + i, "O pedido de criação de conta não é válido");
+                continue;
             }
-            case 3 -> {
-                if (isAccountNotValidPhase3(account))
-                    onboardingUtils.throwInvalidPhaseForOperationTypeException();
+            try {
+                Set<ConstraintViolation<CreateAccountRequestDTO>> violations = validator.validate(createAccountRequestDTO);
+                if (!violations.isEmpty())
+                    throw new OnboardingException(violations.stream().map(ConstraintViolation::getMessage).collect(Collectors.joining("; ")));
+
+                newAccounts.add(accountFactory.newAccount(createAccountRequestDTO));
+                acceptedRequests.add(createAccountRequestDTO);
+                acceptedPositions.add(i);
+            } catch (OnboardingException e) {
+                results[i] = BulkCreateAccountResultDTO.rejected(firstIndex + i, e.getMessage());
             }
-            case 4 -> {
-                if (isAccountNotValidPhase3(account) || Boolean.FALSE.equals(account.getHasValidDocs()))
-                    onboardingUtils.throwInvalidPhaseForOperationTypeException();
+        }
+
+        while (!newAccounts.isEmpty()) {
+            Map<Integer, String> insertFailures = transactionTemplate.execute(status -> {
+                Map<Integer, String> failures = bulkRepoService.insertAccounts(newAccounts);
+                if (!failures.isEmpty()) {
+                    status.setRollbackOnly();
+                    return failures;
+                }
+                accountReadinessRepoService.initReadinesses(newAccounts);
+                List<CreateAccountEvent> events = new ArrayList<>(newAccounts.size());
+                for (int i = 0; i < newAccounts.size(); i++)
+                    events.add(accountFactory.createAccountEvent(acceptedRequests.get(i), newAccounts.get(i)));
+                customerEventOutbox.addAll(CREATE_ACCOUNT, events);
+                return failures;
+            });
+            if (insertFailures.isEmpty()) break;
+
+            for (int i = newAccounts.size() - 1; i >= 0; i--) {
+                if (!insertFailures.containsKey(i)) continue;
+                int position = acceptedPositions.remove(i);
+                log.warn("Unable to insert account {} of a bulk creation: {}", newAccounts.remove(i).getNumber(), insertFailures.get(i));
+                acceptedRequests.remove(i);
+                results[position] = BulkCreateAccountResultDTO.rejected(firstIndex + position, "Não foi possível guardar a conta");
             }
-            default -> {}
         }
 
-        account.setPhase(nextPhase);
+        for (int i = 0; i < newAccounts.size(); i++) {
+            int position = acceptedPositions.get(i);
+            results[position] = BulkCreateAccountResultDTO.created(firstIndex + position, AccountMapper.INSTANCE.toAccountDTO(newAccounts.get(i)));
+        }
+        return results;
+    }
 
-        if(Objects.equals(TERMINADA.getValue(), account.getPhase()))
-            account.setActive(true);
+    /**
+     * Field-level updates increment the version, while full saves of the account reset it but change
+     * {@code lastUpdateTime}, so together they identify what was read.
+     */
+    private static String eTag(VersionedAccount versionedAccount){
+        LocalDateTime lastUpdateTime = versionedAccount.account().getLastUpdateTime();
+        return "\"" + versionedAccount.version() + "-"
+                + (lastUpdateTime == null ? "0" : lastUpdateTime.toEpochSecond(ZoneOffset.UTC) + "." + lastUpdateTime.getNano()) + "\"";
+    }
 
-        return AccountMapper.INSTANCE.toAccountDTO(accountRepoService.saveAccountDB(account));
+    private Account cacheUpdatedAccount(Account updatedAccount){
+        return cachedAccountRepoService.cacheUpdatedAccount(Optional.ofNullable(updatedAccount)
+                .orElseThrow(() -> new OnboardingException("A conta introduzida não existe")));
     }
 
-    @Override
-    public void updateDocsValidOrNotValid(DocUploadEvent docUploadEvent) {
-        Account account = accountRepoService.getAccountByNumber(docUploadEvent.getAccountNumber());
-        account.setHasValidDocs(docUploadEvent.isAreDocsValid());
-        accountRepoService.saveAccountDB(account);
+    private AccountReadiness getAccountReadiness(Account account){
+        return Optional.ofNullable(accountReadinessRepoService.findReadiness(account.getNumber()))
+                .orElseGet(() -> rebuildAccountReadiness(account));
     }
 
-    private boolean isAccountNotValidPhase3(Account account){
-        return StringUtils.isBlank(account.getType())
-                || account.getOnlineBankingIndicator() == null
-                || cardRepoService.getAllCardsByAccountId(account.getId()).isEmpty()
-                || customerRefRepoService.getCustomersByAccountsAccountNumber(account.getNumber()).stream().anyMatch(customer -> Boolean.FALSE.equals(customer.isValid()));
+    /**
+     * Accounts created before the readiness projection existed have no readiness document yet, so it is built
+     * once from their cards and customers and kept up to date from then on.
+     */
+    private AccountReadiness rebuildAccountReadiness(Account account){
+        return accountReadinessRepoService.initReadiness(account,
+                cardRepoService.getAllCardsByAccountId(account.getId()).stream()
+                        .map(Card::getCustomerNumber)
+                        .filter(Objects::nonNull)
+                        .collect(Collectors.toCollection(HashSet::new)),
+                customerRefRepoService.getCustomersByAccountsAccountNumber(account.getNumber()).stream()
+                        .filter(customer -> Boolean.FALSE.equals(customer.isValid()))
+                        .map(CustomerRef::getCustomerNumber)
+                        .collect(Collectors.toCollection(HashSet::new)));
     }
 }
@@ -0,0 +1,92 @@
+package com.bank.onboarding.accountservice.services.impl;
+
+import com.bank.onboarding.accountservice.persistence.services.AccountNumberLeaseRepoService;
+import com.bank.onboarding.accountservice.services.IbanAllocator;
+import com.bank.onboarding.commonslib.persistence.exceptions.OnboardingException;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.locks.ReentrantLock;
+
+import static com.bank.onboarding.accountservice.services.utils.IbanUtils.PT_MAX_ACCOUNT_SEQUENCE;
+import static com.bank.onboarding.accountservice.services.utils.IbanUtils.buildPortugueseIban;
+
+/**
+ * Hands out IBANs from blocks of account numbers leased from Mongo. The next block is leased on a dedicated prefetch
+ * thread once the current one runs low, so callers rarely wait on the lease and the blocking {@code findAndModify}
+ * never occupies a thread of the common pool.
+ */
+@Slf4j
+@Service
+public class IbanAllocatorImpl implements IbanAllocator {
+
+    private static final String ACCOUNT_SEQUENCE_NAME = "account-number";
+
+    private final AccountNumberLeaseRepoService accountNumberLeaseRepoService;
+    private final String bankCode;
+    private final String branchCode;
+    private final long blockSize;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final String instanceId = UUID.randomUUID().toString();
+    private final ExecutorService prefetcher = Executors.newSingleThreadExecutor(
+            Thread.ofPlatform().name("iban-block-prefetch").daemon().factory());
+
+    private long nextValue;
+    private long blockEnd = -1;
+    private CompletableFuture<Long> nextBlock;
+
+    public IbanAllocatorImpl(AccountNumberLeaseRepoService accountNumberLeaseRepoService,
+                             @Value("${bank.onboarding.iban.bank-code}") String bankCode,
+                             @Value("${bank.onboarding.iban.branch-code}") String branchCode,
+                             @Value("${bank.onboarding.iban.block-size:1000}") long blockSize) {
+        this.accountNumberLeaseRepoService = accountNumberLeaseRepoService;
+        this.bankCode = bankCode;
+        this.branchCode = branchCode;
+        this.blockSize = blockSize;
+    }
+
+    @Override
+    public String nextIban() {
+        return buildPortugueseIban(bankCode, branchCode, nextSequenceValue());
+    }
+
+    private long nextSequenceValue() {
+        lock.lock();
+        try {
+            if (nextValue > blockEnd) {
+                CompletableFuture<Long> prefetchedBlock = nextBlock;
+                nextBlock = null;
+                Long leasedEnd = prefetchedBlock != null ? prefetchedBlock.exceptionally(e -> null).join() : null;
+                if (leasedEnd == null) leasedEnd = leaseBlock();
+                nextValue = leasedEnd - blockSize + 1;
+                blockEnd = leasedEnd;
+                log.info("Leased account numbers {} to {}", nextValue, blockEnd);
+            }
+
+            if (nextBlock == null && blockEnd - nextValue < blockSize / 10)
+                nextBlock = CompletableFuture.supplyAsync(this::leaseBlock, prefetcher);
+
+            return nextValue++;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        prefetcher.shutdownNow();
+    }
+
+    private long leaseBlock() {
+        long leasedEnd = accountNumberLeaseRepoService.leaseBlock(ACCOUNT_SEQUENCE_NAME, blockSize, instanceId);
+        if (leasedEnd > PT_MAX_ACCOUNT_SEQUENCE)
+            throw new OnboardingException("Não existem mais números de conta disponíveis para o balcão configurado.");
+        return leasedEnd;
+    }
+}
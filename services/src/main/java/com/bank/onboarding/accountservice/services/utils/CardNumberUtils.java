@@ -0,0 +1,79 @@
+package com.bank.onboarding.accountservice.services.utils;
+
+public final class CardNumberUtils {
+
+    public static final int BIN_DIGITS = 6;
+    public static final int CARD_DIGITS = 16;
+    public static final long MAX_ACCOUNT_IDENTIFIER = 999_999_999L;
+
+    private static final int GROUP_DIGITS = 4;
+    private static final char GROUP_SEPARATOR = '-';
+
+    private CardNumberUtils() {}
+
+    /**
+     * Builds a card number (BBBB-BBAA-AAAA-AAAC) from the issuer BIN and the account identifier, computing the Luhn
+     * check digit locally.
+     */
+    public static String buildCardNumber(String bin, long accountIdentifier) {
+        if (!isValidBin(bin))
+            throw new IllegalArgumentException("Invalid BIN: " + bin);
+        if (accountIdentifier < 0 || accountIdentifier > MAX_ACCOUNT_IDENTIFIER)
+            throw new IllegalArgumentException("Account identifier out of range: " + accountIdentifier);
+
+        char[] digits = new char[CARD_DIGITS];
+        bin.getChars(0, BIN_DIGITS, digits, 0);
+        for (int i = CARD_DIGITS - 2; i >= BIN_DIGITS; i--) {
+            digits[i] = (char) ('0' + accountIdentifier % 10);
+            accountIdentifier /= 10;
+        }
+        digits[CARD_DIGITS - 1] = (char) ('0' + luhnCheckDigit(digits, CARD_DIGITS - 1));
+        return format(digits);
+    }
+
+    public static boolean isValidBin(String bin) {
+        return bin != null && bin.length() == BIN_DIGITS && isDigits(bin);
+    }
+
+    public static boolean isValidCardNumber(String cardNumber) {
+        if (cardNumber == null) return false;
+
+        int sum = 0;
+        int digitCount = 0;
+        for (int i = cardNumber.length() - 1; i >= 0; i--) {
+            char c = cardNumber.charAt(i);
+            if (c == GROUP_SEPARATOR) continue;
+            if (c < '0' || c > '9') return false;
+            sum += luhnValue(c - '0', digitCount++ % 2 == 1);
+        }
+        return digitCount == CARD_DIGITS && sum % 10 == 0;
+    }
+
+    static int luhnCheckDigit(char[] digits, int length) {
+        int sum = 0;
+        for (int i = length - 1; i >= 0; i--)
+            sum += luhnValue(digits[i] - '0', (length - 1 - i) % 2 == 0);
+        return (10 - sum % 10) % 10;
+    }
+
+    private static int luhnValue(int digit, boolean doubled) {
+        if (!doubled) return digit;
+        int value = digit * 2;
+        return value > 9 ? value - 9 : value;
+    }
+
+    private static String format(char[] digits) {
+        char[] formatted = new char[CARD_DIGITS + CARD_DIGITS / GROUP_DIGITS - 1];
+        for (int i = 0, j = 0; i < CARD_DIGITS; i++) {
+            if (i > 0 && i % GROUP_DIGITS == 0) formatted[j++] = GROUP_SEPARATOR;
+            formatted[j++] = digits[i];
+        }
+        return new String(formatted);
+    }
+
+    private static boolean isDigits(String value) {
+        for (int i = 0; i < value.length(); i++)
+            if (value.charAt(i) < '0' || value.charAt(i) > '9') return false;
+        return true;
+    }
+}
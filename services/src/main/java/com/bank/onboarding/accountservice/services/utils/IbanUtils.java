@@ -0,0 +1,62 @@
+package com.bank.onboarding.accountservice.services.utils;
+
+public final class IbanUtils {
+
+    public static final int PT_ACCOUNT_DIGITS = 11;
+    public static final long PT_MAX_ACCOUNT_SEQUENCE = 99_999_999_999L;
+
+    private static final String PT_COUNTRY_CODE = "PT";
+
+    private IbanUtils() {}
+
+    /**
+     * Builds a compact Portuguese IBAN (PTkk BBBB AAAA CCCCCCCCCCC NN) for the given bank, branch and account
+     * sequence, computing both the NIB and the IBAN check digits locally.
+     */
+    public static String buildPortugueseIban(String bankCode, String branchCode, long accountSequence) {
+        if (accountSequence < 0 || accountSequence > PT_MAX_ACCOUNT_SEQUENCE)
+            throw new IllegalArgumentException("Account sequence out of range: " + accountSequence);
+
+        StringBuilder nib = new StringBuilder(21)
+                .append(bankCode)
+                .append(branchCode);
+        String sequence = Long.toString(accountSequence);
+        for (int i = sequence.length(); i < PT_ACCOUNT_DIGITS; i++) nib.append('0');
+        nib.append(sequence);
+        appendTwoDigits(nib, nibCheckDigits(nib));
+
+        StringBuilder iban = new StringBuilder(25).append(PT_COUNTRY_CODE);
+        appendTwoDigits(iban, ibanCheckDigits(nib, PT_COUNTRY_CODE));
+        return iban.append(nib).toString();
+    }
+
+    public static boolean isValidIban(String iban) {
+        if (iban == null || iban.length() < 5) return false;
+        String compact = iban.replace(" ", "");
+        return mod97(compact, 0, 4, mod97(compact, 4, compact.length(), 0)) == 1;
+    }
+
+    static int nibCheckDigits(CharSequence bban) {
+        return 98 - (mod97(bban, 0, bban.length(), 0) * 100) % 97;
+    }
+
+    static int ibanCheckDigits(CharSequence bban, String countryCode) {
+        int remainder = mod97(bban, 0, bban.length(), 0);
+        remainder = mod97(countryCode, 0, countryCode.length(), remainder);
+        return 98 - (remainder * 100) % 97;
+    }
+
+    private static int mod97(CharSequence value, int from, int to, int remainder) {
+        for (int i = from; i < to; i++) {
+            char c = value.charAt(i);
+            remainder = c >= '0' && c <= '9'
+                    ? (remainder * 10 + (c - '0')) % 97
+                    : (remainder * 100 + (Character.toUpperCase(c) - 'A' + 10)) % 97;
+        }
+        return remainder;
+    }
+
+    private static void appendTwoDigits(StringBuilder builder, int value) {
+        builder.append((char) ('0' + value / 10)).append((char) ('0' + value % 10));
+    }
+}
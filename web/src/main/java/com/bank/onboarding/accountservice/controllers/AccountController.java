@@ -1,7 +1,13 @@
 package com.bank.onboarding.accountservice.controllers;
 
 
+import com.bank.onboarding.accountservice.persistence.models.AccountListingFilter;
 import com.bank.onboarding.accountservice.services.AccountService;
+import com.bank.onboarding.accountservice.services.CardNotFoundException;
+import com.bank.onboarding.accountservice.services.IdempotencyStore;
+import com.bank.onboarding.accountservice.services.dtos.AccountListingEntryDTO;
+import com.bank.onboarding.accountservice.services.dtos.BulkCreateAccountResultDTO;
+import com.bank.onboarding.accountservice.services.dtos.VersionedAccountDTO;
 import com.bank.onboarding.commonslib.persistence.exceptions.OnboardingException;
 import com.bank.onboarding.commonslib.utils.OnboardingUtils;
 import com.bank.onboarding.commonslib.web.dtos.account.AccountCardDTO;
@@ -12,14 +18,21 @@ import com.bank.onboarding.commonslib.web.dtos.account.AccountTypeRequestDTO;
 import com.bank.onboarding.commonslib.web.dtos.account.CardDTO;
 import com.bank.onboarding.commonslib.web.dtos.account.CreateAccountRequestDTO;
 import com.bank.onboarding.commonslib.web.dtos.account.MoveNextPhaseDTO;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
 import feign.Request;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
@@ -27,28 +40,154 @@ import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.security.Principal;
+import java.time.LocalDateTime;
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+import static com.bank.onboarding.accountservice.services.IdempotencyStore.IDEMPOTENCY_KEY_HEADER;
 
 @RestController
 @RequestMapping("accounts")
 @RequiredArgsConstructor
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 public class AccountController {
 
     private final AccountService accountService;
     private final OnboardingUtils onboardingUtils;
+    private final ObjectMapper objectMapper;
+    private final IdempotencyStore idempotencyStore;
 
     private static final String ACCOUNT_NUMBER_PATH_PARAM = "/{accountNumber}";
 
     @PostMapping(produces = MediaType.APPLICATION_JSON_VALUE, consumes = MediaType.APPLICATION_JSON_VALUE)
     public ResponseEntity<?> createAccount(@RequestBody @Valid CreateAccountRequestDTO createAccountRequestDTO,
                                            @RequestHeader(HttpHeaders.AUTHORIZATION) String authorization,
-                                           @RequestHeader("X-Onboarding-Client-Id") String clientId) {
+                                           @RequestHeader("X-Onboarding-Client-Id") String clientId,
+                                           @RequestHeader(value = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey,
+                                           Principal principal) {
+        return idempotent(IdempotencyStore.owner(principal, authorization) + ":POST /accounts", idempotencyKey, createAccountRequestDTO, () -> {
+            try {
+                final AccountDTO accountDTO = accountService.createAccount(createAccountRequestDTO);
+                return new ResponseEntity<>(accountDTO, HttpStatus.CREATED);
+            }
+            catch(OnboardingException e ) {
+                return onboardingUtils.buildResponseEntity(Request.HttpMethod.POST.name(), e.getMessage());
+            }
+        });
+    }
+
+    @PostMapping(value = "/bulk", produces = MediaType.APPLICATION_NDJSON_VALUE, consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> createAccounts(InputStream createAccountRequestDTOs,
+                                                                @RequestHeader(HttpHeaders.AUTHORIZATION) String authorization,
+                                                                @RequestHeader("X-Onboarding-Client-Id") String clientId) {
+        StreamingResponseBody results = outputStream -> {
+            ObjectWriter resultWriter = objectMapper.writerFor(BulkCreateAccountResultDTO.class);
+            ObjectReader requestReader = objectMapper.readerFor(CreateAccountRequestDTO.class);
+            try (BufferedReader lines = new BufferedReader(new InputStreamReader(createAccountRequestDTOs, StandardCharsets.UTF_8))) {
+                Iterator<CreateAccountRequestDTO> requests = lines.lines()
+                        .filter(line -> !line.isBlank())
+                        .map(line -> readRequest(requestReader, line))
+                        .iterator();
+                accountService.createAccounts(requests, result -> {
+                    try {
+                        outputStream.write(resultWriter.writeValueAsBytes(result));
+                        outputStream.write('\n');
+                        outputStream.flush();
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            }
+        };
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(results);
+    }
+
+    /**
+     * Each NDJSON line is read on its own, so a line that is not a valid request is handed over as null, and rejected
+     * at its index, instead of failing every line after it.
+     */
+    private static CreateAccountRequestDTO readRequest(ObjectReader requestReader, String line) {
+        try {
+            return requestReader.readValue(line);
+        } catch (JsonProcessingException e) {
+            return null;
+        }
+    }
+
+    /**
+     * One page of accounts as NDJSON, oldest first, written as they are read from Mongo. Pass the cursor of the last
+     * line as {@code after} to get the next page; a page shorter than {@code limit} is the last one.
+     */
+    @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<?> listAccounts(@RequestParam(value = "accountManager", required = false) String accountManager,
+                                          @RequestParam(value = "phase", required = false) Integer phase,
+                                          @RequestParam(value = "active", required = false) Boolean active,
+                                          @RequestParam(value = "createdFrom", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime createdFrom,
+                                          @RequestParam(value = "createdTo", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime createdTo,
+                                          @RequestParam(value = "after", required = false) String after,
+                                          @RequestParam(value = "limit", defaultValue = "100") int limit,
+                                          @RequestHeader(HttpHeaders.AUTHORIZATION) String authorization,
+                                          @RequestHeader("X-Onboarding-Client-Id") String clientId){
+        final Stream<AccountListingEntryDTO> entries;
+        try {
+            entries = accountService.listAccounts(new AccountListingFilter(accountManager, phase, active, createdFrom, createdTo), after, limit);
+        }
+        catch( OnboardingException e ) {
+            return onboardingUtils.buildResponseEntity(Request.HttpMethod.GET.name(), e.getMessage());
+        }
+
+        StreamingResponseBody page = outputStream -> {
+            ObjectWriter entryWriter = objectMapper.writerFor(AccountListingEntryDTO.class);
+            try (entries) {
+                Iterator<AccountListingEntryDTO> iterator = entries.iterator();
+                while (iterator.hasNext()) {
+                    outputStream.write(entryWriter.writeValueAsBytes(iterator.next()));
+                    outputStream.write('\n');
+                }
+            }
+        };
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(page);
+    }
+
+    /**
+     * Tagged with the account's ETag: a request whose If-None-Match still matches gets a 304 without a body.
+     */
+    @GetMapping(value = ACCOUNT_NUMBER_PATH_PARAM, produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<?> getAccount(@PathVariable("accountNumber") String accountNumber,
+                                        @RequestHeader(HttpHeaders.AUTHORIZATION) String authorization,
+                                        @RequestHeader("X-Onboarding-Client-Id") String clientId){
+        try {
+            final VersionedAccountDTO versionedAccountDTO = accountService.getAccount(accountNumber);
+            return ResponseEntity.ok().eTag(versionedAccountDTO.eTag()).body(versionedAccountDTO.account());
+        }
+        catch( OnboardingException e ) {
+            return onboardingUtils.buildResponseEntity(Request.HttpMethod.GET.name(), e.getMessage());
+        }
+    }
+
+    @PostMapping(value = "/lookup", produces = MediaType.APPLICATION_JSON_VALUE, consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<?> lookupAccounts(@RequestBody List<String> accountNumbers,
+                                            @RequestHeader(HttpHeaders.AUTHORIZATION) String authorization,
+                                            @RequestHeader("X-Onboarding-Client-Id") String clientId){
         try {
-            final AccountDTO accountDTO = accountService.createAccount(createAccountRequestDTO);
-            return new ResponseEntity<>(accountDTO, HttpStatus.CREATED);
+            final List<AccountDTO> accountDTOs = accountService.getAccounts(accountNumbers);
+            return new ResponseEntity<>(accountDTOs, HttpStatus.OK);
         }
-        catch(OnboardingException e ) {
+        catch( OnboardingException e ) {
             return onboardingUtils.buildResponseEntity(Request.HttpMethod.POST.name(), e.getMessage());
         }
     }
@@ -72,14 +211,19 @@ public class AccountController {
     public ResponseEntity<?> putAccountCard(@PathVariable("accountNumber") String accountNumber,
                                                   @RequestBody @Valid AccountCardDTO accountCardDTO,
                                                   @RequestHeader(HttpHeaders.AUTHORIZATION) String authorization,
-                                                  @RequestHeader("X-Onboarding-Client-Id") String clientId){
-        try {
-            final CardDTO cardDTO = accountService.putAccountCard(accountNumber, accountCardDTO);
-            return new ResponseEntity<>(cardDTO, HttpStatus.OK);
-        }
-        catch( Exception e ) {
-            return onboardingUtils.buildResponseEntity(Request.HttpMethod.PUT.name(), e.getMessage());
-        }
+                                                  @RequestHeader("X-Onboarding-Client-Id") String clientId,
+                                                  @RequestHeader(value = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey,
+                                                  Principal principal){
+        return idempotent(IdempotencyStore.owner(principal, authorization) + ":PUT /accounts/" + accountNumber + "/card",
+                idempotencyKey, accountCardDTO, () -> {
+            try {
+                final CardDTO cardDTO = accountService.putAccountCard(accountNumber, accountCardDTO);
+                return new ResponseEntity<>(cardDTO, HttpStatus.OK);
+            }
+            catch( Exception e ) {
+                return onboardingUtils.buildResponseEntity(Request.HttpMethod.PUT.name(), e.getMessage());
+            }
+        });
     }
 
     @DeleteMapping(value = ACCOUNT_NUMBER_PATH_PARAM + "/card/{cardNumber}", produces = MediaType.APPLICATION_JSON_VALUE, consumes = MediaType.APPLICATION_JSON_VALUE)
@@ -92,6 +236,9 @@ public class AccountController {
             final AccountDTO accountDTO = accountService.deleteAccountCard(accountNumber, cardNumber, accountDeleteCardDTO);
             return new ResponseEntity<>(accountDTO, HttpStatus.OK);
         }
+        catch( CardNotFoundException e ) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, e.getMessage(), e);
+        }
         catch( Exception e ) {
             return onboardingUtils.buildResponseEntity(Request.HttpMethod.DELETE.name(), e.getMessage());
         }
@@ -125,4 +272,11 @@ public class AccountController {
         }
     }
 
+    /**
+     * Requests without an Idempotency-Key are run as they are.
+     */
+    private ResponseEntity<?> idempotent(String scope, String idempotencyKey, Object request, Supplier<ResponseEntity<?>> action) {
+        return idempotencyKey == null ? action.get() : idempotencyStore.execute(scope, idempotencyKey, request, action);
+    }
+
 }
\ No newline at end of file